@@ -4,30 +4,56 @@ import static java.lang.String.format;
 import static java.util.Collections.emptySet;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
 import static org.springframework.http.HttpMethod.DELETE;
 import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.HEAD;
 import static org.springframework.http.HttpMethod.POST;
 import static org.springframework.http.HttpMethod.PUT;
+import static org.springframework.http.MediaType.APPLICATION_CBOR;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
+import static com.tn.query.Query.parse;
 import static com.tn.service.data.controller.DataController.DEFAULT_PAGE_NUMBER;
 import static com.tn.service.data.controller.DataController.DEFAULT_PAGE_SIZE;
+import static com.tn.service.data.controller.DataController.FIELD_COUNT;
 import static com.tn.service.data.controller.DataController.FIELD_MESSAGE;
 import static com.tn.service.data.domain.Direction.ASCENDING;
 import static com.tn.service.data.domain.Direction.DESCENDING;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,11 +68,16 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.util.LinkedMultiValueMap;
 
 import com.tn.lang.util.Page;
+import com.tn.service.data.domain.ChunkProgress;
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.domain.Cursor;
+import com.tn.service.data.domain.CursorPage;
 import com.tn.service.data.domain.Direction;
 import com.tn.service.data.io.DefaultJsonCodec;
 import com.tn.service.data.io.JsonCodec;
 import com.tn.service.data.parameter.IdentityParser;
 import com.tn.service.data.parameter.QueryBuilder;
+import com.tn.service.data.parameter.QueryLimits;
 import com.tn.service.data.repository.DataRepository;
 import com.tn.service.data.repository.DeleteException;
 import com.tn.service.data.repository.InsertException;
@@ -60,8 +91,12 @@ import com.tn.service.data.repository.UpdateException;
 @EnableAutoConfiguration
 class DataApiIntegrationTest
 {
+  private static final ObjectMapper CBOR_MAPPER = new CBORMapper();
+  private static final ObjectMapper SMILE_MAPPER = new SmileMapper();
   private static final ParameterizedTypeReference<List<Value>> TYPE_REFERENCE_LIST = new ParameterizedTypeReference<>() {};
   private static final ParameterizedTypeReference<Page<Value>> TYPE_REFERENCE_PAGE = new ParameterizedTypeReference<>() {};
+  private static final ParameterizedTypeReference<CursorPage<Value>> TYPE_REFERENCE_CURSOR_PAGE = new ParameterizedTypeReference<>() {};
+  private static final ParameterizedTypeReference<List<ChunkProgress>> TYPE_REFERENCE_PROGRESS = new ParameterizedTypeReference<>() {};
 
   @Autowired
   TestRestTemplate testRestTemplate;
@@ -76,6 +111,10 @@ class DataApiIntegrationTest
   void resetMocks()
   {
     reset(dataRepository, identityParser);
+
+    // bulk bodies are parsed lazily, so the repository has to consume them like a real one would.
+    when(dataRepository.insertAll(any())).thenAnswer(invocation -> list(invocation.getArgument(0)));
+    when(dataRepository.updateAll(any())).thenAnswer(invocation -> list(invocation.getArgument(0)));
   }
 
   @Test
@@ -84,7 +123,7 @@ class DataApiIntegrationTest
     Value value1 = new Value(1, "ONE");
     Value value2 = new Value(2, "TWO");
 
-    when(dataRepository.findAll(emptySet(), ASCENDING)).thenReturn(List.of(value1, value2));
+    when(dataRepository.streamAll(emptySet(), ASCENDING)).thenReturn(Stream.of(value1, value2));
 
     ResponseEntity<List<Value>> response = testRestTemplate.exchange("/", GET, null, TYPE_REFERENCE_LIST);
 
@@ -92,6 +131,63 @@ class DataApiIntegrationTest
     assertEquals(List.of(value1, value2), response.getBody());
   }
 
+  @Test
+  void shouldGetLines()
+  {
+    Value value1 = new Value(1, "ONE");
+    Value value2 = new Value(2, "TWO");
+
+    when(dataRepository.streamAll(emptySet(), ASCENDING)).thenReturn(Stream.of(value1, value2));
+
+    ResponseEntity<String> response = testRestTemplate.exchange("/", GET, new HttpEntity<>(headers(ACCEPT, APPLICATION_NDJSON_VALUE)), String.class);
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertTrue(APPLICATION_NDJSON.isCompatibleWith(response.getHeaders().getContentType()));
+    assertEquals("{\"id\":1,\"name\":\"ONE\"}\n{\"id\":2,\"name\":\"TWO\"}\n", response.getBody());
+  }
+
+  @Test
+  void shouldGetCbor() throws Exception
+  {
+    Value value1 = new Value(1, "ONE");
+    Value value2 = new Value(2, "TWO");
+
+    when(dataRepository.streamAll(emptySet(), ASCENDING)).thenReturn(Stream.of(value1, value2));
+
+    ResponseEntity<byte[]> response = testRestTemplate.exchange("/", GET, new HttpEntity<>(headers(ACCEPT, APPLICATION_CBOR_VALUE)), byte[].class);
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertTrue(APPLICATION_CBOR.isCompatibleWith(response.getHeaders().getContentType()));
+    assertEquals(List.of(value1, value2), CBOR_MAPPER.readValue(response.getBody(), new TypeReference<List<Value>>() {}));
+  }
+
+  @Test
+  void shouldGetWithIdCbor() throws Exception
+  {
+    Value value = new Value(123, "TEST");
+
+    when(identityParser.parse(value.id().toString())).thenReturn(value.id());
+    when(dataRepository.find(value.id())).thenReturn(Optional.of(value));
+
+    ResponseEntity<byte[]> response = testRestTemplate.exchange("/" + value.id(), GET, new HttpEntity<>(headers(ACCEPT, APPLICATION_CBOR_VALUE)), byte[].class);
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertEquals(value, CBOR_MAPPER.readValue(response.getBody(), Value.class));
+  }
+
+  @Test
+  void shouldNotGetPageLines()
+  {
+    ResponseEntity<String> response = testRestTemplate.exchange(
+      "/?$pageSize=1",
+      GET,
+      new HttpEntity<>(headers(ACCEPT, APPLICATION_NDJSON_VALUE + "," + APPLICATION_JSON_VALUE)),
+      String.class
+    );
+
+    assertTrue(response.getStatusCode().isSameCodeAs(HttpStatus.BAD_REQUEST));
+  }
+
   @Test
   void shouldGetWithSort()
   {
@@ -101,7 +197,7 @@ class DataApiIntegrationTest
     String sort = "name";
     Direction direction = DESCENDING;
 
-    when(dataRepository.findAll(Set.of(sort), direction)).thenReturn(List.of(value1, value2));
+    when(dataRepository.streamAll(Set.of(sort), direction)).thenReturn(Stream.of(value1, value2));
 
     ResponseEntity<List<Value>> response = testRestTemplate.exchange(
       format("/?$sort=%s&$direction=%s", sort, direction),
@@ -128,6 +224,96 @@ class DataApiIntegrationTest
     assertEquals(value, response.getBody());
   }
   
+  @Test
+  void shouldGetWithIdNotModified()
+  {
+    Value value = new Value(123, "TEST");
+
+    when(identityParser.parse(value.id().toString())).thenReturn(value.id());
+    when(dataRepository.find(value.id())).thenReturn(Optional.of(value));
+
+    ResponseEntity<Value> response = testRestTemplate.getForEntity("/" + value.id(), Value.class);
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertNotNull(response.getHeaders().getETag());
+
+    ResponseEntity<Value> conditionalResponse = testRestTemplate.exchange(
+      "/" + value.id(),
+      GET,
+      new HttpEntity<>(headers(IF_NONE_MATCH, response.getHeaders().getETag())),
+      Value.class
+    );
+
+    assertEquals(HttpStatus.NOT_MODIFIED, conditionalResponse.getStatusCode());
+    assertNull(conditionalResponse.getBody());
+  }
+
+  @Test
+  void shouldGetWithIdModified()
+  {
+    Value value = new Value(123, "TEST");
+
+    when(identityParser.parse(value.id().toString())).thenReturn(value.id());
+    when(dataRepository.find(value.id())).thenReturn(Optional.of(value));
+
+    ResponseEntity<Value> response = testRestTemplate.exchange("/" + value.id(), GET, new HttpEntity<>(headers(IF_NONE_MATCH, "\"STALE\"")), Value.class);
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertEquals(value, response.getBody());
+  }
+
+  @Test
+  void shouldGetWithIdVersionETag()
+  {
+    Value value = new Value(123, "TEST");
+
+    when(identityParser.parse(value.id().toString())).thenReturn(value.id());
+    when(dataRepository.find(value.id())).thenReturn(Optional.of(value));
+
+    String unversionedETag = testRestTemplate.getForEntity("/" + value.id(), Value.class).getHeaders().getETag();
+
+    when(dataRepository.version(value)).thenReturn(Optional.of(7L));
+
+    String versionedETag = testRestTemplate.getForEntity("/" + value.id(), Value.class).getHeaders().getETag();
+
+    assertNotNull(versionedETag);
+    assertNotEquals(unversionedETag, versionedETag);
+  }
+
+  @Test
+  void shouldGetNotModifiedWithVersion()
+  {
+    when(dataRepository.versionAll()).thenReturn(Optional.of(7L));
+    when(dataRepository.streamAll(emptySet(), ASCENDING)).thenAnswer(invocation -> Stream.of(new Value(1, "ONE")));
+
+    ResponseEntity<List<Value>> response = testRestTemplate.exchange("/", GET, null, TYPE_REFERENCE_LIST);
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertNotNull(response.getHeaders().getETag());
+
+    ResponseEntity<List<Value>> conditionalResponse = testRestTemplate.exchange(
+      "/",
+      GET,
+      new HttpEntity<>(headers(IF_NONE_MATCH, response.getHeaders().getETag())),
+      TYPE_REFERENCE_LIST
+    );
+
+    assertEquals(HttpStatus.NOT_MODIFIED, conditionalResponse.getStatusCode());
+
+    verify(dataRepository).streamAll(emptySet(), ASCENDING);
+  }
+
+  @Test
+  void shouldGetWithoutETagWithoutVersion()
+  {
+    when(dataRepository.streamAll(emptySet(), ASCENDING)).thenReturn(Stream.of(new Value(1, "ONE")));
+
+    ResponseEntity<List<Value>> response = testRestTemplate.exchange("/", GET, null, TYPE_REFERENCE_LIST);
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertNull(response.getHeaders().getETag());
+  }
+
   @Test
   void shouldGetWithIds()
   {
@@ -176,7 +362,7 @@ class DataApiIntegrationTest
     Value value = new Value(123, "TEST");
     String query = "name=" + value.name();
 
-    when(dataRepository.findWhere(query, emptySet(), ASCENDING)).thenReturn(List.of(value));
+    when(dataRepository.streamWhere(criteria(query), emptySet(), ASCENDING)).thenReturn(Stream.of(value));
 
     ResponseEntity<List<Value>> response = testRestTemplate.exchange(
       "/?q=" + query,
@@ -198,7 +384,7 @@ class DataApiIntegrationTest
     String sort = "name";
     Direction direction = DESCENDING;
 
-    when(dataRepository.findWhere(query, Set.of(sort), direction)).thenReturn(List.of(value));
+    when(dataRepository.streamWhere(criteria(query), Set.of(sort), direction)).thenReturn(Stream.of(value));
 
     ResponseEntity<List<Value>> response = testRestTemplate.exchange(
       format("/?q=%s&$sort=%s&$direction=%s", query, sort, direction),
@@ -220,7 +406,7 @@ class DataApiIntegrationTest
 
     Page<Value> page = new Page<>(List.of(value), pageNumber, DEFAULT_PAGE_SIZE, DEFAULT_PAGE_SIZE + 1, 2);
 
-    when(dataRepository.findWhere(query, pageNumber, DEFAULT_PAGE_SIZE, emptySet(), ASCENDING)).thenReturn(page);
+    when(dataRepository.findWhere(criteria(query), pageNumber, DEFAULT_PAGE_SIZE, emptySet(), ASCENDING)).thenReturn(page);
 
     ResponseEntity<Page<Value>> response = testRestTemplate.exchange(
       format("/?q=%s&$pageNumber=%d", query, pageNumber),
@@ -245,7 +431,7 @@ class DataApiIntegrationTest
 
     Page<Value> page = new Page<>(List.of(value), pageNumber, DEFAULT_PAGE_SIZE, DEFAULT_PAGE_SIZE + 1, 2);
 
-    when(dataRepository.findWhere(query, pageNumber, DEFAULT_PAGE_SIZE, Set.of(sort), direction)).thenReturn(page);
+    when(dataRepository.findWhere(criteria(query), pageNumber, DEFAULT_PAGE_SIZE, Set.of(sort), direction)).thenReturn(page);
 
     ResponseEntity<Page<Value>> response = testRestTemplate.exchange(
       format("/?q=%s&$pageNumber=%d&$sort=%s&$direction=%s", query, pageNumber, sort, direction),
@@ -267,7 +453,7 @@ class DataApiIntegrationTest
 
     Page<Value> page = new Page<>(List.of(value), DEFAULT_PAGE_NUMBER, pageSize, 1, 1);
 
-    when(dataRepository.findWhere(query, DEFAULT_PAGE_NUMBER, pageSize, emptySet(), ASCENDING)).thenReturn(page);
+    when(dataRepository.findWhere(criteria(query), DEFAULT_PAGE_NUMBER, pageSize, emptySet(), ASCENDING)).thenReturn(page);
 
     ResponseEntity<Page<Value>> response = testRestTemplate.exchange(
       format("/?q=%s&$pageSize=%d", query, pageSize),
@@ -292,7 +478,7 @@ class DataApiIntegrationTest
 
     Page<Value> page = new Page<>(List.of(value), DEFAULT_PAGE_NUMBER, pageSize, 1, 1);
 
-    when(dataRepository.findWhere(query, DEFAULT_PAGE_NUMBER, pageSize, Set.of(sort), direction)).thenReturn(page);
+    when(dataRepository.findWhere(criteria(query), DEFAULT_PAGE_NUMBER, pageSize, Set.of(sort), direction)).thenReturn(page);
 
     ResponseEntity<Page<Value>> response = testRestTemplate.exchange(
       format("/?q=%s&$pageSize=%d&$sort=%s&$direction=%s", query, pageSize, sort, direction),
@@ -315,7 +501,7 @@ class DataApiIntegrationTest
 
     Page<Value> page = new Page<>(List.of(value), pageNumber, pageSize, pageSize + 1, 2);
 
-    when(dataRepository.findWhere(query, pageNumber, pageSize, emptySet(), ASCENDING)).thenReturn(page);
+    when(dataRepository.findWhere(criteria(query), pageNumber, pageSize, emptySet(), ASCENDING)).thenReturn(page);
 
     ResponseEntity<Page<Value>> response = testRestTemplate.exchange(
       format("/?q=%s&$pageNumber=%d&$pageSize=%d", query, pageNumber, pageSize),
@@ -341,7 +527,7 @@ class DataApiIntegrationTest
 
     Page<Value> page = new Page<>(List.of(value), pageNumber, pageSize, pageSize + 1, 2);
 
-    when(dataRepository.findWhere(query, pageNumber, pageSize, Set.of(sort), direction)).thenReturn(page);
+    when(dataRepository.findWhere(criteria(query), pageNumber, pageSize, Set.of(sort), direction)).thenReturn(page);
 
     ResponseEntity<Page<Value>> response = testRestTemplate.exchange(
       format("/?q=%s&$pageNumber=%d&$pageSize=%d&$sort=%s&$direction=%s", query, pageNumber, pageSize, sort, direction),
@@ -354,6 +540,49 @@ class DataApiIntegrationTest
     assertEquals(page, response.getBody());
   }
 
+  @Test
+  void shouldGetWithAfter()
+  {
+    Value value1 = new Value(1, "ONE");
+    Value value2 = new Value(2, "TWO");
+    int pageSize = 1;
+
+    when(dataRepository.findAll(Cursor.START, pageSize + 1, emptySet(), ASCENDING)).thenReturn(List.of(value1, value2));
+    when(dataRepository.findAll(new Cursor(Map.of("id", value1.id())), pageSize + 1, emptySet(), ASCENDING)).thenReturn(List.of(value2));
+
+    ResponseEntity<CursorPage<Value>> response = testRestTemplate.exchange(
+      format("/?$after=&$pageSize=%d", pageSize),
+      GET,
+      null,
+      TYPE_REFERENCE_CURSOR_PAGE
+    );
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertNotNull(response.getBody());
+    assertEquals(List.of(value1), response.getBody().content());
+    assertNotNull(response.getBody().next());
+
+    response = testRestTemplate.exchange(
+      format("/?$after=%s&$pageSize=%d", response.getBody().next(), pageSize),
+      GET,
+      null,
+      TYPE_REFERENCE_CURSOR_PAGE
+    );
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertNotNull(response.getBody());
+    assertEquals(List.of(value2), response.getBody().content());
+    assertNull(response.getBody().next());
+  }
+
+  @Test
+  void shouldNotGetWithAfterAndPageNumber()
+  {
+    ResponseEntity<ObjectNode> response = testRestTemplate.getForEntity("/?$after=&$pageNumber=1", ObjectNode.class);
+
+    assertTrue(response.getStatusCode().isSameCodeAs(HttpStatus.BAD_REQUEST));
+  }
+
   @Test
   void shouldNotGetForUnknownId()
   {
@@ -377,6 +606,146 @@ class DataApiIntegrationTest
     assertEquals("Identity parameters can only be used in isolation from other parameters", response.getBody().get(FIELD_MESSAGE).asText());
   }
 
+  @Test
+  void shouldCount()
+  {
+    when(dataRepository.count()).thenReturn(3L);
+
+    ResponseEntity<ObjectNode> response = testRestTemplate.getForEntity("/?$count=true", ObjectNode.class);
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertNotNull(response.getBody());
+    assertEquals(3L, response.getBody().get(FIELD_COUNT).asLong());
+    verify(dataRepository, never()).streamAll(any(), any());
+  }
+
+  @Test
+  void shouldCountWithQuery()
+  {
+    String query = "name=ONE";
+
+    when(dataRepository.countWhere(criteria(query))).thenReturn(1L);
+
+    ResponseEntity<ObjectNode> response = testRestTemplate.getForEntity("/?q=" + query + "&$count=true", ObjectNode.class);
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertNotNull(response.getBody());
+    assertEquals(1L, response.getBody().get(FIELD_COUNT).asLong());
+  }
+
+  @Test
+  void shouldNotCountWhenNotSupported()
+  {
+    when(dataRepository.count()).thenCallRealMethod();
+
+    ResponseEntity<ObjectNode> response = testRestTemplate.getForEntity("/?$count=true", ObjectNode.class);
+
+    assertTrue(response.getStatusCode().isSameCodeAs(HttpStatus.NOT_IMPLEMENTED));
+    assertNotNull(response.getBody());
+    assertEquals("Counting is not supported", response.getBody().get(FIELD_MESSAGE).asText());
+    verify(dataRepository, never()).streamAll(any(), any());
+  }
+
+  @Test
+  void shouldNotCountPage()
+  {
+    ResponseEntity<ObjectNode> response = testRestTemplate.getForEntity("/?$count=true&$pageSize=10", ObjectNode.class);
+
+    assertTrue(response.getStatusCode().isSameCodeAs(HttpStatus.BAD_REQUEST));
+  }
+
+  @Test
+  void shouldExist()
+  {
+    Integer id = 123;
+
+    when(identityParser.parse(id.toString())).thenReturn(id);
+    when(dataRepository.exists(id)).thenReturn(true);
+
+    ResponseEntity<Void> response = testRestTemplate.exchange("/" + id, HEAD, null, Void.class);
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    verify(dataRepository, never()).find(id);
+  }
+
+  @Test
+  void shouldNotExist()
+  {
+    Integer id = 123;
+
+    when(identityParser.parse(id.toString())).thenReturn(id);
+    when(dataRepository.exists(id)).thenReturn(false);
+
+    ResponseEntity<Void> response = testRestTemplate.exchange("/" + id, HEAD, null, Void.class);
+
+    assertTrue(response.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND));
+  }
+
+  @Test
+  void shouldGetWithFields()
+  {
+    when(dataRepository.streamAll(Set.of("name"), emptySet(), ASCENDING)).thenReturn(Stream.of(new Value(1, "ONE"), new Value(2, "TWO")));
+
+    ResponseEntity<ArrayNode> response = testRestTemplate.getForEntity("/?$fields=name", ArrayNode.class);
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertNotNull(response.getBody());
+    assertEquals("[{\"name\":\"ONE\"},{\"name\":\"TWO\"}]", response.getBody().toString());
+  }
+
+  @Test
+  void shouldGetWithIdAndFields()
+  {
+    Value value = new Value(123, "TEST");
+
+    when(identityParser.parse(value.id().toString())).thenReturn(value.id());
+    when(dataRepository.find(value.id())).thenReturn(Optional.of(value));
+
+    ResponseEntity<ObjectNode> response = testRestTemplate.getForEntity("/" + value.id() + "?$fields=id", ObjectNode.class);
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertNotNull(response.getBody());
+    assertEquals("{\"id\":123}", response.getBody().toString());
+  }
+
+  @Test
+  void shouldGetWithIdsAndFields()
+  {
+    Value value = new Value(1, "ONE");
+
+    when(identityParser.parse(value.id().toString())).thenReturn(value.id());
+    when(dataRepository.findAll(Set.of(value.id()))).thenReturn(List.of(value));
+
+    ResponseEntity<ArrayNode> response = testRestTemplate.getForEntity("/?id=1&$fields=name", ArrayNode.class);
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertNotNull(response.getBody());
+    assertEquals("[{\"name\":\"ONE\"}]", response.getBody().toString());
+  }
+
+  @Test
+  void shouldNotGetWithUnknownFields()
+  {
+    ResponseEntity<ObjectNode> response = testRestTemplate.getForEntity("/?$fields=name,unknown", ObjectNode.class);
+
+    assertTrue(response.getStatusCode().isSameCodeAs(HttpStatus.BAD_REQUEST));
+    assertNotNull(response.getBody());
+    assertEquals("Unknown field: unknown", response.getBody().get(FIELD_MESSAGE).asText());
+  }
+
+  @Test
+  void shouldNotGetWithTooManyValues()
+  {
+    String names = IntStream.rangeClosed(0, QueryLimits.DEFAULT.maxValuesPerField()).mapToObj(i -> "name=" + i).collect(Collectors.joining("&"));
+
+    ResponseEntity<ObjectNode> response = testRestTemplate.getForEntity("/?" + names, ObjectNode.class);
+
+    assertTrue(response.getStatusCode().isSameCodeAs(HttpStatus.BAD_REQUEST));
+    assertNotNull(response.getBody());
+    assertEquals("Too many values for name, the limit is " + QueryLimits.DEFAULT.maxValuesPerField(), response.getBody().get(FIELD_MESSAGE).asText());
+    verifyNoInteractions(dataRepository);
+  }
+
   @Test
   void shouldPostWithObject()
   {
@@ -397,14 +766,84 @@ class DataApiIntegrationTest
   {
     List<Value> values = List.of(new Value(1, "ONE"), new Value(2, "TWO"));
 
-    when(dataRepository.insertAll(values)).thenReturn(values);
-
     ResponseEntity<List<Value>> response = testRestTemplate.exchange("/", POST, body(values), TYPE_REFERENCE_LIST);
 
     assertTrue(response.getStatusCode().is2xxSuccessful());
     assertEquals(values, response.getBody());
 
-    verify(dataRepository).insertAll(values);
+    verify(dataRepository).insertAll(any());
+  }
+
+  @Test
+  void shouldPostWithChunkSize()
+  {
+    List<Value> values = List.of(new Value(1, "ONE"), new Value(2, "TWO"), new Value(3, "THREE"));
+
+    ResponseEntity<List<ChunkProgress>> response = testRestTemplate.exchange("/?$chunkSize=2", POST, body(values), TYPE_REFERENCE_PROGRESS);
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertEquals(List.of(ChunkProgress.written(0, 0, 2), ChunkProgress.written(1, 2, 1)), response.getBody());
+
+    verify(dataRepository, times(2)).insertAll(any());
+  }
+
+  @Test
+  void shouldReportFailedChunk()
+  {
+    List<Value> values = List.of(new Value(1, "ONE"), new Value(2, "TWO"));
+
+    when(dataRepository.insertAll(any()))
+      .thenAnswer(invocation -> list(invocation.getArgument(0)))
+      .thenThrow(new InsertException("TESTING"));
+
+    ResponseEntity<List<ChunkProgress>> response = testRestTemplate.exchange("/?$chunkSize=1", POST, body(values), TYPE_REFERENCE_PROGRESS);
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertEquals(List.of(ChunkProgress.written(0, 0, 1), ChunkProgress.failed(1, 1, "TESTING", null)), response.getBody());
+  }
+
+  @Test
+  void shouldNotPostWithChunkSizeAndObject()
+  {
+    ResponseEntity<ObjectNode> response = testRestTemplate.postForEntity("/?$chunkSize=2", new Value(1, "ONE"), ObjectNode.class);
+
+    assertTrue(response.getStatusCode().isSameCodeAs(HttpStatus.BAD_REQUEST));
+  }
+
+  @Test
+  void shouldPostLines()
+  {
+    List<Value> values = List.of(new Value(1, "ONE"), new Value(2, "TWO"));
+
+    ResponseEntity<List<Value>> response = testRestTemplate.exchange(
+      "/",
+      POST,
+      new HttpEntity<>("{\"id\":1,\"name\":\"ONE\"}\n{\"id\":2,\"name\":\"TWO\"}\n", headers(CONTENT_TYPE, APPLICATION_NDJSON_VALUE)),
+      TYPE_REFERENCE_LIST
+    );
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertEquals(values, response.getBody());
+
+    verify(dataRepository).insertAll(any());
+  }
+
+  @Test
+  void shouldPostSmile() throws Exception
+  {
+    List<Value> values = List.of(new Value(1, "ONE"), new Value(2, "TWO"));
+
+    ResponseEntity<List<Value>> response = testRestTemplate.exchange(
+      "/",
+      POST,
+      new HttpEntity<>(SMILE_MAPPER.writeValueAsBytes(values), headers(CONTENT_TYPE, DataApi.APPLICATION_SMILE_VALUE)),
+      TYPE_REFERENCE_LIST
+    );
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertEquals(values, response.getBody());
+
+    verify(dataRepository).insertAll(any());
   }
 
   @Test
@@ -451,14 +890,25 @@ class DataApiIntegrationTest
   {
     List<Value> values = List.of(new Value(1, "ONE"), new Value(2, "TWO"));
 
-    when(dataRepository.updateAll(values)).thenReturn(values);
-
     ResponseEntity<List<Value>> response = testRestTemplate.exchange("/", PUT, body(values), TYPE_REFERENCE_LIST);
 
     assertTrue(response.getStatusCode().is2xxSuccessful());
     assertEquals(values, response.getBody());
 
-    verify(dataRepository).updateAll(values);
+    verify(dataRepository).updateAll(any());
+  }
+
+  @Test
+  void shouldPutWithChunkSize()
+  {
+    List<Value> values = List.of(new Value(1, "ONE"), new Value(2, "TWO"), new Value(3, "THREE"));
+
+    ResponseEntity<List<ChunkProgress>> response = testRestTemplate.exchange("/?$chunkSize=2", PUT, body(values), TYPE_REFERENCE_PROGRESS);
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertEquals(List.of(ChunkProgress.written(0, 0, 2), ChunkProgress.written(1, 2, 1)), response.getBody());
+
+    verify(dataRepository, times(2)).updateAll(any());
   }
 
   @Test
@@ -543,6 +993,24 @@ class DataApiIntegrationTest
     return new HttpEntity<>(body, new LinkedMultiValueMap<>());
   }
 
+  private LinkedMultiValueMap<String, String> headers(String name, String value)
+  {
+    LinkedMultiValueMap<String, String> headers = new LinkedMultiValueMap<>();
+    headers.add(name, value);
+
+    return headers;
+  }
+
+  private static Criteria criteria(String query)
+  {
+    return new Criteria(query, parse(query));
+  }
+
+  private static List<Value> list(Iterable<Value> values)
+  {
+    return StreamSupport.stream(values.spliterator(), false).toList();
+  }
+
   public record Value(Integer id, String name) {}
 
   static class TestConfiguration
@@ -0,0 +1,256 @@
+package com.tn.service.data.api;
+
+import static java.util.Collections.emptySet;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+
+import static com.tn.query.Query.parse;
+import static com.tn.service.data.controller.DataController.DEFAULT_PAGE_SIZE;
+import static com.tn.service.data.controller.DataController.FIELD_COUNT;
+import static com.tn.service.data.controller.DataController.FIELD_MESSAGE;
+import static com.tn.service.data.domain.Direction.ASCENDING;
+
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import com.tn.lang.util.Page;
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.io.DefaultJsonCodec;
+import com.tn.service.data.io.JsonCodec;
+import com.tn.service.data.parameter.IdentityParser;
+import com.tn.service.data.parameter.QueryBuilder;
+import com.tn.service.data.repository.InsertException;
+import com.tn.service.data.repository.ReactiveDataRepository;
+
+@SpringBootTest(
+  webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+  classes = ReactiveDataApiIntegrationTest.TestConfiguration.class,
+  properties = "spring.main.web-application-type=reactive"
+)
+@SuppressWarnings("SpringBootApplicationProperties")
+@EnableAutoConfiguration
+class ReactiveDataApiIntegrationTest
+{
+  private static final ParameterizedTypeReference<Page<Value>> TYPE_REFERENCE_PAGE = new ParameterizedTypeReference<>() {};
+
+  @Autowired
+  WebTestClient webTestClient;
+
+  @Autowired
+  ReactiveDataRepository<Value, Integer> dataRepository;
+
+  @Autowired
+  IdentityParser<String, Integer> identityParser;
+
+  @BeforeEach
+  void resetMocks()
+  {
+    reset(dataRepository, identityParser);
+
+    when(dataRepository.insertAll(any())).thenAnswer(invocation -> Flux.fromIterable(invocation.<Iterable<Value>>getArgument(0)));
+  }
+
+  @Test
+  void shouldGet()
+  {
+    Value value1 = new Value(1, "ONE");
+    Value value2 = new Value(2, "TWO");
+
+    when(dataRepository.findAll(emptySet(), ASCENDING)).thenReturn(Flux.just(value1, value2));
+
+    webTestClient.get().uri("/").accept(APPLICATION_JSON).exchange()
+      .expectStatus().isOk()
+      .expectBodyList(Value.class).isEqualTo(List.of(value1, value2));
+  }
+
+  @Test
+  void shouldGetLines()
+  {
+    Value value1 = new Value(1, "ONE");
+    Value value2 = new Value(2, "TWO");
+
+    when(dataRepository.findAll(emptySet(), ASCENDING)).thenReturn(Flux.just(value1, value2));
+
+    webTestClient.get().uri("/").accept(APPLICATION_NDJSON).exchange()
+      .expectStatus().isOk()
+      .expectHeader().contentTypeCompatibleWith(APPLICATION_NDJSON)
+      .expectBody(String.class).isEqualTo("{\"id\":1,\"name\":\"ONE\"}\n{\"id\":2,\"name\":\"TWO\"}\n");
+  }
+
+  @Test
+  void shouldGetWithQueryAndPageNumber()
+  {
+    Value value = new Value(123, "TEST");
+    String query = "name=" + value.name();
+
+    Page<Value> page = new Page<>(List.of(value), 1, DEFAULT_PAGE_SIZE, DEFAULT_PAGE_SIZE + 1, 2);
+
+    when(dataRepository.findWhere(criteria(query), 1, DEFAULT_PAGE_SIZE, emptySet(), ASCENDING)).thenReturn(Mono.just(page));
+
+    webTestClient.get().uri("/?q={query}&$pageNumber=1", query).accept(APPLICATION_JSON).exchange()
+      .expectStatus().isOk()
+      .expectBody(TYPE_REFERENCE_PAGE).isEqualTo(page);
+  }
+
+  @Test
+  void shouldGetWithIdAndFields()
+  {
+    Value value = new Value(123, "TEST");
+
+    when(identityParser.parse(value.id().toString())).thenReturn(value.id());
+    when(dataRepository.find(value.id())).thenReturn(Mono.just(value));
+
+    webTestClient.get().uri("/{id}?$fields=name", value.id()).exchange()
+      .expectStatus().isOk()
+      .expectBody(String.class).isEqualTo("{\"name\":\"TEST\"}");
+  }
+
+  @Test
+  void shouldNotGetForUnknownId()
+  {
+    when(identityParser.parse("123")).thenReturn(123);
+    when(dataRepository.find(123)).thenReturn(Mono.empty());
+
+    webTestClient.get().uri("/123").exchange().expectStatus().isNotFound();
+  }
+
+  @Test
+  void shouldExist()
+  {
+    when(identityParser.parse("123")).thenReturn(123);
+    when(dataRepository.exists(123)).thenReturn(Mono.just(true));
+
+    webTestClient.head().uri("/123").exchange().expectStatus().isOk();
+  }
+
+  @Test
+  void shouldCount()
+  {
+    when(dataRepository.count()).thenReturn(Mono.just(2L));
+
+    webTestClient.get().uri("/?$count=true").exchange()
+      .expectStatus().isOk()
+      .expectBody().jsonPath("$." + FIELD_COUNT).isEqualTo(2);
+  }
+
+  @Test
+  void shouldNotCountWhenNotSupported()
+  {
+    when(dataRepository.count()).thenCallRealMethod();
+
+    webTestClient.get().uri("/?$count=true").exchange()
+      .expectStatus().isEqualTo(HttpStatus.NOT_IMPLEMENTED)
+      .expectBody().jsonPath("$." + FIELD_MESSAGE).isEqualTo("Counting is not supported");
+  }
+
+  @Test
+  void shouldNotGetWithAfter()
+  {
+    webTestClient.get().uri("/?$after=x").exchange()
+      .expectStatus().isBadRequest()
+      .expectBody().jsonPath("$." + FIELD_MESSAGE).isEqualTo("$after is not supported by reactive reads");
+  }
+
+  @Test
+  void shouldPost()
+  {
+    Value value = new Value(1, "ONE");
+
+    when(dataRepository.insert(value)).thenReturn(Mono.just(value));
+
+    webTestClient.post().uri("/").contentType(APPLICATION_JSON).bodyValue(value).exchange()
+      .expectStatus().isOk()
+      .expectBody(Value.class).isEqualTo(value);
+  }
+
+  @Test
+  void shouldPostAll()
+  {
+    List<Value> values = List.of(new Value(1, "ONE"), new Value(2, "TWO"));
+
+    webTestClient.post().uri("/").contentType(APPLICATION_JSON).bodyValue(values).exchange()
+      .expectStatus().isOk()
+      .expectBodyList(Value.class).isEqualTo(values);
+  }
+
+  @Test
+  void shouldNotPostWithRepositoryError()
+  {
+    Value value = new Value(1, "ONE");
+
+    when(dataRepository.insert(value)).thenReturn(Mono.error(new InsertException("TESTING")));
+
+    webTestClient.post().uri("/").contentType(APPLICATION_JSON).bodyValue(value).exchange()
+      .expectStatus().is5xxServerError()
+      .expectBody().jsonPath("$." + FIELD_MESSAGE).isEqualTo("TESTING");
+  }
+
+  @Test
+  void shouldDeleteWithIds()
+  {
+    Value value1 = new Value(1, "ONE");
+    Value value2 = new Value(2, "TWO");
+
+    when(identityParser.parse("1")).thenReturn(value1.id());
+    when(identityParser.parse("2")).thenReturn(value2.id());
+    when(dataRepository.deleteAll(Set.of(value1.id(), value2.id()))).thenReturn(Flux.just(value1, value2));
+
+    webTestClient.delete().uri("/?id=1&id=2").exchange()
+      .expectStatus().isOk()
+      .expectBodyList(Value.class).isEqualTo(List.of(value1, value2));
+  }
+
+  private static Criteria criteria(String query)
+  {
+    return new Criteria(query, parse(query));
+  }
+
+  public record Value(Integer id, String name) {}
+
+  static class TestConfiguration
+  {
+    @Bean
+    IdentityParser<String, Integer> idParser()
+    {
+      //noinspection unchecked
+      return mock(IdentityParser.class);
+    }
+
+    @Bean
+    JsonCodec<Value> jsonCodec(ObjectMapper objectMapper)
+    {
+      return new DefaultJsonCodec<>(objectMapper, Value.class);
+    }
+
+    @Bean
+    QueryBuilder queryBuilder()
+    {
+      return new QueryBuilder(Value.class);
+    }
+
+    @Bean
+    ReactiveDataRepository<Value, Integer> dataRepository()
+    {
+      //noinspection unchecked
+      return mock(ReactiveDataRepository.class);
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.tn.service.data.benchmark;
+
+import jakarta.validation.constraints.NotNull;
+
+public record Entity(long id, @NotNull String name, @NotNull String type, String status, int count)
+{
+  public static Entity of(long id)
+  {
+    return new Entity(id, "NAME_" + id, "TYPE_" + id % 5, id % 2 == 0 ? "ACTIVE" : "PENDING", (int)id);
+  }
+}
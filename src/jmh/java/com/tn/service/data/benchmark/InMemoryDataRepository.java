@@ -0,0 +1,137 @@
+package com.tn.service.data.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.tn.lang.util.Page;
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.domain.Direction;
+import com.tn.service.data.repository.DataRepository;
+
+/**
+ * A map backed repository that ignores queries and sorting, so benchmarks measure the service rather than a store.
+ */
+public class InMemoryDataRepository implements DataRepository<Entity, Long>
+{
+  private final Map<Long, Entity> values = new ConcurrentSkipListMap<>();
+
+  public InMemoryDataRepository(int count)
+  {
+    for (long id = 0; id < count; id++)
+    {
+      values.put(id, Entity.of(id));
+    }
+  }
+
+  @Override
+  public Optional<Entity> find(Long identifier)
+  {
+    return Optional.ofNullable(values.get(identifier));
+  }
+
+  @Override
+  public boolean exists(Long identifier)
+  {
+    return values.containsKey(identifier);
+  }
+
+  @Override
+  public Collection<Entity> findAll(Iterable<String> sort, Direction direction)
+  {
+    return List.copyOf(values.values());
+  }
+
+  @Override
+  public Page<Entity> findAll(int pageNumber, int pageSize, Iterable<String> sort, Direction direction)
+  {
+    List<Entity> all = List.copyOf(values.values());
+    int from = Math.min(pageNumber * pageSize, all.size());
+    int to = Math.min(from + pageSize, all.size());
+
+    return new Page<>(all.subList(from, to), pageNumber, pageSize, all.size(), (all.size() + pageSize - 1) / pageSize);
+  }
+
+  @Override
+  public Collection<Entity> findAll(Iterable<Long> identifiers)
+  {
+    List<Entity> found = new ArrayList<>();
+    for (Long identifier : identifiers)
+    {
+      Entity value = values.get(identifier);
+      if (value != null) found.add(value);
+    }
+
+    return found;
+  }
+
+  @Override
+  public Collection<Entity> findWhere(String query, Iterable<String> sort, Direction direction)
+  {
+    return findAll(sort, direction);
+  }
+
+  @Override
+  public Page<Entity> findWhere(String query, int pageNumber, int pageSize, Iterable<String> sort, Direction direction)
+  {
+    return findAll(pageNumber, pageSize, sort, direction);
+  }
+
+  @Override
+  public long count()
+  {
+    return values.size();
+  }
+
+  @Override
+  public long countWhere(Criteria query)
+  {
+    return count();
+  }
+
+  @Override
+  public Entity insert(Entity value)
+  {
+    values.put(value.id(), value);
+    return value;
+  }
+
+  @Override
+  public Collection<Entity> insertAll(Iterable<Entity> values)
+  {
+    List<Entity> inserted = new ArrayList<>();
+    values.forEach(value -> inserted.add(insert(value)));
+
+    return inserted;
+  }
+
+  @Override
+  public Entity update(Entity value)
+  {
+    return insert(value);
+  }
+
+  @Override
+  public Collection<Entity> updateAll(Iterable<Entity> values)
+  {
+    return insertAll(values);
+  }
+
+  @Override
+  public Optional<Entity> delete(Long identifier)
+  {
+    return Optional.ofNullable(values.remove(identifier));
+  }
+
+  @Override
+  public Collection<Entity> deleteAll(Iterable<Long> identifiers)
+  {
+    List<Entity> deleted = new ArrayList<>();
+    identifiers.forEach(identifier -> delete(identifier).ifPresent(deleted::add));
+
+    return deleted;
+  }
+}
@@ -0,0 +1,145 @@
+package com.tn.service.data.controller;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+import static com.tn.service.data.domain.Direction.ASCENDING;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import jakarta.validation.Validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.tn.service.data.benchmark.Entity;
+import com.tn.service.data.benchmark.InMemoryDataRepository;
+import com.tn.service.data.io.DefaultJsonCodec;
+import com.tn.service.data.parameter.LongIdentityParser;
+import com.tn.service.data.parameter.QueryBuilder;
+import com.tn.service.data.repository.AsyncDataRepositoryAdapter;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataControllerBenchmark
+{
+  private static final int CHUNK_SIZE = 1000;
+  private static final String EXISTING_IDENTITY = "0";
+  private static final String IDENTITY_PARAM_NAME = "id";
+
+  @Param({"1", "1000", "100000"})
+  int count;
+
+  private DataController<Entity, Long> dataController;
+  private MultiValueMap<String, String> identityParams;
+  private MultiValueMap<String, String> queryParams;
+  private byte[] body;
+  private String identifiedETag;
+
+  @Setup
+  public void setUp() throws Exception
+  {
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    InMemoryDataRepository dataRepository = new InMemoryDataRepository(count);
+    BulkValidator bulkValidator = new BulkValidator(Validation.buildDefaultValidatorFactory().getValidator(), Runtime.getRuntime().availableProcessors(), 1000, 100);
+
+    dataController = new DataController<>(
+      new LongIdentityParser(),
+      new DefaultJsonCodec<>(objectMapper, Entity.class),
+      bulkValidator,
+      new BulkWriter(bulkValidator, 1, 2),
+      new QueryBuilder(Entity.class),
+      dataRepository,
+      new AsyncDataRepositoryAdapter<>(dataRepository, Runnable::run, Runnable::run, Integer.MAX_VALUE),
+      IDENTITY_PARAM_NAME,
+      Integer.MAX_VALUE,
+      Duration.ofMinutes(1)
+    );
+
+    identityParams = new LinkedMultiValueMap<>();
+    LongStream.range(0, count).forEach(id -> identityParams.add(IDENTITY_PARAM_NAME, Long.toString(id)));
+
+    queryParams = new LinkedMultiValueMap<>();
+    queryParams.add("q", "status=ACTIVE||status=PENDING");
+
+    identifiedETag = dataController.stream(identityParams, null, ASCENDING, null, APPLICATION_JSON_VALUE, null).join().getHeaders().getETag();
+    body = objectMapper.writeValueAsBytes(LongStream.range(0, count).mapToObj(Entity::of).toList());
+  }
+
+  @Benchmark
+  public void getIdentified() throws IOException
+  {
+    write(dataController.stream(identityParams, null, ASCENDING, null, APPLICATION_JSON_VALUE, null).join());
+  }
+
+  @Benchmark
+  public Object getIdentifiedNotModified()
+  {
+    return dataController.stream(identityParams, null, ASCENDING, null, APPLICATION_JSON_VALUE, identifiedETag).join().getStatusCode();
+  }
+
+  @Benchmark
+  public void getWhere() throws IOException
+  {
+    write(dataController.stream(queryParams, null, ASCENDING, null, APPLICATION_JSON_VALUE, null).join());
+  }
+
+  @Benchmark
+  public void getWhereLines() throws IOException
+  {
+    write(dataController.stream(queryParams, null, ASCENDING, null, APPLICATION_NDJSON_VALUE, null).join());
+  }
+
+  @Benchmark
+  public Object countWhere()
+  {
+    return dataController.get(queryParams, null, null, null, null, ASCENDING, null, true, APPLICATION_JSON_VALUE, null).join().getBody();
+  }
+
+  @Benchmark
+  public Object exists()
+  {
+    return dataController.exists(EXISTING_IDENTITY).join().getStatusCode();
+  }
+
+  @Benchmark
+  public Object post()
+  {
+    return dataController.post(new ByteArrayInputStream(body), APPLICATION_JSON_VALUE).getBody();
+  }
+
+  @Benchmark
+  public void postChunked() throws IOException
+  {
+    write(dataController.postChunked(new ByteArrayInputStream(body), APPLICATION_JSON_VALUE, CHUNK_SIZE));
+  }
+
+  private void write(ResponseEntity<?> response) throws IOException
+  {
+    ((StreamingResponseBody)response.getBody()).writeTo(OutputStream.nullOutputStream());
+  }
+}
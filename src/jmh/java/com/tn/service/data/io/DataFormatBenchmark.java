@@ -0,0 +1,82 @@
+package com.tn.service.data.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.tn.service.data.benchmark.Entity;
+
+/**
+ * Compares the binary formats against json, the payload size of each format is reported as the payloadBytes counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataFormatBenchmark
+{
+  @Param({"JSON", "CBOR", "SMILE"})
+  DataFormat dataFormat;
+
+  @Param({"1000", "100000"})
+  int count;
+
+  private JsonCodec<Entity> jsonCodec;
+  private List<Entity> entities;
+  private byte[] payload;
+
+  @Setup
+  public void setUp()
+  {
+    jsonCodec = new DefaultJsonCodec<>(new ObjectMapper(), Entity.class).withFormat(dataFormat);
+    entities = LongStream.range(0, count).mapToObj(Entity::of).toList();
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    jsonCodec.writeValues(entities.stream(), outputStream);
+    payload = outputStream.toByteArray();
+  }
+
+  @Benchmark
+  public void read(Blackhole blackhole)
+  {
+    try (JsonValueReader<Entity> values = jsonCodec.readValues(new ByteArrayInputStream(payload)))
+    {
+      values.forEachRemaining(blackhole::consume);
+    }
+  }
+
+  @Benchmark
+  public void write(Payload payload)
+  {
+    payload.outputStream.reset();
+    jsonCodec.writeValues(entities.stream(), payload.outputStream);
+    payload.payloadBytes = payload.outputStream.size();
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Payload
+  {
+    public long payloadBytes;
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+  }
+}
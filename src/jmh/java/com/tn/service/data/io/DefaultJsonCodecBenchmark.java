@@ -0,0 +1,113 @@
+package com.tn.service.data.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.tn.service.data.benchmark.Entity;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DefaultJsonCodecBenchmark
+{
+  @Param({"1", "1000", "100000"})
+  int count;
+
+  private JsonCodec<Entity> jsonCodec;
+  private List<Entity> entities;
+  private ArrayNode tree;
+  private byte[] json;
+  private byte[] lines;
+
+  @Setup
+  public void setUp() throws Exception
+  {
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    jsonCodec = new DefaultJsonCodec<>(objectMapper, Entity.class);
+    entities = LongStream.range(0, count).mapToObj(Entity::of).toList();
+    tree = jsonCodec.writeValues(entities);
+    json = objectMapper.writeValueAsBytes(tree);
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    jsonCodec.writeLines(entities.stream(), outputStream);
+    lines = outputStream.toByteArray();
+  }
+
+  @Benchmark
+  public void readValue(Blackhole blackhole)
+  {
+    for (JsonNode value : tree)
+    {
+      blackhole.consume(jsonCodec.readValue(value));
+    }
+  }
+
+  @Benchmark
+  public void readValuesFromStream(Blackhole blackhole)
+  {
+    try (JsonValueReader<Entity> values = jsonCodec.readValues(new ByteArrayInputStream(json)))
+    {
+      values.forEachRemaining(blackhole::consume);
+    }
+  }
+
+  @Benchmark
+  public void readLinesFromStream(Blackhole blackhole)
+  {
+    try (JsonValueReader<Entity> values = jsonCodec.readLines(new ByteArrayInputStream(lines)))
+    {
+      values.forEachRemaining(blackhole::consume);
+    }
+  }
+
+  @Benchmark
+  public void writeValue(Blackhole blackhole)
+  {
+    for (Entity entity : entities)
+    {
+      blackhole.consume(jsonCodec.writeValue(entity));
+    }
+  }
+
+  @Benchmark
+  public ArrayNode writeValues()
+  {
+    return jsonCodec.writeValues(entities);
+  }
+
+  @Benchmark
+  public void writeValuesToStream()
+  {
+    jsonCodec.writeValues(entities.stream(), OutputStream.nullOutputStream());
+  }
+
+  @Benchmark
+  public void writeLinesToStream()
+  {
+    jsonCodec.writeLines(entities.stream(), OutputStream.nullOutputStream());
+  }
+}
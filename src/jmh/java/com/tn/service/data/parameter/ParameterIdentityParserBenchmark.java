@@ -0,0 +1,61 @@
+package com.tn.service.data.parameter;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParameterIdentityParserBenchmark
+{
+  private static final String PARAM_NAME = "id";
+
+  @Param({"10", "1000", "10000"})
+  int count;
+
+  private MultiValueMap<String, String> params;
+  private ParameterIdentityParser<Long> parameterIdentityParser;
+  private ParameterLongIdentityParser parameterLongIdentityParser;
+
+  @Setup
+  public void setUp()
+  {
+    params = new LinkedMultiValueMap<>();
+    for (long id = count; id > 0; id--)
+    {
+      params.add(PARAM_NAME, Long.toString(id * 7919 % (count * 2L)));
+    }
+
+    parameterIdentityParser = new ParameterIdentityParser<>(new LongIdentityParser(), PARAM_NAME);
+    parameterLongIdentityParser = new ParameterLongIdentityParser(new LongIdentityParser(), PARAM_NAME);
+  }
+
+  @Benchmark
+  public Collection<Long> parse()
+  {
+    return parameterIdentityParser.parse(params);
+  }
+
+  @Benchmark
+  public long[] parseLong()
+  {
+    return parameterLongIdentityParser.parse(params);
+  }
+}
@@ -0,0 +1,64 @@
+package com.tn.service.data.parameter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBuilderBenchmark
+{
+  private static final int DISTINCT_QUERIES = 200;
+
+  @Param({"0", "1000"})
+  long cacheSize;
+
+  private QueryBuilder queryBuilder;
+  private List<MultiValueMap<String, String>> params;
+  private int next;
+
+  @Setup
+  public void setUp()
+  {
+    queryBuilder = new QueryBuilder(Set.of("id", "name", "type", "status", "count"), cacheSize);
+    params = new ArrayList<>(DISTINCT_QUERIES);
+
+    for (int i = 0; i < DISTINCT_QUERIES; i++)
+    {
+      MultiValueMap<String, String> param = new LinkedMultiValueMap<>();
+      param.add("name", "NAME_" + i);
+      param.add("type", "TYPE_" + i % 5);
+      param.add("type", "TYPE_" + (i + 1) % 5);
+      param.add("q", "status=ACTIVE||status=PENDING");
+      param.add("$sort", "name");
+      param.add("$pageSize", "50");
+
+      params.add(param);
+    }
+  }
+
+  @Benchmark
+  public String build()
+  {
+    return queryBuilder.build(params.get(next++ % DISTINCT_QUERIES));
+  }
+}
@@ -1,11 +1,17 @@
 package com.tn.service.data.api;
 
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
+import java.io.InputStream;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,33 +19,106 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.tn.service.data.domain.Direction;
 
 public interface DataApi
 {
-  @GetMapping(value = "/{identity}", produces = APPLICATION_JSON_VALUE)
-  ResponseEntity<? extends JsonNode> get(@PathVariable("identity") String identity);
+  String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
 
-  @GetMapping(produces = APPLICATION_JSON_VALUE)
-  ResponseEntity<? extends JsonNode> get(
+  @GetMapping(value = "/{identity}", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+  CompletableFuture<ResponseEntity<JsonNode>> get(
+    @PathVariable("identity") String identity,
+    @RequestParam(value = "$fields", required = false) Collection<String> fields,
+    @RequestHeader(value = ACCEPT, required = false) String accept,
+    @RequestHeader(value = IF_NONE_MATCH, required = false) String ifNoneMatch
+  );
+
+  @RequestMapping(value = "/{identity}", method = RequestMethod.HEAD)
+  CompletableFuture<ResponseEntity<Void>> exists(@PathVariable("identity") String identity);
+
+  /**
+   * Streams the values identified by, or matching, <code>params</code>.  Reads without a page or a count are mapped here so the body
+   * is declared as a {@link StreamingResponseBody}, which is what Spring dispatches streamed responses on.
+   */
+  @GetMapping(
+    params = {"!$pageNumber", "!$pageSize", "!$after", "$count!=true"},
+    produces = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+  )
+  CompletableFuture<ResponseEntity<StreamingResponseBody>> stream(
+    @RequestParam(required = false) MultiValueMap<String, String> params,
+    @RequestParam(value = "$sort", required = false) Collection<String> sort,
+    @RequestParam(value = "$direction", defaultValue = "ASCENDING") Direction direction,
+    @RequestParam(value = "$fields", required = false) Collection<String> fields,
+    @RequestHeader(value = ACCEPT, required = false) String accept,
+    @RequestHeader(value = IF_NONE_MATCH, required = false) String ifNoneMatch
+  );
+
+  /**
+   * Reads a page, a cursor page or the count of the values matching <code>params</code>.
+   */
+  @GetMapping(produces = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+  CompletableFuture<ResponseEntity<JsonNode>> get(
     @RequestParam(required = false) MultiValueMap<String, String> params,
     @RequestParam(value = "$pageNumber", required = false) Integer pageNumber,
     @RequestParam(value = "$pageSize", required = false) Integer pageSize,
+    @RequestParam(value = "$after", required = false) String after,
     @RequestParam(value = "$sort", required = false) Collection<String> sort,
-    @RequestParam(value = "$direction", defaultValue = "ASCENDING") Direction direction
+    @RequestParam(value = "$direction", defaultValue = "ASCENDING") Direction direction,
+    @RequestParam(value = "$fields", required = false) Collection<String> fields,
+    @RequestParam(value = "$count", defaultValue = "false") boolean count,
+    @RequestHeader(value = ACCEPT, required = false) String accept,
+    @RequestHeader(value = IF_NONE_MATCH, required = false) String ifNoneMatch
   );
 
-  @PostMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
-  ResponseEntity<? extends JsonNode> post(RequestEntity<JsonNode> request);
+  @PostMapping(
+    consumes = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE},
+    produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+  )
+  ResponseEntity<?> post(InputStream body, @RequestHeader(CONTENT_TYPE) String contentType);
+
+  /**
+   * Writes the array <code>body</code> in chunks of <code>chunkSize</code> values and streams the progress of each chunk.
+   */
+  @PostMapping(
+    params = "$chunkSize",
+    consumes = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE},
+    produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+  )
+  ResponseEntity<StreamingResponseBody> postChunked(
+    InputStream body,
+    @RequestHeader(CONTENT_TYPE) String contentType,
+    @RequestParam("$chunkSize") int chunkSize
+  );
 
-  @PutMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
-  ResponseEntity<? extends JsonNode> put(RequestEntity<JsonNode> request);
+  @PutMapping(
+    consumes = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE},
+    produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+  )
+  ResponseEntity<?> put(InputStream body, @RequestHeader(CONTENT_TYPE) String contentType);
+
+  /**
+   * Writes the array <code>body</code> in chunks of <code>chunkSize</code> values and streams the progress of each chunk.
+   */
+  @PutMapping(
+    params = "$chunkSize",
+    consumes = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE},
+    produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE}
+  )
+  ResponseEntity<StreamingResponseBody> putChunked(
+    InputStream body,
+    @RequestHeader(CONTENT_TYPE) String contentType,
+    @RequestParam("$chunkSize") int chunkSize
+  );
 
   @DeleteMapping(value = "/{identity}")
-  ResponseEntity<? extends JsonNode> delete(@PathVariable("identity") String id);
+  CompletableFuture<ResponseEntity<JsonNode>> delete(@PathVariable("identity") String id);
 
   @DeleteMapping
-  ResponseEntity<? extends JsonNode> delete(@RequestParam(required = false) MultiValueMap<String, String> params);
+  CompletableFuture<ResponseEntity<JsonNode>> delete(@RequestParam(required = false) MultiValueMap<String, String> params);
 }
@@ -0,0 +1,61 @@
+package com.tn.service.data.api;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+import java.util.Collection;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
+
+import com.tn.service.data.domain.Direction;
+
+public interface ReactiveDataApi
+{
+  @GetMapping(value = "/{identity}", produces = APPLICATION_JSON_VALUE)
+  Mono<ResponseEntity<JsonNode>> get(
+    @PathVariable("identity") String identity,
+    @RequestParam(value = "$fields", required = false) Collection<String> fields
+  );
+
+  @RequestMapping(value = "/{identity}", method = RequestMethod.HEAD)
+  Mono<ResponseEntity<Void>> exists(@PathVariable("identity") String identity);
+
+  /**
+   * Returns a <code>Flux</code> for unpaged reads, which is written as it's read, and a <code>Mono</code> for pages and counts.
+   */
+  @GetMapping(produces = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+  ResponseEntity<?> get(
+    @RequestParam(required = false) MultiValueMap<String, String> params,
+    @RequestParam(value = "$pageNumber", required = false) Integer pageNumber,
+    @RequestParam(value = "$pageSize", required = false) Integer pageSize,
+    @RequestParam(value = "$after", required = false) String after,
+    @RequestParam(value = "$sort", required = false) Collection<String> sort,
+    @RequestParam(value = "$direction", defaultValue = "ASCENDING") Direction direction,
+    @RequestParam(value = "$fields", required = false) Collection<String> fields,
+    @RequestParam(value = "$count", defaultValue = "false") boolean count
+  );
+
+  @PostMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+  Mono<ResponseEntity<JsonNode>> post(@RequestBody Mono<JsonNode> body);
+
+  @PutMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+  Mono<ResponseEntity<JsonNode>> put(@RequestBody Mono<JsonNode> body);
+
+  @DeleteMapping(value = "/{identity}")
+  Mono<ResponseEntity<JsonNode>> delete(@PathVariable("identity") String id);
+
+  @DeleteMapping
+  Mono<ResponseEntity<JsonNode>> delete(@RequestParam(required = false) MultiValueMap<String, String> params);
+}
@@ -1,8 +1,75 @@
 package com.tn.service.data.autoconfig;
 
+import java.time.Duration;
+
+import jakarta.validation.Validator;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Conditional;
 
-@AutoConfiguration
+import com.tn.service.data.controller.BulkValidator;
+import com.tn.service.data.controller.BulkWriter;
+import com.tn.service.data.repository.DataRepository;
+import com.tn.service.data.repository.ReactiveDataRepository;
+
+/**
+ * Configures the data controllers.  To run their handlers on virtual threads, so handlers blocked on the repository don't hold a
+ * platform thread and the repository bulkheads bound the load instead of the request pool, set Spring Boot's
+ * <code>spring.threads.virtual.enabled</code>.
+ */
+@AutoConfiguration(after = {ValidationAutoConfiguration.class, RepositoryAutoConfiguration.class})
 @ComponentScan("com.tn.service.data.controller")
-public class ControllerAutoConfiguration {}
\ No newline at end of file
+public class ControllerAutoConfiguration
+{
+  // the bulk beans are only created for the controllers that use them, so applications without a web stack or a repository don't need
+  // a validator or start their pools.
+  @Bean
+  @ConditionalOnWebApplication
+  @Conditional(OnDataRepositoryCondition.class)
+  @ConditionalOnMissingBean
+  BulkValidator bulkValidator(
+    Validator validator,
+    @Value("${tn.service.data.validation.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+    @Value("${tn.service.data.validation.chunk-size:1000}") int chunkSize,
+    @Value("${tn.service.data.validation.max-violations:100}") int maxViolations
+  )
+  {
+    return new BulkValidator(validator, threads, chunkSize, maxViolations);
+  }
+
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+  @ConditionalOnBean(DataRepository.class)
+  @ConditionalOnMissingBean
+  BulkWriter bulkWriter(
+    BulkValidator bulkValidator,
+    @Value("${tn.service.data.bulk.max-writes:4}") int maxWrites,
+    @Value("${tn.service.data.bulk.queue-size:2}") int queueSize,
+    @Value("${tn.service.data.bulk.stall-timeout:60s}") Duration stallTimeout
+  )
+  {
+    return new BulkWriter(bulkValidator, maxWrites, queueSize, stallTimeout);
+  }
+
+  static class OnDataRepositoryCondition extends AnyNestedCondition
+  {
+    OnDataRepositoryCondition()
+    {
+      super(ConfigurationPhase.REGISTER_BEAN);
+    }
+
+    @ConditionalOnBean(DataRepository.class)
+    static class OnDataRepository {}
+
+    @ConditionalOnBean(ReactiveDataRepository.class)
+    static class OnReactiveDataRepository {}
+  }
+}
@@ -0,0 +1,53 @@
+package com.tn.service.data.autoconfig;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+import com.tn.service.data.repository.DataRepository;
+
+class DataRepositoryPostProcessor implements BeanPostProcessor, DisposableBean, Ordered
+{
+  private final int order;
+  private final UnaryOperator<DataRepository<?, ?>> decorator;
+  private final List<AutoCloseable> closeables;
+
+  DataRepositoryPostProcessor(int order, UnaryOperator<DataRepository<?, ?>> decorator)
+  {
+    this.order = order;
+    this.decorator = decorator;
+    this.closeables = new CopyOnWriteArrayList<>();
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName)
+  {
+    if (!(bean instanceof DataRepository)) return bean;
+
+    DataRepository<?, ?> decorated = decorator.apply((DataRepository<?, ?>)bean);
+
+    // the context only closes the bean it created, so decorators holding resources, like the batching scheduler, are closed here.
+    if (decorated != bean && decorated instanceof AutoCloseable) closeables.add((AutoCloseable)decorated);
+
+    return decorated;
+  }
+
+  @Override
+  public void destroy() throws Exception
+  {
+    for (AutoCloseable closeable : closeables)
+    {
+      closeable.close();
+    }
+  }
+
+  @Override
+  public int getOrder()
+  {
+    return order;
+  }
+}
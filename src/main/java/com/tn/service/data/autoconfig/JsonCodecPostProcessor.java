@@ -0,0 +1,23 @@
+package com.tn.service.data.autoconfig;
+
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import com.tn.service.data.io.JsonCodec;
+
+class JsonCodecPostProcessor implements BeanPostProcessor
+{
+  private final UnaryOperator<JsonCodec<?>> decorator;
+
+  JsonCodecPostProcessor(UnaryOperator<JsonCodec<?>> decorator)
+  {
+    this.decorator = decorator;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName)
+  {
+    return bean instanceof JsonCodec ? decorator.apply((JsonCodec<?>)bean) : bean;
+  }
+}
@@ -0,0 +1,324 @@
+package com.tn.service.data.autoconfig;
+
+import static com.tn.service.data.repository.Bulkhead.Operation.DELETE;
+import static com.tn.service.data.repository.Bulkhead.Operation.FIND;
+import static com.tn.service.data.repository.Bulkhead.Operation.FIND_WHERE;
+import static com.tn.service.data.repository.Bulkhead.Operation.WRITE;
+import static com.tn.service.data.repository.DelegatingDataRepository.decorator;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Schedulers;
+
+import com.tn.service.data.io.InstrumentedJsonCodec;
+import com.tn.service.data.io.JsonCodec;
+import com.tn.service.data.parameter.IdentityParser;
+import com.tn.service.data.parameter.ValueIdentity;
+import com.tn.service.data.parameter.ValueIdentityParser;
+import com.tn.service.data.repository.AsyncDataRepository;
+import com.tn.service.data.repository.AsyncDataRepositoryAdapter;
+import com.tn.service.data.repository.BatchingDataRepository;
+import com.tn.service.data.repository.Bulkhead;
+import com.tn.service.data.repository.BulkheadDataRepository;
+import com.tn.service.data.repository.CachingDataRepository;
+import com.tn.service.data.repository.CoalescingDataRepository;
+import com.tn.service.data.repository.DataRepository;
+import com.tn.service.data.repository.InstrumentedDataRepository;
+import com.tn.service.data.repository.ReactiveDataRepository;
+import com.tn.service.data.repository.ReactiveDataRepositoryAdapter;
+import com.tn.service.data.repository.ResultCachingDataRepository;
+
+@AutoConfiguration
+public class RepositoryAutoConfiguration
+{
+  // decorators are applied in order, so lower orders sit closer to the backing repository.
+  static final int ORDER_BULKHEAD = 100;
+  static final int ORDER_BATCHING = 150;
+  static final int ORDER_COALESCING = 200;
+  static final int ORDER_CACHING = 300;
+  static final int ORDER_RESULT_CACHING = 400;
+  static final int ORDER_INSTRUMENTATION = 500;
+
+  private static final String TAG_OPERATION = "operation";
+  private static final String TAG_RESULT = "result";
+  private static final String RESULT_HIT = "hit";
+  private static final String RESULT_MISS = "miss";
+
+  @Bean
+  @ConditionalOnProperty(name = "tn.service.data.bulkhead.enabled", havingValue = "true")
+  @ConditionalOnMissingBean
+  static Bulkhead bulkhead(
+    @Value("${tn.service.data.bulkhead.find:100}") int find,
+    @Value("${tn.service.data.bulkhead.find-where:20}") int findWhere,
+    @Value("${tn.service.data.bulkhead.write:10}") int write,
+    @Value("${tn.service.data.bulkhead.delete:10}") int delete,
+    @Value("${tn.service.data.bulkhead.max-wait:100ms}") Duration maxWait
+  )
+  {
+    return new Bulkhead(Map.of(FIND, find, FIND_WHERE, findWhere, WRITE, write, DELETE, delete), maxWait);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "tn.service.data.bulkhead.enabled", havingValue = "true")
+  static DataRepositoryPostProcessor bulkheadDataRepositoryPostProcessor(ObjectProvider<Bulkhead> bulkhead)
+  {
+    // the bulkhead sits closest to the backing repository, so cache hits and coalesced calls don't take a permit.
+    return new DataRepositoryPostProcessor(ORDER_BULKHEAD, dataRepository -> new BulkheadDataRepository<>(dataRepository, bulkhead.getObject()));
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "tn.service.data.batch.enabled", havingValue = "true")
+  static DataRepositoryPostProcessor batchingDataRepositoryPostProcessor(
+    ObjectProvider<ValueIdentity<?, ?>> valueIdentity,
+    ObjectProvider<JsonCodec<?>> jsonCodec,
+    ObjectProvider<IdentityParser<String, ?>> identityParser,
+    @Value("${tn.service.data.identity.field-name:${tn.service.data.identity.param-name:id}}") String identityFieldName,
+    @Value("${tn.service.data.batch.max-size:200}") int maxSize,
+    @Value("${tn.service.data.batch.window:2ms}") Duration window,
+    @Value("${tn.service.data.batch.threads:4}") int threads
+  )
+  {
+    return new DataRepositoryPostProcessor(
+      ORDER_BATCHING,
+      dataRepository -> batching(dataRepository, valueIdentityParser(valueIdentity, jsonCodec, identityParser, identityFieldName), maxSize, window, threads)
+    );
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "tn.service.data.coalesce.enabled", havingValue = "true")
+  static DataRepositoryPostProcessor coalescingDataRepositoryPostProcessor()
+  {
+    return new DataRepositoryPostProcessor(ORDER_COALESCING, CoalescingDataRepository::new);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "tn.service.data.cache.enabled", havingValue = "true")
+  static DataRepositoryPostProcessor cachingDataRepositoryPostProcessor(
+    ObjectProvider<ValueIdentity<?, ?>> valueIdentity,
+    ObjectProvider<JsonCodec<?>> jsonCodec,
+    ObjectProvider<IdentityParser<String, ?>> identityParser,
+    @Value("${tn.service.data.identity.field-name:${tn.service.data.identity.param-name:id}}") String identityFieldName,
+    @Value("${tn.service.data.cache.size:10000}") long size,
+    @Value("${tn.service.data.cache.ttl:PT10M}") Duration ttl
+  )
+  {
+    return new DataRepositoryPostProcessor(
+      ORDER_CACHING,
+      dataRepository -> caching(dataRepository, valueIdentityParser(valueIdentity, jsonCodec, identityParser, identityFieldName), size, ttl)
+    );
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "tn.service.data.result-cache.enabled", havingValue = "true")
+  static DataRepositoryPostProcessor resultCachingDataRepositoryPostProcessor(
+    @Value("${tn.service.data.result-cache.max-values:100000}") long maxValues,
+    @Value("${tn.service.data.result-cache.max-entry-values:1000}") int maxEntryValues,
+    @Value("${tn.service.data.result-cache.ttl:PT1M}") Duration ttl,
+    @Value("${tn.service.data.result-cache.include:}") Set<String> include,
+    @Value("${tn.service.data.result-cache.exclude:}") Set<String> exclude
+  )
+  {
+    // an empty include caches every shape that isn't excluded.
+    return new DataRepositoryPostProcessor(
+      ORDER_RESULT_CACHING,
+      dataRepository -> new ResultCachingDataRepository<>(
+        dataRepository,
+        shape -> (include.isEmpty() || include.contains(shape)) && !exclude.contains(shape),
+        maxValues,
+        maxEntryValues,
+        ttl
+      )
+    );
+  }
+
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+  @ConditionalOnProperty(name = "tn.service.data.bulkhead.enabled", havingValue = "true")
+  static class BulkheadMetricsConfiguration
+  {
+    @Bean
+    MeterBinder bulkheadMeterBinder(Bulkhead bulkhead)
+    {
+      return registry ->
+      {
+        for (Bulkhead.Operation operation : Bulkhead.Operation.values())
+        {
+          Gauge.builder("tn.service.data.bulkhead.permits.in-use", bulkhead, b -> b.inUse(operation)).tag(TAG_OPERATION, operation.tag()).register(registry);
+          Gauge.builder("tn.service.data.bulkhead.permits.limit", bulkhead, b -> b.limit(operation)).tag(TAG_OPERATION, operation.tag()).register(registry);
+          FunctionCounter.builder("tn.service.data.bulkhead.rejected", bulkhead, b -> b.rejected(operation)).tag(TAG_OPERATION, operation.tag()).register(registry);
+        }
+      };
+    }
+  }
+
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+  static class DecoratorMetricsConfiguration
+  {
+    // the decorators are created by the post-processors, so they're found in the repository's chain once it's been built.
+    @Bean
+    MeterBinder dataRepositoryDecoratorMeterBinder(ObjectProvider<DataRepository<?, ?>> dataRepository)
+    {
+      return registry ->
+      {
+        DataRepository<?, ?> decorated = dataRepository.getIfUnique();
+        if (decorated == null) return;
+
+        decorator(decorated, CoalescingDataRepository.class).ifPresent(
+          coalescing ->
+          {
+            FunctionCounter.builder("tn.service.data.coalesce.calls", coalescing, CoalescingDataRepository::calls).register(registry);
+            FunctionCounter.builder("tn.service.data.coalesce.coalesced", coalescing, CoalescingDataRepository::coalesced).register(registry);
+          }
+        );
+
+        decorator(decorated, BatchingDataRepository.class).ifPresent(
+          batching ->
+          {
+            FunctionCounter.builder("tn.service.data.batch.batches", batching, BatchingDataRepository::batches).register(registry);
+            FunctionCounter.builder("tn.service.data.batch.identifiers", batching, BatchingDataRepository::batchedIdentifiers).register(registry);
+            Gauge.builder("tn.service.data.batch.size.average", batching, BatchingDataRepository::averageBatchSize).register(registry);
+            TimeGauge.builder("tn.service.data.batch.latency.average", batching, TimeUnit.NANOSECONDS, b -> b.averageLatency().toNanos()).register(registry);
+          }
+        );
+
+        decorator(decorated, CachingDataRepository.class).ifPresent(
+          caching ->
+          {
+            FunctionCounter.builder("tn.service.data.cache.gets", caching, c -> c.cacheStats().hitCount()).tag(TAG_RESULT, RESULT_HIT).register(registry);
+            FunctionCounter.builder("tn.service.data.cache.gets", caching, c -> c.cacheStats().missCount()).tag(TAG_RESULT, RESULT_MISS).register(registry);
+            FunctionCounter.builder("tn.service.data.cache.evictions", caching, c -> c.cacheStats().evictionCount()).register(registry);
+          }
+        );
+
+        decorator(decorated, ResultCachingDataRepository.class).ifPresent(
+          caching ->
+          {
+            FunctionCounter.builder("tn.service.data.result-cache.gets", caching, c -> c.cacheStats().hitCount()).tag(TAG_RESULT, RESULT_HIT).register(registry);
+            FunctionCounter.builder("tn.service.data.result-cache.gets", caching, c -> c.cacheStats().missCount()).tag(TAG_RESULT, RESULT_MISS).register(registry);
+            FunctionCounter.builder("tn.service.data.result-cache.evictions", caching, c -> c.cacheStats().evictionCount()).register(registry);
+          }
+        );
+      };
+    }
+  }
+
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+  @ConditionalOnProperty(name = "tn.service.data.metrics.enabled", havingValue = "true")
+  static class InstrumentationConfiguration
+  {
+    // instrumentation is the outermost decorator, so it records the latency the controller sees, cache hits included.
+    @Bean
+    static DataRepositoryPostProcessor instrumentedDataRepositoryPostProcessor(ObjectProvider<MeterRegistry> registry)
+    {
+      return new DataRepositoryPostProcessor(ORDER_INSTRUMENTATION, dataRepository -> new InstrumentedDataRepository<>(dataRepository, registry.getObject()));
+    }
+
+    @Bean
+    static JsonCodecPostProcessor instrumentedJsonCodecPostProcessor(ObjectProvider<MeterRegistry> registry)
+    {
+      return new JsonCodecPostProcessor(jsonCodec -> new InstrumentedJsonCodec<>(jsonCodec, registry.getObject()));
+    }
+  }
+
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+  static class AsyncRepositoryConfiguration
+  {
+    // without async execution the calls complete on the request thread, with it each call gets a virtual thread and the bulkheads, when
+    // enabled, bound the load on the repository.  either way large identity lookups are split into chunks on a bounded pool.
+    @Bean
+    @ConditionalOnBean(DataRepository.class)
+    @ConditionalOnMissingBean(AsyncDataRepository.class)
+    <V, ID> AsyncDataRepository<V, ID> asyncDataRepository(
+      DataRepository<V, ID> dataRepository,
+      @Value("${tn.service.data.async.enabled:false}") boolean enabled,
+      @Value("${tn.service.data.identity.chunk-size:500}") int chunkSize,
+      @Value("${tn.service.data.identity.chunk-threads:4}") int chunkThreads
+    )
+    {
+      Executor executor = enabled ? Executors.newVirtualThreadPerTaskExecutor() : Runnable::run;
+      return new AsyncDataRepositoryAdapter<>(dataRepository, executor, chunkSize, chunkThreads);
+    }
+  }
+
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnClass(name = "reactor.core.publisher.Flux")
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+  static class ReactiveRepositoryConfiguration
+  {
+    // applications with only a blocking repository still get the reactive controller, with each call on a bounded elastic thread.
+    @Bean
+    @ConditionalOnBean(DataRepository.class)
+    @ConditionalOnMissingBean(ReactiveDataRepository.class)
+    <V, ID> ReactiveDataRepository<V, ID> reactiveDataRepository(
+      DataRepository<V, ID> dataRepository,
+      @Value("${tn.service.data.identity.chunk-size:500}") int chunkSize,
+      @Value("${tn.service.data.identity.chunk-threads:4}") int chunkThreads
+    )
+    {
+      return new ReactiveDataRepositoryAdapter<>(dataRepository, Schedulers.boundedElastic(), chunkSize, chunkThreads);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V, ID> DataRepository<V, ID> batching(
+    DataRepository<V, ID> dataRepository,
+    IdentityParser<?, ?> identityParser,
+    int maxSize,
+    Duration window,
+    int threads
+  )
+  {
+    return new BatchingDataRepository<>(dataRepository, (IdentityParser<V, ID>)identityParser, maxSize, window, threads);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V, ID> DataRepository<V, ID> caching(DataRepository<V, ID> dataRepository, IdentityParser<?, ?> identityParser, long size, Duration ttl)
+  {
+    return new CachingDataRepository<>(dataRepository, (IdentityParser<V, ID>)identityParser, size, ttl);
+  }
+
+  private static IdentityParser<?, ?> valueIdentityParser(
+    ObjectProvider<ValueIdentity<?, ?>> valueIdentity,
+    ObjectProvider<JsonCodec<?>> jsonCodec,
+    ObjectProvider<IdentityParser<String, ?>> identityParser,
+    String identityFieldName
+  )
+  {
+    // without an application's own identity, each value is serialized to read its identity field.
+    ValueIdentity<?, ?> identity = valueIdentity.getIfAvailable();
+    return identity != null ? identityParser(identity) : valueIdentityParser(jsonCodec.getObject(), identityParser.getObject(), identityFieldName);
+  }
+
+  private static <V, ID> IdentityParser<V, ID> identityParser(ValueIdentity<V, ID> valueIdentity)
+  {
+    return valueIdentity::identity;
+  }
+
+  private static <V, ID> ValueIdentityParser<V, ID> valueIdentityParser(JsonCodec<V> jsonCodec, IdentityParser<String, ID> identityParser, String identityFieldName)
+  {
+    return new ValueIdentityParser<>(jsonCodec, identityParser, identityFieldName);
+  }
+}
@@ -0,0 +1,33 @@
+package com.tn.service.data.controller;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+
+public class BulkConstraintViolationException extends ConstraintViolationException
+{
+  private final List<IndexedConstraintViolation> indexedConstraintViolations;
+
+  public BulkConstraintViolationException(Collection<IndexedConstraintViolation> indexedConstraintViolations)
+  {
+    super(constraintViolations(indexedConstraintViolations));
+    this.indexedConstraintViolations = List.copyOf(indexedConstraintViolations);
+  }
+
+  public List<IndexedConstraintViolation> getIndexedConstraintViolations()
+  {
+    return indexedConstraintViolations;
+  }
+
+  private static Set<ConstraintViolation<?>> constraintViolations(Collection<IndexedConstraintViolation> indexedConstraintViolations)
+  {
+    Set<ConstraintViolation<?>> constraintViolations = new LinkedHashSet<>();
+    indexedConstraintViolations.forEach(indexedConstraintViolation -> constraintViolations.add(indexedConstraintViolation.constraintViolation()));
+
+    return constraintViolations;
+  }
+}
@@ -0,0 +1,207 @@
+package com.tn.service.data.controller;
+
+import static java.util.Comparator.comparingInt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Validates bulk bodies in chunks, spreading each chunk over a bounded pool of threads.  Once a chunk contains a
+ * violation no more values are handed on, the rest of the body is only validated until <code>maxViolations</code> have
+ * been collected; a <code>maxViolations</code> less than one collects every violation.
+ */
+public class BulkValidator implements AutoCloseable
+{
+  private static final int QUEUE_SIZE_PER_THREAD = 4;
+
+  private final Validator validator;
+  private final ThreadPoolExecutor executor;
+  private final int threads;
+  private final int chunkSize;
+  private final int maxViolations;
+
+  public BulkValidator(Validator validator, int threads, int chunkSize, int maxViolations)
+  {
+    this.validator = validator;
+    this.threads = threads;
+    this.chunkSize = chunkSize;
+    this.maxViolations = maxViolations < 1 ? Integer.MAX_VALUE : maxViolations;
+
+    // when the queue is full the request thread validates its own slice, which keeps busy servers from queuing without bound.
+    this.executor = new ThreadPoolExecutor(
+      threads,
+      threads,
+      0,
+      TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(threads * QUEUE_SIZE_PER_THREAD),
+      new ValidationThreadFactory(),
+      new ThreadPoolExecutor.CallerRunsPolicy()
+    );
+  }
+
+  public <V> Set<ConstraintViolation<V>> validate(V value)
+  {
+    return validator.validate(value);
+  }
+
+  public <V> Iterable<V> validated(Iterator<V> values)
+  {
+    return () -> new ValidatedIterator<>(values);
+  }
+
+  public <V> void validateAll(List<V> values, int offset)
+  {
+    List<IndexedConstraintViolation> constraintViolations = validate(values, offset, new AtomicInteger());
+    if (!constraintViolations.isEmpty()) throw new BulkConstraintViolationException(first(constraintViolations));
+  }
+
+  @Override
+  public void close()
+  {
+    executor.shutdown();
+  }
+
+  private <V> List<IndexedConstraintViolation> validate(List<V> chunk, int offset, AtomicInteger violationCount)
+  {
+    int sliceSize = Math.max(1, (chunk.size() + threads - 1) / threads);
+
+    List<CompletableFuture<List<IndexedConstraintViolation>>> slices = new ArrayList<>();
+    for (int from = sliceSize; from < chunk.size(); from += sliceSize)
+    {
+      int sliceFrom = from;
+      slices.add(CompletableFuture.supplyAsync(() -> validate(chunk, offset, sliceFrom, Math.min(sliceFrom + sliceSize, chunk.size()), violationCount), executor));
+    }
+
+    // the first slice is validated on the request thread rather than leaving it idle.
+    List<IndexedConstraintViolation> constraintViolations = new ArrayList<>(validate(chunk, offset, 0, Math.min(sliceSize, chunk.size()), violationCount));
+    for (CompletableFuture<List<IndexedConstraintViolation>> slice : slices)
+    {
+      try
+      {
+        constraintViolations.addAll(slice.join());
+      }
+      catch (CompletionException e)
+      {
+        if (e.getCause() instanceof RuntimeException) throw (RuntimeException)e.getCause();
+        throw e;
+      }
+    }
+
+    return constraintViolations;
+  }
+
+  private <V> List<IndexedConstraintViolation> validate(List<V> chunk, int offset, int from, int to, AtomicInteger violationCount)
+  {
+    List<IndexedConstraintViolation> constraintViolations = new ArrayList<>();
+    for (int i = from; i < to && violationCount.get() < maxViolations; i++)
+    {
+      Set<ConstraintViolation<V>> valueConstraintViolations = validator.validate(chunk.get(i));
+      if (valueConstraintViolations.isEmpty()) continue;
+
+      violationCount.addAndGet(valueConstraintViolations.size());
+      for (ConstraintViolation<V> constraintViolation : valueConstraintViolations)
+      {
+        constraintViolations.add(new IndexedConstraintViolation(offset + i, constraintViolation));
+      }
+    }
+
+    return constraintViolations;
+  }
+
+  private Collection<IndexedConstraintViolation> first(List<IndexedConstraintViolation> constraintViolations)
+  {
+    // slices run concurrently, so later values may have been counted before earlier ones.
+    constraintViolations.sort(comparingInt(IndexedConstraintViolation::index));
+    return constraintViolations.size() > maxViolations ? constraintViolations.subList(0, maxViolations) : constraintViolations;
+  }
+
+  private class ValidatedIterator<V> implements Iterator<V>
+  {
+    private final Iterator<V> values;
+    private List<V> chunk;
+    private int position;
+    private int offset;
+
+    ValidatedIterator(Iterator<V> values)
+    {
+      this.values = values;
+      this.chunk = List.of();
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      return position < chunk.size() || values.hasNext();
+    }
+
+    @Override
+    public V next()
+    {
+      if (position >= chunk.size()) nextChunk();
+
+      return chunk.get(position++);
+    }
+
+    private void nextChunk()
+    {
+      if (!values.hasNext()) throw new NoSuchElementException();
+
+      offset += chunk.size();
+      chunk = read();
+      position = 0;
+
+      AtomicInteger violationCount = new AtomicInteger();
+      List<IndexedConstraintViolation> constraintViolations = validate(chunk, offset, violationCount);
+      if (constraintViolations.isEmpty()) return;
+
+      int nextOffset = offset + chunk.size();
+      while (violationCount.get() < maxViolations && values.hasNext())
+      {
+        List<V> remaining = read();
+        constraintViolations.addAll(validate(remaining, nextOffset, violationCount));
+        nextOffset += remaining.size();
+      }
+
+      throw new BulkConstraintViolationException(first(constraintViolations));
+    }
+
+    private List<V> read()
+    {
+      List<V> chunk = new ArrayList<>(chunkSize);
+      while (chunk.size() < chunkSize && values.hasNext())
+      {
+        chunk.add(values.next());
+      }
+
+      return chunk;
+    }
+  }
+
+  private static class ValidationThreadFactory implements ThreadFactory
+  {
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable)
+    {
+      Thread thread = new Thread(runnable, "data-validation-" + COUNT.incrementAndGet());
+      thread.setDaemon(true);
+
+      return thread;
+    }
+  }
+}
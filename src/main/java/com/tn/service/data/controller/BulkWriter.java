@@ -0,0 +1,303 @@
+package com.tn.service.data.controller;
+
+import static java.util.Spliterator.ORDERED;
+import static java.util.Spliterators.spliteratorUnknownSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import lombok.extern.slf4j.Slf4j;
+
+import com.tn.service.data.domain.ChunkProgress;
+
+/**
+ * Writes bulk bodies in chunks through a parse, validate and write pipeline.  Each stage runs on its own thread and the
+ * stages are joined by bounded queues, so a slow repository holds back parsing rather than buffering the request.  A stage
+ * that can't hand on a chunk within the stall timeout gives up, so a pipeline whose response is never written still
+ * releases its threads.
+ */
+@Slf4j
+public class BulkWriter implements AutoCloseable
+{
+  public static final Duration DEFAULT_STALL_TIMEOUT = Duration.ofSeconds(60);
+
+  private static final int STAGE_THREADS = 2;
+  private static final long POLL_MILLIS = 100;
+
+  private final BulkValidator bulkValidator;
+  private final ThreadPoolExecutor executor;
+  private final int queueSize;
+  private final Duration stallTimeout;
+
+  public BulkWriter(BulkValidator bulkValidator, int maxWrites, int queueSize)
+  {
+    this(bulkValidator, maxWrites, queueSize, DEFAULT_STALL_TIMEOUT);
+  }
+
+  public BulkWriter(BulkValidator bulkValidator, int maxWrites, int queueSize, Duration stallTimeout)
+  {
+    this.bulkValidator = bulkValidator;
+    this.queueSize = queueSize;
+    this.stallTimeout = stallTimeout;
+
+    // no queue, so writes beyond the limit are rejected rather than left waiting for a thread.
+    this.executor = new ThreadPoolExecutor(
+      maxWrites * STAGE_THREADS,
+      maxWrites * STAGE_THREADS,
+      60,
+      TimeUnit.SECONDS,
+      new SynchronousQueue<>(),
+      new BulkWriteThreadFactory()
+    );
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Starts parsing and validating <code>values</code> straight away, chunks are only written as the returned stream is
+   * consumed.  The stream ends after the last chunk or the first chunk that fails, closing it stops the pipeline.
+   */
+  public <V> Stream<ChunkProgress> write(Iterator<V> values, int chunkSize, Function<Iterable<V>, Collection<V>> writer) throws RejectedExecutionException
+  {
+    BlockingQueue<Chunk<V>> parsed = new ArrayBlockingQueue<>(queueSize);
+    BlockingQueue<Chunk<V>> validated = new ArrayBlockingQueue<>(queueSize);
+
+    Future<?> parse = executor.submit(() -> parse(values, chunkSize, parsed));
+    Future<?> validate;
+    try
+    {
+      validate = executor.submit(() -> validate(parsed, validated));
+    }
+    catch (RejectedExecutionException e)
+    {
+      parse.cancel(true);
+      throw e;
+    }
+
+    return StreamSupport.stream(spliteratorUnknownSize(new ChunkWriter<>(validated, validate, writer), ORDERED), false)
+      .onClose(
+        () ->
+        {
+          parse.cancel(true);
+          validate.cancel(true);
+        }
+      );
+  }
+
+  @Override
+  public void close()
+  {
+    executor.shutdownNow();
+  }
+
+  private <V> void parse(Iterator<V> values, int chunkSize, BlockingQueue<Chunk<V>> parsed)
+  {
+    int index = 0;
+    int offset = 0;
+
+    try
+    {
+      try
+      {
+        while (values.hasNext())
+        {
+          List<V> chunk = new ArrayList<>(chunkSize);
+          while (chunk.size() < chunkSize && values.hasNext())
+          {
+            chunk.add(values.next());
+          }
+
+          if (!offer(parsed, new Chunk<>(index++, offset, chunk, null))) return;
+          offset += chunk.size();
+        }
+
+        offer(parsed, new Chunk<>(index, offset, null, null));
+      }
+      catch (RuntimeException e)
+      {
+        offer(parsed, new Chunk<>(index, offset, null, e));
+      }
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private <V> void validate(BlockingQueue<Chunk<V>> parsed, BlockingQueue<Chunk<V>> validated)
+  {
+    try
+    {
+      while (true)
+      {
+        Chunk<V> chunk = parsed.poll(stallTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        if (chunk == null)
+        {
+          log.warn("Bulk write stalled waiting for parsing, abandoning it");
+          return;
+        }
+        if (chunk.isLast())
+        {
+          offer(validated, chunk);
+          return;
+        }
+
+        try
+        {
+          bulkValidator.validateAll(chunk.values(), chunk.offset());
+          if (!offer(validated, chunk)) return;
+        }
+        catch (RuntimeException e)
+        {
+          offer(validated, new Chunk<>(chunk.index(), chunk.offset(), null, e));
+          return;
+        }
+      }
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private <V> boolean offer(BlockingQueue<Chunk<V>> queue, Chunk<V> chunk) throws InterruptedException
+  {
+    if (queue.offer(chunk, stallTimeout.toMillis(), TimeUnit.MILLISECONDS)) return true;
+
+    log.warn("Bulk write stalled at chunk {}, abandoning it", chunk.index());
+    return false;
+  }
+
+  private static ChunkProgress failed(int index, int offset, RuntimeException e)
+  {
+    log.error("Bulk write failed at chunk {}", index, e);
+
+    return e instanceof BulkConstraintViolationException
+      ? ChunkProgress.failed(index, offset, "Invalid body", ((BulkConstraintViolationException)e).getIndexedConstraintViolations().stream().map(Object::toString).toList())
+      : ChunkProgress.failed(index, offset, e.getMessage(), null);
+  }
+
+  private record Chunk<V>(int index, int offset, List<V> values, RuntimeException failure)
+  {
+    boolean isLast()
+    {
+      return values == null;
+    }
+  }
+
+  private static class ChunkWriter<V> implements Iterator<ChunkProgress>
+  {
+    private final BlockingQueue<Chunk<V>> validated;
+    private final Future<?> validate;
+    private final Function<Iterable<V>, Collection<V>> writer;
+    private Chunk<V> next;
+    private boolean done;
+    private int index;
+    private int offset;
+
+    ChunkWriter(BlockingQueue<Chunk<V>> validated, Future<?> validate, Function<Iterable<V>, Collection<V>> writer)
+    {
+      this.validated = validated;
+      this.validate = validate;
+      this.writer = writer;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      if (next == null && !done)
+      {
+        next = take();
+        if (next.isLast() && next.failure() == null)
+        {
+          next = null;
+          done = true;
+        }
+      }
+
+      return next != null;
+    }
+
+    @Override
+    public ChunkProgress next()
+    {
+      if (!hasNext()) throw new NoSuchElementException();
+
+      Chunk<V> chunk = next;
+      next = null;
+
+      if (chunk.failure() != null)
+      {
+        done = true;
+        return failed(chunk.index(), chunk.offset(), chunk.failure());
+      }
+
+      try
+      {
+        index = chunk.index() + 1;
+        offset = chunk.offset() + chunk.values().size();
+
+        return ChunkProgress.written(chunk.index(), chunk.offset(), writer.apply(chunk.values()).size());
+      }
+      catch (RuntimeException e)
+      {
+        done = true;
+        return failed(chunk.index(), chunk.offset(), e);
+      }
+    }
+
+    private Chunk<V> take()
+    {
+      try
+      {
+        // the validate stage may have given up on a stalled pipeline, in which case nothing more will arrive.
+        while (true)
+        {
+          Chunk<V> chunk = validated.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+          if (chunk != null) return chunk;
+
+          if (validate.isDone())
+          {
+            chunk = validated.poll();
+            return chunk != null ? chunk : new Chunk<>(index, offset, null, new IllegalStateException("Bulk write stalled"));
+          }
+        }
+      }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+        throw new CancellationException("Bulk write interrupted");
+      }
+    }
+  }
+
+  private static class BulkWriteThreadFactory implements ThreadFactory
+  {
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable)
+    {
+      Thread thread = new Thread(runnable, "data-bulk-write-" + COUNT.incrementAndGet());
+      thread.setDaemon(true);
+
+      return thread;
+    }
+  }
+}
@@ -1,40 +1,80 @@
 package com.tn.service.data.controller;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptySet;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.MediaType.APPLICATION_CBOR;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 import static com.tn.lang.Objects.coalesce;
-import static com.tn.lang.Strings.isNotNullOrWhitespace;
+import static com.tn.service.data.controller.Errors.details;
+import static com.tn.service.data.controller.Errors.error;
 import static com.tn.service.data.domain.Direction.ASCENDING;
 
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import jakarta.validation.ConstraintViolation;
-import jakarta.validation.Validator;
+import jakarta.validation.ConstraintViolationException;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.LongNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.databind.node.TextNode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
-import org.springframework.http.RequestEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.tn.lang.util.Page;
 import com.tn.query.QueryParseException;
 import com.tn.service.IllegalParameterException;
 import com.tn.service.data.api.DataApi;
+import com.tn.service.data.domain.ChunkProgress;
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.domain.Cursor;
+import com.tn.service.data.domain.CursorPage;
 import com.tn.service.data.domain.Direction;
+import com.tn.service.data.io.DataFormat;
 import com.tn.service.data.io.JsonCodec;
 import com.tn.service.data.io.JsonException;
+import com.tn.service.data.io.JsonValueReader;
+import com.tn.service.data.parameter.CursorParser;
 import com.tn.service.data.parameter.IdentityParser;
+import com.tn.service.data.parameter.IntegerIdentityParser;
+import com.tn.service.data.parameter.LongIdentityParser;
 import com.tn.service.data.parameter.ParameterIdentityParser;
+import com.tn.service.data.parameter.ParameterIntegerIdentityParser;
+import com.tn.service.data.parameter.ParameterLongIdentityParser;
 import com.tn.service.data.parameter.QueryBuilder;
+import com.tn.service.data.repository.AsyncDataRepository;
+import com.tn.service.data.repository.BulkheadFullException;
 import com.tn.service.data.repository.DataRepository;
 import com.tn.service.data.repository.DeleteException;
 import com.tn.service.data.repository.InsertException;
@@ -44,19 +84,34 @@ import com.tn.service.data.repository.UpdateException;
 @Slf4j
 @RestController
 @RequestMapping("${tn.service.data.path.root:}")
-@ConditionalOnWebApplication
-@ConditionalOnBean({DataRepository.class, IdentityParser.class, JsonCodec.class, QueryBuilder.class})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnBean({DataRepository.class, AsyncDataRepository.class, IdentityParser.class, JsonCodec.class, QueryBuilder.class})
 public class DataController<V, ID> implements DataApi
 {
   public static final int DEFAULT_PAGE_NUMBER = 0;
   public static final int DEFAULT_PAGE_SIZE = 100;
+  public static final String FIELD_COUNT = "count";
   public static final String FIELD_MESSAGE = "message";
-  private static final String FIELD_DETAIL = "detail";
+  private static final String ETAG_SEPARATOR = "\n";
+  private static final List<MediaType> PRODUCIBLE_MEDIA_TYPES = List.of(
+    APPLICATION_JSON,
+    APPLICATION_NDJSON,
+    APPLICATION_CBOR,
+    MediaType.valueOf(APPLICATION_SMILE_VALUE)
+  );
 
+  private final AsyncDataRepository<V, ID> asyncDataRepository;
+  private final CursorParser cursorParser;
   private final DataRepository<V, ID> dataRepository;
+  private final String identityParameterName;
+  private final int maxIdentities;
+  private final Duration abandonTimeout;
   private final IdentityParser<String, ID> identityParser;
-  private final Validator validator;
+  private final BulkValidator bulkValidator;
+  private final BulkWriter bulkWriter;
   private final IdentityParser<MultiValueMap<String, String>, Collection<ID>> parameterIdentityParser;
+  private final IdentityParser<MultiValueMap<String, String>, long[]> parameterLongIdentityParser;
+  private final IdentityParser<MultiValueMap<String, String>, int[]> parameterIntegerIdentityParser;
   private final JsonCodec<V>  jsonCodec;
   private final QueryBuilder queryBuilder;
 
@@ -64,148 +119,462 @@ public class DataController<V, ID> implements DataApi
   public DataController(
     IdentityParser<String, ID> identityParser,
     JsonCodec<V> jsonCodec,
-    Validator validator,
+    BulkValidator bulkValidator,
+    BulkWriter bulkWriter,
     QueryBuilder queryBuilder,
     DataRepository<V, ID> dataRepository,
-    @Value("${tn.service.data.identity.param-name:id}") String identityParameterName
+    AsyncDataRepository<V, ID> asyncDataRepository,
+    @Value("${tn.service.data.identity.param-name:id}") String identityParameterName,
+    @Value("${tn.service.data.identity.max-identities:10000}") int maxIdentities,
+    @Value("${tn.service.data.stream.abandon-timeout:60s}") Duration abandonTimeout
   )
   {
+    this.asyncDataRepository = asyncDataRepository;
+    this.cursorParser = new CursorParser();
+    this.identityParameterName = identityParameterName;
+    this.maxIdentities = maxIdentities;
+    this.abandonTimeout = abandonTimeout;
     this.identityParser = identityParser;
-    this.validator = validator;
+    this.bulkValidator = bulkValidator;
+    this.bulkWriter = bulkWriter;
     this.parameterIdentityParser = new ParameterIdentityParser<>(identityParser, identityParameterName);
+    this.parameterLongIdentityParser = identityParser instanceof LongIdentityParser
+      ? new ParameterLongIdentityParser((LongIdentityParser)identityParser, identityParameterName)
+      : null;
+    this.parameterIntegerIdentityParser = identityParser instanceof IntegerIdentityParser
+      ? new ParameterIntegerIdentityParser((IntegerIdentityParser)identityParser, identityParameterName)
+      : null;
     this.jsonCodec = jsonCodec;
     this.queryBuilder = queryBuilder;
     this.dataRepository = dataRepository;
   }
 
   @Override
-  public ResponseEntity<? extends JsonNode> get(String id)
+  public CompletableFuture<ResponseEntity<JsonNode>> get(String id, Collection<String> fields, String accept, String ifNoneMatch)
+  {
+    MediaType mediaType = produces(accept);
+    Set<String> projection = queryBuilder.fields(coalesce(fields, emptySet()));
+    JsonCodec<V> codec = codec(projection);
+
+    return asyncDataRepository.find(identityParser.parse(id)).thenApply(
+      found -> found
+        .map(value -> tagged(mediaType, projection, ifNoneMatch, List.of(value), () -> codec.writeValue(value)))
+        .orElse(ResponseEntity.notFound().build())
+    );
+  }
+
+  @Override
+  public CompletableFuture<ResponseEntity<Void>> exists(String id)
   {
-    return dataRepository.find(identityParser.parse(id))
-      .map(value -> ResponseEntity.ok(jsonCodec.writeValue(value)))
-      .orElse(ResponseEntity.notFound().build());
+    return asyncDataRepository.exists(identityParser.parse(id)).thenApply(exists -> exists ? ResponseEntity.ok().<Void>build() : ResponseEntity.notFound().<Void>build());
   }
 
   @Override
-  public ResponseEntity<? extends JsonNode> get(
+  public CompletableFuture<ResponseEntity<StreamingResponseBody>> stream(
+    MultiValueMap<String, String> params,
+    Collection<String> sort,
+    Direction direction,
+    Collection<String> fields,
+    String accept,
+    String ifNoneMatch
+  )
+  {
+    MediaType mediaType = produces(accept);
+    Set<String> projection = queryBuilder.fields(coalesce(fields, emptySet()));
+    JsonCodec<V> codec = codec(projection);
+
+    Optional<CompletableFuture<Collection<V>>> identified = findIdentified(params);
+    if (identified.isPresent()) return identified.get().thenApply(values -> write(values, codec, mediaType, projection, ifNoneMatch));
+
+    Optional<Criteria> criteria = queryBuilder.criteria(params);
+
+    // streams are read as the response is written, so these complete on the request thread.
+    return completedFuture(
+      criteria.isPresent()
+        ? stream(() -> streamWhere(criteria.get(), projection, coalesce(sort, emptySet()), coalesce(direction, ASCENDING)), dataRepository.versionWhere(criteria.get()), codec, mediaType, projection, ifNoneMatch)
+        : stream(() -> streamAll(projection, coalesce(sort, emptySet()), coalesce(direction, ASCENDING)), dataRepository.versionAll(), codec, mediaType, projection, ifNoneMatch)
+    );
+  }
+
+  @Override
+  public CompletableFuture<ResponseEntity<JsonNode>> get(
     MultiValueMap<String, String> params,
     Integer pageNumber,
     Integer pageSize,
+    String after,
     Collection<String> sort,
-    Direction direction
+    Direction direction,
+    Collection<String> fields,
+    boolean count,
+    String accept,
+    String ifNoneMatch
   )
   {
-    Collection<ID> identities = parameterIdentityParser.parse(params);
-    if (!identities.isEmpty())
+    if (count) return count(params, pageNumber, pageSize, after, fields);
+
+    // pages carry more than their content, so they are only available as json.
+    MediaType mediaType = produces(accept);
+    if (APPLICATION_NDJSON.equals(mediaType)) throw new IllegalParameterException("Pages cannot be read as " + APPLICATION_NDJSON_VALUE);
+
+    Set<String> projection = queryBuilder.fields(coalesce(fields, emptySet()));
+    JsonCodec<V> codec = codec(projection);
+
+    Optional<CompletableFuture<Collection<V>>> identified = findIdentified(params);
+    if (identified.isPresent())
     {
-      return ResponseEntity.ok(jsonCodec.writeValue(dataRepository.findAll(identities)));
+      return identified.get().thenApply(values -> tagged(mediaType, projection, ifNoneMatch, values, () -> codec.writeValue(values)));
+    }
+
+    Optional<Criteria> criteria = queryBuilder.criteria(params);
+
+    // pages have no async reads, so these complete on the request thread.
+    if (after != null)
+    {
+      return completedFuture(tagged(mediaType, projection, ifNoneMatch, codec.writeValue(findAfter(criteria, after, pageNumber, pageSize, coalesce(sort, emptySet()), coalesce(direction, ASCENDING)))));
+    }
+    else if (criteria.isPresent())
+    {
+      return completedFuture(tagged(mediaType, projection, ifNoneMatch, codec.writeValue(findWhere(criteria.get(), projection, coalesce(pageNumber, DEFAULT_PAGE_NUMBER), coalesce(pageSize, DEFAULT_PAGE_SIZE), coalesce(sort, emptySet()), coalesce(direction, ASCENDING)))));
     }
     else
     {
-      String query = queryBuilder.build(params);
+      return completedFuture(tagged(mediaType, projection, ifNoneMatch, codec.writeValue(findAll(projection, coalesce(pageNumber, DEFAULT_PAGE_NUMBER), coalesce(pageSize, DEFAULT_PAGE_SIZE), coalesce(sort, emptySet()), direction))));
+    }
+  }
 
-      if (isNotNullOrWhitespace(query))
-      {
-        return ResponseEntity.ok(
-          pageNumber != null || pageSize != null
-            ? jsonCodec.writeValue(dataRepository.findWhere(query, coalesce(pageNumber, DEFAULT_PAGE_NUMBER), coalesce(pageSize, DEFAULT_PAGE_SIZE), coalesce(sort, emptySet()), coalesce(direction, ASCENDING)))
-            : jsonCodec.writeValues(dataRepository.findWhere(query, coalesce(sort, emptySet()), coalesce(direction, ASCENDING)))
-        );
-      }
-      else
+  private CompletableFuture<ResponseEntity<JsonNode>> count(MultiValueMap<String, String> params, Integer pageNumber, Integer pageSize, String after, Collection<String> fields)
+  {
+    if (pageNumber != null || pageSize != null || after != null) throw new IllegalParameterException("$count cannot be used with $pageNumber, $pageSize or $after");
+    if (fields != null) throw new IllegalParameterException("$count cannot be used with $fields");
+    if (params.containsKey(identityParameterName)) throw new IllegalParameterException("$count cannot be used with identity parameters");
+
+    Optional<Criteria> criteria = queryBuilder.criteria(params);
+
+    return (criteria.isPresent() ? asyncDataRepository.countWhere(criteria.get()) : asyncDataRepository.count()).thenApply(
+      total ->
       {
-        return ResponseEntity.ok(
-          pageNumber != null || pageSize != null
-            ? jsonCodec.writeValue(dataRepository.findAll(coalesce(pageNumber, DEFAULT_PAGE_NUMBER), coalesce(pageSize, DEFAULT_PAGE_SIZE), coalesce(sort, emptySet()), direction))
-            : jsonCodec.writeValues(dataRepository.findAll(coalesce(sort, emptySet()), coalesce(direction, ASCENDING)))
-        );
+        ObjectNode count = new ObjectNode(null);
+        count.set(FIELD_COUNT, LongNode.valueOf(total));
+
+        return ResponseEntity.<JsonNode>ok(count);
       }
-    }
+    );
   }
 
-  @Override
-  public ResponseEntity<? extends JsonNode> post(RequestEntity<JsonNode> request)
+  private JsonCodec<V> codec(Set<String> fields)
   {
-    if (request.getBody() instanceof ObjectNode)
-    {
-      V entity = jsonCodec.readValue(request.getBody());
-      Collection<ConstraintViolation<V>> constraintViolations = validate(entity);
-      if (!constraintViolations.isEmpty()) return ResponseEntity.badRequest().body(error(constraintViolations));
+    return fields.isEmpty() ? jsonCodec : jsonCodec.withFields(fields);
+  }
 
-      return ResponseEntity.ok(jsonCodec.writeValue(dataRepository.insert(entity)));
+  // unprojected reads keep to the plain repository methods, which the repository decorators specialise.
+  private Page<V> findAll(Set<String> fields, int pageNumber, int pageSize, Collection<String> sort, Direction direction)
+  {
+    return fields.isEmpty() ? dataRepository.findAll(pageNumber, pageSize, sort, direction) : dataRepository.findAll(fields, pageNumber, pageSize, sort, direction);
+  }
+
+  private Page<V> findWhere(Criteria criteria, Set<String> fields, int pageNumber, int pageSize, Collection<String> sort, Direction direction)
+  {
+    return fields.isEmpty()
+      ? dataRepository.findWhere(criteria, pageNumber, pageSize, sort, direction)
+      : dataRepository.findWhere(criteria, fields, pageNumber, pageSize, sort, direction);
+  }
+
+  private Stream<V> streamAll(Set<String> fields, Collection<String> sort, Direction direction)
+  {
+    return fields.isEmpty() ? dataRepository.streamAll(sort, direction) : dataRepository.streamAll(fields, sort, direction);
+  }
+
+  private Stream<V> streamWhere(Criteria criteria, Set<String> fields, Collection<String> sort, Direction direction)
+  {
+    return fields.isEmpty() ? dataRepository.streamWhere(criteria, sort, direction) : dataRepository.streamWhere(criteria, fields, sort, direction);
+  }
+
+  private Optional<CompletableFuture<Collection<V>>> findIdentified(MultiValueMap<String, String> params)
+  {
+    checkIdentities(params);
+
+    // numeric identities skip boxing and hashing, which matters for requests with thousands of ids.
+    if (parameterLongIdentityParser != null)
+    {
+      long[] identities = parameterLongIdentityParser.parse(params);
+      return identities.length > 0 ? Optional.of(asyncDataRepository.findAll(identities)) : Optional.empty();
     }
-    else if (request.getBody() instanceof ArrayNode)
+    else if (parameterIntegerIdentityParser != null)
     {
-      Collection<V> entities = jsonCodec.readValues((ArrayNode)request.getBody());
-      Collection<ConstraintViolation<V>> constraintViolations = validateAll(entities);
-      if (!constraintViolations.isEmpty()) return ResponseEntity.badRequest().body(error(constraintViolations));
-
-      return ResponseEntity.ok(jsonCodec.writeValues(dataRepository.insertAll(entities)));
+      int[] identities = parameterIntegerIdentityParser.parse(params);
+      return identities.length > 0 ? Optional.of(asyncDataRepository.findAll(identities)) : Optional.empty();
     }
     else
     {
-      return invalidBody();
+      Collection<ID> identities = parameterIdentityParser.parse(params);
+      return !identities.isEmpty() ? Optional.of(asyncDataRepository.findAll(identities)) : Optional.empty();
+    }
+  }
+
+  private void checkIdentities(MultiValueMap<String, String> params)
+  {
+    // checked before the identities are parsed, so an oversized request costs nothing more than its parameters.
+    List<String> identities = params.get(identityParameterName);
+    if (identities != null && identities.size() > maxIdentities) throw new IllegalParameterException("Too many identities, the limit is " + maxIdentities);
+  }
+
+  private CursorPage<V> findAfter(Optional<Criteria> criteria, String after, Integer pageNumber, Integer pageSize, Collection<String> sort, Direction direction)
+  {
+    if (pageNumber != null) throw new IllegalParameterException("$after cannot be used with $pageNumber");
+
+    int limit = coalesce(pageSize, DEFAULT_PAGE_SIZE);
+    if (limit < 1) throw new IllegalParameterException("Invalid $pageSize: " + limit);
+
+    Collection<String> keys = new LinkedHashSet<>(sort);
+    keys.add(identityParameterName);
+
+    Cursor cursor = cursorParser.parse(after, keys);
+
+    // one extra value is requested to find out whether there is a next page without a count.
+    List<V> values = new ArrayList<>(
+      criteria.isPresent()
+        ? dataRepository.findWhere(criteria.get(), cursor, limit + 1, sort, direction)
+        : dataRepository.findAll(cursor, limit + 1, sort, direction)
+    );
+
+    if (values.size() <= limit) return new CursorPage<>(values, null);
+
+    List<V> content = values.subList(0, limit);
+    return new CursorPage<>(content, cursorParser.format(jsonCodec.writeValue(content.get(limit - 1)), keys));
+  }
+
+  @Override
+  public ResponseEntity<?> post(InputStream body, String contentType)
+  {
+    try (JsonValueReader<V> values = readValues(body, contentType))
+    {
+      if (values.isArray()) return ResponseEntity.ok(jsonCodec.writeValues(dataRepository.insertAll(bulkValidator.validated(values))));
+
+      V entity = values.next();
+      Collection<ConstraintViolation<V>> constraintViolations = validate(entity);
+      if (!constraintViolations.isEmpty()) return ResponseEntity.badRequest().body(error(details(constraintViolations)));
+
+      return ResponseEntity.ok(jsonCodec.writeValue(dataRepository.insert(entity)));
     }
   }
 
   @Override
-  public ResponseEntity<? extends JsonNode> put(RequestEntity<JsonNode> request)
+  public ResponseEntity<?> put(InputStream body, String contentType)
   {
-    if (request.getBody() instanceof ObjectNode)
+    try (JsonValueReader<V> values = readValues(body, contentType))
     {
-      V entity = jsonCodec.readValue(request.getBody());
+      if (values.isArray()) return ResponseEntity.ok(jsonCodec.writeValues(dataRepository.updateAll(bulkValidator.validated(values))));
+
+      V entity = values.next();
       Collection<ConstraintViolation<V>> constraintViolations = validate(entity);
-      if (!constraintViolations.isEmpty()) return ResponseEntity.badRequest().body(error(constraintViolations));
+      if (!constraintViolations.isEmpty()) return ResponseEntity.badRequest().body(error(details(constraintViolations)));
 
       return ResponseEntity.ok(jsonCodec.writeValue(dataRepository.update(entity)));
     }
-    else if (request.getBody() instanceof ArrayNode)
+  }
+
+  @Override
+  public ResponseEntity<StreamingResponseBody> postChunked(InputStream body, String contentType, int chunkSize)
+  {
+    return writeChunked(readValues(body, contentType), dataFormat(contentType), chunkSize, dataRepository::insertAll);
+  }
+
+  @Override
+  public ResponseEntity<StreamingResponseBody> putChunked(InputStream body, String contentType, int chunkSize)
+  {
+    return writeChunked(readValues(body, contentType), dataFormat(contentType), chunkSize, dataRepository::updateAll);
+  }
+
+  private ResponseEntity<StreamingResponseBody> writeChunked(JsonValueReader<V> values, DataFormat dataFormat, int chunkSize, Function<Iterable<V>, Collection<V>> write)
+  {
+    try
     {
-      Collection<V> entities = jsonCodec.readValues((ArrayNode)request.getBody());
-      Collection<ConstraintViolation<V>> constraintViolations = validateAll(entities);
-      if (!constraintViolations.isEmpty()) return ResponseEntity.badRequest().body(error(constraintViolations));
+      if (chunkSize < 1) throw new IllegalParameterException("Invalid $chunkSize: " + chunkSize);
+      if (!values.isArray()) throw new IllegalParameterException("$chunkSize can only be used with an array body");
+
+      // the pipeline is started before the response so a busy writer can still be reported as unavailable.
+      Stream<ChunkProgress> progress = bulkWriter.write(values, chunkSize, write);
 
-      return ResponseEntity.ok(jsonCodec.writeValues(dataRepository.updateAll(entities)));
+      // progress is written in the format the body was sent in.
+      return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(dataFormat.mediaType()))
+        .body(
+          outputStream ->
+          {
+            try (values; progress)
+            {
+              jsonCodec.withFormat(dataFormat).writeValues(progress, outputStream, true);
+            }
+          }
+        );
     }
-    else
+    catch (RuntimeException e)
     {
-      return invalidBody();
+      values.close();
+      throw e;
     }
   }
 
   @Override
-  public ResponseEntity<? extends JsonNode> delete(String key)
+  public CompletableFuture<ResponseEntity<JsonNode>> delete(String key)
   {
-    return dataRepository.delete(identityParser.parse(key))
-      .map(value -> ResponseEntity.ok(jsonCodec.writeValue(value)))
-      .orElse(ResponseEntity.notFound().build());
+    return asyncDataRepository.delete(identityParser.parse(key)).thenApply(
+      deleted -> deleted
+        .map(value -> ResponseEntity.ok(jsonCodec.writeValue(value)))
+        .orElse(ResponseEntity.notFound().build())
+    );
   }
 
   @Override
-  public ResponseEntity<? extends JsonNode> delete(MultiValueMap<String, String> params)
+  public CompletableFuture<ResponseEntity<JsonNode>> delete(MultiValueMap<String, String> params)
   {
+    checkIdentities(params);
+
     Collection<ID> identities = parameterIdentityParser.parse(params);
     return !identities.isEmpty()
-      ? ResponseEntity.ok(jsonCodec.writeValue(dataRepository.deleteAll(identities)))
-      : ResponseEntity.badRequest().body(error("Cannot delete all, identity parameters must be specified"));
+      ? asyncDataRepository.deleteAll(identities).thenApply(values -> ResponseEntity.ok(jsonCodec.writeValue(values)))
+      : completedFuture(ResponseEntity.badRequest().body(error("Cannot delete all, identity parameters must be specified")));
   }
 
-  private Collection<ConstraintViolation<V>> validate(V entity)
+  private ResponseEntity<StreamingResponseBody> stream(
+    Supplier<Stream<V>> find,
+    Optional<?> version,
+    JsonCodec<V> codec,
+    MediaType mediaType,
+    Set<String> fields,
+    String ifNoneMatch
+  )
+  {
+    // without a version the etag would need the whole result up front, so only versioned streams are tagged.
+    String etag = version.map(value -> etag(mediaType, fields, value.toString())).orElse(null);
+    if (etag != null && notModified(etag, ifNoneMatch)) return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(ACCEPT).build();
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(mediaType).varyBy(ACCEPT);
+    if (etag != null) response.eTag(etag);
+
+    // the stream, and any bulkhead permit it holds, is opened before the response so a busy or failing repository gets an error status.
+    return response.body(new StreamedResponseBody<>(find.get(), (values, outputStream) -> writeValues(values, codec, mediaType, outputStream), abandonTimeout));
+  }
+
+  private ResponseEntity<StreamingResponseBody> write(Collection<V> values, JsonCodec<V> codec, MediaType mediaType, Set<String> fields, String ifNoneMatch)
+  {
+    Optional<String> versions = versions(values);
+    if (versions.isPresent()) return stream(values::stream, versions, codec, mediaType, fields, ifNoneMatch);
+
+    // the values are already read, so without versions the tag is taken from the written body.
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    writeValues(values.stream(), codec, mediaType, body);
+
+    String etag = etag(mediaType, fields, DigestUtils.md5DigestAsHex(body.toByteArray()));
+    if (notModified(etag, ifNoneMatch)) return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(ACCEPT).build();
+
+    return ResponseEntity.ok().contentType(mediaType).eTag(etag).varyBy(ACCEPT).body(body::writeTo);
+  }
+
+  private void writeValues(Stream<V> values, JsonCodec<V> codec, MediaType mediaType, OutputStream outputStream)
+  {
+    if (APPLICATION_NDJSON.equals(mediaType)) codec.writeLines(values, outputStream);
+    else codec.withFormat(dataFormat(mediaType.toString())).writeValues(values, outputStream);
+  }
+
+  private ResponseEntity<JsonNode> tagged(MediaType mediaType, Set<String> fields, String ifNoneMatch, JsonNode body)
+  {
+    return tagged(etag(mediaType, fields, body.toString()), ifNoneMatch, () -> body);
+  }
+
+  private ResponseEntity<JsonNode> tagged(MediaType mediaType, Set<String> fields, String ifNoneMatch, Collection<V> values, Supplier<JsonNode> body)
+  {
+    Optional<String> versions = versions(values);
+    if (versions.isPresent()) return tagged(etag(mediaType, fields, versions.get()), ifNoneMatch, body);
+
+    JsonNode json = body.get();
+    return tagged(etag(mediaType, fields, json.toString()), ifNoneMatch, () -> json);
+  }
+
+  private ResponseEntity<JsonNode> tagged(String etag, String ifNoneMatch, Supplier<JsonNode> body)
+  {
+    return notModified(etag, ifNoneMatch)
+      ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(ACCEPT).build()
+      : ResponseEntity.ok().eTag(etag).varyBy(ACCEPT).body(body.get());
+  }
+
+  private Optional<String> versions(Collection<V> values)
+  {
+    StringBuilder versions = new StringBuilder();
+    for (V value : values)
+    {
+      Optional<Object> version = dataRepository.version(value);
+      if (version.isEmpty()) return Optional.empty();
+
+      versions.append(version.get()).append(ETAG_SEPARATOR);
+    }
+
+    return Optional.of(versions.toString());
+  }
+
+  private String etag(MediaType mediaType, Set<String> fields, String content)
+  {
+    // the media type and projection are part of the tag because each representation of the same values is a different entity.
+    String representation = fields.isEmpty() ? mediaType.toString() : mediaType + ETAG_SEPARATOR + String.join(",", fields);
+    return "\"" + DigestUtils.md5DigestAsHex((representation + ETAG_SEPARATOR + content).getBytes(UTF_8)) + "\"";
+  }
+
+  private boolean notModified(String etag, String ifNoneMatch)
+  {
+    if (ifNoneMatch == null) return false;
+
+    for (String candidate : ifNoneMatch.split(","))
+    {
+      String tag = candidate.trim();
+      if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) return true;
+    }
+
+    return false;
+  }
+
+  private JsonValueReader<V> readValues(InputStream body, String contentType)
   {
-    return validator.validate(entity);
+    return contentType != null && APPLICATION_NDJSON.equalsTypeAndSubtype(MediaType.parseMediaType(contentType))
+      ? jsonCodec.readLines(body)
+      : jsonCodec.withFormat(dataFormat(contentType)).readValues(body);
+  }
+
+  private DataFormat dataFormat(String mediaType)
+  {
+    return DataFormat.forMediaType(mediaType).orElse(DataFormat.JSON);
+  }
+
+  private MediaType produces(String accept)
+  {
+    if (accept == null) return APPLICATION_JSON;
+
+    List<MediaType> mediaTypes = new ArrayList<>(MediaType.parseMediaTypes(accept));
+    MimeTypeUtils.sortBySpecificity(mediaTypes);
+
+    // the most specific acceptable type wins, wildcards fall back to json as the first of the producible types.
+    for (MediaType mediaType : mediaTypes)
+    {
+      for (MediaType producible : PRODUCIBLE_MEDIA_TYPES)
+      {
+        if (mediaType.includes(producible)) return producible;
+      }
+    }
+
+    return APPLICATION_JSON;
   }
 
-  private Collection<ConstraintViolation<V>> validateAll(Collection<V> entities)
+  private Collection<ConstraintViolation<V>> validate(V entity)
   {
-    return entities.stream()
-      .map(this::validate)
-      .flatMap(Collection::stream)
-      .toList();
+    return bulkValidator.validate(entity);
   }
 
   @ExceptionHandler({InsertException.class, UpdateException.class, DeleteException.class})
   ResponseEntity<ObjectNode> internalServerError(RepositoryException e)
   {
+    // bulk bodies are parsed and validated while the repository iterates them, so a wrapped body error is still a bad request.
+    if (e.getCause() instanceof ConstraintViolationException) return invalidBody((ConstraintViolationException)e.getCause());
+    if (e.getCause() instanceof JsonException) return invalidBody((JsonException)e.getCause());
+
     log.error("Data controller error", e);
     return ResponseEntity.internalServerError().body(error(e.getMessage()));
   }
@@ -217,39 +586,40 @@ public class DataController<V, ID> implements DataApi
     return invalidBody();
   }
 
-  @ExceptionHandler({IllegalParameterException.class, QueryParseException.class})
-  ResponseEntity<ObjectNode> badRequest(RuntimeException e)
+  @ExceptionHandler(ConstraintViolationException.class)
+  ResponseEntity<ObjectNode> invalidBody(ConstraintViolationException e)
   {
     log.error("Data controller error", e);
-    return ResponseEntity.badRequest().body(error(e.getMessage()));
+    return ResponseEntity.badRequest().body(
+      e instanceof BulkConstraintViolationException
+        ? error(((BulkConstraintViolationException)e).getIndexedConstraintViolations())
+        : error(details(e.getConstraintViolations()))
+    );
   }
 
-  private ResponseEntity<ObjectNode> invalidBody()
+  @ExceptionHandler(UnsupportedOperationException.class)
+  ResponseEntity<ObjectNode> notImplemented(UnsupportedOperationException e)
   {
-    return ResponseEntity.badRequest().body(error("Invalid body"));
+    log.error("Data controller error", e);
+    return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(error(e.getMessage()));
   }
 
-  private ObjectNode error(Collection<ConstraintViolation<V>> constraintViolations)
+  @ExceptionHandler(RejectedExecutionException.class)
+  ResponseEntity<ObjectNode> serviceUnavailable(RejectedExecutionException e)
   {
-    ObjectNode error = error("Invalid body");
-    error.set(
-      FIELD_DETAIL,
-      new ArrayNode(
-        null,
-        constraintViolations.stream()
-          .map(constraintViolation -> (JsonNode)TextNode.valueOf(constraintViolation.getPropertyPath() + " " + constraintViolation.getMessage()))
-          .toList()
-      )
-    );
-
-    return error;
+    log.error("Data controller error", e);
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error(e instanceof BulkheadFullException ? e.getMessage() : "Too many bulk writes in progress"));
   }
 
-  private ObjectNode error(String message)
+  @ExceptionHandler({IllegalParameterException.class, QueryParseException.class})
+  ResponseEntity<ObjectNode> badRequest(RuntimeException e)
   {
-    ObjectNode error = new ObjectNode(null);
-    error.set(FIELD_MESSAGE, TextNode.valueOf(message));
+    log.error("Data controller error", e);
+    return ResponseEntity.badRequest().body(error(e.getMessage()));
+  }
 
-    return error;
+  private ResponseEntity<ObjectNode> invalidBody()
+  {
+    return ResponseEntity.badRequest().body(error("Invalid body"));
   }
 }
@@ -0,0 +1,43 @@
+package com.tn.service.data.controller;
+
+import static com.tn.service.data.controller.DataController.FIELD_MESSAGE;
+
+import java.util.Collection;
+
+import jakarta.validation.ConstraintViolation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+/**
+ * The error bodies shared by the servlet and reactive controllers.
+ */
+final class Errors
+{
+  private static final String FIELD_DETAIL = "detail";
+
+  private Errors() {}
+
+  static Collection<String> details(Collection<? extends ConstraintViolation<?>> constraintViolations)
+  {
+    return constraintViolations.stream().map(constraintViolation -> constraintViolation.getPropertyPath() + " " + constraintViolation.getMessage()).toList();
+  }
+
+  static ObjectNode error(Collection<?> details)
+  {
+    ObjectNode error = error("Invalid body");
+    error.set(FIELD_DETAIL, new ArrayNode(null, details.stream().map(detail -> (JsonNode)TextNode.valueOf(detail.toString())).toList()));
+
+    return error;
+  }
+
+  static ObjectNode error(String message)
+  {
+    ObjectNode error = new ObjectNode(null);
+    error.set(FIELD_MESSAGE, TextNode.valueOf(message));
+
+    return error;
+  }
+}
@@ -0,0 +1,13 @@
+package com.tn.service.data.controller;
+
+import jakarta.validation.ConstraintViolation;
+
+public record IndexedConstraintViolation(int index, ConstraintViolation<?> constraintViolation)
+{
+  @Override
+  public String toString()
+  {
+    String path = constraintViolation.getPropertyPath().toString();
+    return "[" + index + "]" + (path.isEmpty() ? "" : "." + path) + " " + constraintViolation.getMessage();
+  }
+}
@@ -0,0 +1,295 @@
+package com.tn.service.data.controller;
+
+import static java.util.Collections.emptySet;
+
+import static com.tn.lang.Objects.coalesce;
+import static com.tn.service.data.controller.DataController.DEFAULT_PAGE_NUMBER;
+import static com.tn.service.data.controller.DataController.DEFAULT_PAGE_SIZE;
+import static com.tn.service.data.controller.DataController.FIELD_COUNT;
+import static com.tn.service.data.controller.Errors.details;
+import static com.tn.service.data.controller.Errors.error;
+import static com.tn.service.data.domain.Direction.ASCENDING;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import com.tn.query.QueryParseException;
+import com.tn.service.IllegalParameterException;
+import com.tn.service.data.api.ReactiveDataApi;
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.domain.Direction;
+import com.tn.service.data.io.JsonCodec;
+import com.tn.service.data.io.JsonException;
+import com.tn.service.data.parameter.IdentityParser;
+import com.tn.service.data.parameter.ParameterIdentityParser;
+import com.tn.service.data.parameter.QueryBuilder;
+import com.tn.service.data.repository.DeleteException;
+import com.tn.service.data.repository.InsertException;
+import com.tn.service.data.repository.ReactiveDataRepository;
+import com.tn.service.data.repository.RepositoryException;
+import com.tn.service.data.repository.UpdateException;
+
+@Slf4j
+@RestController
+@RequestMapping("${tn.service.data.path.root:}")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnBean({ReactiveDataRepository.class, IdentityParser.class, JsonCodec.class, QueryBuilder.class})
+public class ReactiveDataController<V, ID> implements ReactiveDataApi
+{
+  private final ReactiveDataRepository<V, ID> dataRepository;
+  private final String identityParameterName;
+  private final int maxIdentities;
+  private final IdentityParser<String, ID> identityParser;
+  private final BulkValidator bulkValidator;
+  private final IdentityParser<MultiValueMap<String, String>, Collection<ID>> parameterIdentityParser;
+  private final JsonCodec<V> jsonCodec;
+  private final QueryBuilder queryBuilder;
+
+  @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+  public ReactiveDataController(
+    IdentityParser<String, ID> identityParser,
+    JsonCodec<V> jsonCodec,
+    BulkValidator bulkValidator,
+    QueryBuilder queryBuilder,
+    ReactiveDataRepository<V, ID> dataRepository,
+    @Value("${tn.service.data.identity.param-name:id}") String identityParameterName,
+    @Value("${tn.service.data.identity.max-identities:10000}") int maxIdentities
+  )
+  {
+    this.identityParameterName = identityParameterName;
+    this.maxIdentities = maxIdentities;
+    this.identityParser = identityParser;
+    this.bulkValidator = bulkValidator;
+    this.parameterIdentityParser = new ParameterIdentityParser<>(identityParser, identityParameterName);
+    this.jsonCodec = jsonCodec;
+    this.queryBuilder = queryBuilder;
+    this.dataRepository = dataRepository;
+  }
+
+  @Override
+  public Mono<ResponseEntity<JsonNode>> get(String id, Collection<String> fields)
+  {
+    JsonCodec<V> codec = codec(queryBuilder.fields(coalesce(fields, emptySet())));
+
+    return dataRepository.find(identityParser.parse(id))
+      .map(value -> ok(codec.writeValue(value)))
+      .defaultIfEmpty(ResponseEntity.notFound().build());
+  }
+
+  @Override
+  public Mono<ResponseEntity<Void>> exists(String id)
+  {
+    return dataRepository.exists(identityParser.parse(id))
+      .map(exists -> exists ? ResponseEntity.ok().<Void>build() : ResponseEntity.notFound().<Void>build());
+  }
+
+  @Override
+  public ResponseEntity<?> get(
+    MultiValueMap<String, String> params,
+    Integer pageNumber,
+    Integer pageSize,
+    String after,
+    Collection<String> sort,
+    Direction direction,
+    Collection<String> fields,
+    boolean count
+  )
+  {
+    if (after != null) throw new IllegalParameterException("$after is not supported by reactive reads");
+    if (count) return ResponseEntity.ok(count(params, pageNumber, pageSize, fields));
+
+    JsonCodec<V> codec = codec(queryBuilder.fields(coalesce(fields, emptySet())));
+
+    checkIdentities(params);
+
+    Collection<ID> identities = parameterIdentityParser.parse(params);
+    if (!identities.isEmpty()) return ResponseEntity.ok(dataRepository.findAll(identities).map(codec::writeValue));
+
+    Optional<Criteria> criteria = queryBuilder.criteria(params);
+
+    if (pageNumber != null || pageSize != null)
+    {
+      int number = coalesce(pageNumber, DEFAULT_PAGE_NUMBER);
+      int size = coalesce(pageSize, DEFAULT_PAGE_SIZE);
+
+      return ResponseEntity.ok(
+        (criteria.isPresent()
+          ? dataRepository.findWhere(criteria.get(), number, size, coalesce(sort, emptySet()), coalesce(direction, ASCENDING))
+          : dataRepository.findAll(number, size, coalesce(sort, emptySet()), coalesce(direction, ASCENDING))
+        ).map(codec::writeValue)
+      );
+    }
+
+    // values are written as the encoder requests them, so a slow client slows the read rather than buffering it.
+    Flux<V> values = criteria.isPresent()
+      ? dataRepository.findWhere(criteria.get(), coalesce(sort, emptySet()), coalesce(direction, ASCENDING))
+      : dataRepository.findAll(coalesce(sort, emptySet()), coalesce(direction, ASCENDING));
+
+    return ResponseEntity.ok(values.map(codec::writeValue));
+  }
+
+  private Mono<ObjectNode> count(MultiValueMap<String, String> params, Integer pageNumber, Integer pageSize, Collection<String> fields)
+  {
+    if (pageNumber != null || pageSize != null) throw new IllegalParameterException("$count cannot be used with $pageNumber or $pageSize");
+    if (fields != null) throw new IllegalParameterException("$count cannot be used with $fields");
+    if (params.containsKey(identityParameterName)) throw new IllegalParameterException("$count cannot be used with identity parameters");
+
+    Optional<Criteria> criteria = queryBuilder.criteria(params);
+
+    return (criteria.isPresent() ? dataRepository.countWhere(criteria.get()) : dataRepository.count()).map(
+      total ->
+      {
+        ObjectNode count = new ObjectNode(null);
+        count.set(FIELD_COUNT, LongNode.valueOf(total));
+
+        return count;
+      }
+    );
+  }
+
+  private void checkIdentities(MultiValueMap<String, String> params)
+  {
+    // checked before the identities are parsed, so an oversized request costs nothing more than its parameters.
+    List<String> identities = params.get(identityParameterName);
+    if (identities != null && identities.size() > maxIdentities) throw new IllegalParameterException("Too many identities, the limit is " + maxIdentities);
+  }
+
+  private JsonCodec<V> codec(Set<String> fields)
+  {
+    return fields.isEmpty() ? jsonCodec : jsonCodec.withFields(fields);
+  }
+
+  @Override
+  public Mono<ResponseEntity<JsonNode>> post(Mono<JsonNode> body)
+  {
+    return body.flatMap(json -> write(json, dataRepository::insert, dataRepository::insertAll));
+  }
+
+  @Override
+  public Mono<ResponseEntity<JsonNode>> put(Mono<JsonNode> body)
+  {
+    return body.flatMap(json -> write(json, dataRepository::update, dataRepository::updateAll));
+  }
+
+  private Mono<ResponseEntity<JsonNode>> write(JsonNode json, Function<V, Mono<V>> write, Function<Iterable<V>, Flux<V>> writeAll)
+  {
+    if (json instanceof ArrayNode)
+    {
+      // decoding and validating a bulk body blocks on the validator's pool, so it's kept off the event loop.
+      return Mono.fromCallable(() -> validated((ArrayNode)json))
+        .subscribeOn(Schedulers.boundedElastic())
+        .flatMap(values -> writeAll.apply(values).collectList())
+        .map(written -> ok(jsonCodec.writeValues(written)));
+    }
+
+    V entity = jsonCodec.readValue(json);
+    Collection<ConstraintViolation<V>> constraintViolations = bulkValidator.validate(entity);
+    if (!constraintViolations.isEmpty()) return Mono.just(ResponseEntity.badRequest().<JsonNode>body(error(details(constraintViolations))));
+
+    return write.apply(entity).map(written -> ok(jsonCodec.writeValue(written)));
+  }
+
+  private List<V> validated(ArrayNode json)
+  {
+    List<V> values = new ArrayList<>(jsonCodec.readValues(json));
+    bulkValidator.validateAll(values, 0);
+
+    return values;
+  }
+
+  @Override
+  public Mono<ResponseEntity<JsonNode>> delete(String key)
+  {
+    return dataRepository.delete(identityParser.parse(key))
+      .map(value -> ok(jsonCodec.writeValue(value)))
+      .defaultIfEmpty(ResponseEntity.notFound().build());
+  }
+
+  @Override
+  public Mono<ResponseEntity<JsonNode>> delete(MultiValueMap<String, String> params)
+  {
+    checkIdentities(params);
+
+    Collection<ID> identities = parameterIdentityParser.parse(params);
+    return !identities.isEmpty()
+      ? dataRepository.deleteAll(identities).collectList().map(values -> ok(jsonCodec.writeValues(values)))
+      : Mono.just(ResponseEntity.badRequest().<JsonNode>body(error("Cannot delete all, identity parameters must be specified")));
+  }
+
+  private ResponseEntity<JsonNode> ok(JsonNode body)
+  {
+    return ResponseEntity.ok(body);
+  }
+
+  @ExceptionHandler({InsertException.class, UpdateException.class, DeleteException.class})
+  ResponseEntity<ObjectNode> internalServerError(RepositoryException e)
+  {
+    log.error("Reactive data controller error", e);
+    return ResponseEntity.internalServerError().body(error(e.getMessage()));
+  }
+
+  @ExceptionHandler({ClassCastException.class, JsonException.class})
+  ResponseEntity<ObjectNode> invalidBody(RuntimeException e)
+  {
+    log.error("Reactive data controller error", e);
+    return ResponseEntity.badRequest().body(error("Invalid body"));
+  }
+
+  @ExceptionHandler(ConstraintViolationException.class)
+  ResponseEntity<ObjectNode> invalidBody(ConstraintViolationException e)
+  {
+    log.error("Reactive data controller error", e);
+    return ResponseEntity.badRequest().body(
+      e instanceof BulkConstraintViolationException
+        ? error(((BulkConstraintViolationException)e).getIndexedConstraintViolations())
+        : error(details(e.getConstraintViolations()))
+    );
+  }
+
+  @ExceptionHandler(UnsupportedOperationException.class)
+  ResponseEntity<ObjectNode> notImplemented(UnsupportedOperationException e)
+  {
+    log.error("Reactive data controller error", e);
+    return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(error(e.getMessage()));
+  }
+
+  @ExceptionHandler(RejectedExecutionException.class)
+  ResponseEntity<ObjectNode> serviceUnavailable(RejectedExecutionException e)
+  {
+    log.error("Reactive data controller error", e);
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error(e.getMessage()));
+  }
+
+  @ExceptionHandler({IllegalParameterException.class, QueryParseException.class})
+  ResponseEntity<ObjectNode> badRequest(RuntimeException e)
+  {
+    log.error("Reactive data controller error", e);
+    return ResponseEntity.badRequest().body(error(e.getMessage()));
+  }
+}
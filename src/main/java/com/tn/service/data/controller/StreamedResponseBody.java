@@ -0,0 +1,53 @@
+package com.tn.service.data.controller;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * A response body for a stream that's already open, so that errors opening it, such as a full bulkhead, are reported with the
+ * response status rather than in a truncated body.
+ * <p>
+ * The stream is closed once it's written, or, if the body hasn't started to be written within the abandon timeout, closed unwritten.
+ * A response can be abandoned between the handler returning and the body being written, when the request times out or the client
+ * goes away, and the stream would otherwise hold its connection and bulkhead permit.
+ */
+class StreamedResponseBody<V> implements StreamingResponseBody
+{
+  private final AtomicReference<Stream<V>> values;
+  private final BiConsumer<Stream<V>, OutputStream> write;
+
+  StreamedResponseBody(Stream<V> values, BiConsumer<Stream<V>, OutputStream> write, Duration abandonTimeout)
+  {
+    this.values = new AtomicReference<>(values);
+    this.write = write;
+
+    CompletableFuture.runAsync(this::abandon, CompletableFuture.delayedExecutor(abandonTimeout.toMillis(), MILLISECONDS));
+  }
+
+  @Override
+  public void writeTo(OutputStream outputStream)
+  {
+    // the stream is claimed so only one of writing and abandoning closes it.
+    Stream<V> values = this.values.getAndSet(null);
+    if (values == null) throw new IllegalStateException("Response abandoned before it was written");
+
+    try (values)
+    {
+      write.accept(values, outputStream);
+    }
+  }
+
+  void abandon()
+  {
+    Stream<V> values = this.values.getAndSet(null);
+    if (values != null) values.close();
+  }
+}
@@ -0,0 +1,16 @@
+package com.tn.service.data.domain;
+
+import java.util.List;
+
+public record ChunkProgress(int chunk, int offset, int count, String error, List<String> detail)
+{
+  public static ChunkProgress written(int chunk, int offset, int count)
+  {
+    return new ChunkProgress(chunk, offset, count, null, null);
+  }
+
+  public static ChunkProgress failed(int chunk, int offset, String error, List<String> detail)
+  {
+    return new ChunkProgress(chunk, offset, 0, error, detail);
+  }
+}
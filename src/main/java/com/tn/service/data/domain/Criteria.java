@@ -0,0 +1,18 @@
+package com.tn.service.data.domain;
+
+import com.tn.query.node.Node;
+
+public record Criteria(String query, Node node)
+{
+  @Override
+  public boolean equals(Object other)
+  {
+    return this == other || other instanceof Criteria && query.equals(((Criteria)other).query);
+  }
+
+  @Override
+  public int hashCode()
+  {
+    return query.hashCode();
+  }
+}
@@ -0,0 +1,15 @@
+package com.tn.service.data.domain;
+
+import static java.util.Collections.emptyMap;
+
+import java.util.Map;
+
+public record Cursor(Map<String, Object> values)
+{
+  public static final Cursor START = new Cursor(emptyMap());
+
+  public boolean isStart()
+  {
+    return values.isEmpty();
+  }
+}
@@ -0,0 +1,5 @@
+package com.tn.service.data.domain;
+
+import java.util.Collection;
+
+public record CursorPage<V>(Collection<V> content, String next) {}
@@ -0,0 +1,39 @@
+package com.tn.service.data.io;
+
+import java.util.Locale;
+import java.util.Optional;
+
+public enum DataFormat
+{
+  JSON("application/json"),
+  CBOR("application/cbor"),
+  SMILE("application/x-jackson-smile");
+
+  private final String mediaType;
+
+  DataFormat(String mediaType)
+  {
+    this.mediaType = mediaType;
+  }
+
+  public String mediaType()
+  {
+    return mediaType;
+  }
+
+  public static Optional<DataFormat> forMediaType(String mediaType)
+  {
+    if (mediaType == null) return Optional.empty();
+
+    // parameters such as charset do not change the format.
+    int parameters = mediaType.indexOf(';');
+    String typeAndSubtype = (parameters < 0 ? mediaType : mediaType.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+
+    for (DataFormat dataFormat : values())
+    {
+      if (dataFormat.mediaType.equals(typeAndSubtype)) return Optional.of(dataFormat);
+    }
+
+    return Optional.empty();
+  }
+}
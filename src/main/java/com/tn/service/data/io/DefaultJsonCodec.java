@@ -1,21 +1,73 @@
 package com.tn.service.data.io;
 
+import static com.fasterxml.jackson.databind.SerializationFeature.FLUSH_AFTER_WRITE_VALUE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
 public class DefaultJsonCodec<T> implements JsonCodec<T>
 {
+  private static final char LINE_SEPARATOR = '\n';
+  private static final String PROJECTION_FILTER = "projection";
+
   private final ObjectMapper mapper;
+  private final ObjectMapper projectionMapper;
+  private final ObjectReader reader;
+  private final ObjectWriter writer;
   private final Class<T> type;
+  private final DataFormat dataFormat;
+  private final Set<String> fields;
+  private final Map<DataFormat, DefaultJsonCodec<T>> formats;
 
   public DefaultJsonCodec(ObjectMapper mapper, Class<T> type)
+  {
+    this(mapper, projectionMapper(mapper, type), type, DataFormat.JSON, null, new ConcurrentHashMap<>());
+    this.formats.put(DataFormat.JSON, this);
+  }
+
+  private DefaultJsonCodec(
+    ObjectMapper mapper,
+    ObjectMapper projectionMapper,
+    Class<T> type,
+    DataFormat dataFormat,
+    Set<String> fields,
+    Map<DataFormat, DefaultJsonCodec<T>> formats
+  )
   {
     this.mapper = mapper;
+    this.projectionMapper = projectionMapper;
+    this.reader = mapper.readerFor(type);
+    this.writer = (fields != null ? projectionMapper.writer(projection(fields)) : mapper.writer()).without(FLUSH_AFTER_WRITE_VALUE);
     this.type = type;
+    this.dataFormat = dataFormat;
+    this.fields = fields;
+    this.formats = formats;
   }
 
   @Override
@@ -31,10 +83,46 @@ public class DefaultJsonCodec<T> implements JsonCodec<T>
     }
   }
 
+  @Override
+  public JsonValueReader<T> readValues(InputStream inputStream) throws JsonException
+  {
+    try
+    {
+      return new JsonValueReader<>(mapper.createParser(inputStream), reader);
+    }
+    catch (IOException e)
+    {
+      throw new JsonException("Failed to read json", e);
+    }
+  }
+
+  @Override
+  public JsonValueReader<T> readLines(InputStream inputStream) throws JsonException
+  {
+    try
+    {
+      return new JsonValueReader<>(mapper.createParser(inputStream), reader, true);
+    }
+    catch (IOException e)
+    {
+      throw new JsonException("Failed to read json", e);
+    }
+  }
+
   @Override
   public JsonNode writeValue(Object value)
   {
-    return mapper.valueToTree(value);
+    if (fields == null) return mapper.valueToTree(value);
+
+    try (TokenBuffer buffer = new TokenBuffer(projectionMapper, false))
+    {
+      writer.writeValue(buffer, value);
+      return projectionMapper.readTree(buffer.asParser());
+    }
+    catch (IOException e)
+    {
+      throw new JsonException("Failed to write json", e);
+    }
   }
 
   @Override
@@ -42,4 +130,120 @@ public class DefaultJsonCodec<T> implements JsonCodec<T>
   {
     return mapper.createArrayNode().addAll(values.stream().map(this::writeValue).toList());
   }
+
+  @Override
+  public void writeValues(Stream<?> values, OutputStream outputStream, boolean flush) throws JsonException
+  {
+    try (JsonGenerator generator = mapper.createGenerator(outputStream))
+    {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      generator.writeStartArray();
+
+      for (Iterator<?> iterator = values.iterator(); iterator.hasNext();)
+      {
+        writer.writeValue(generator, iterator.next());
+        if (flush) generator.flush();
+      }
+
+      generator.writeEndArray();
+    }
+    catch (IOException e)
+    {
+      throw new JsonException("Failed to write json", e);
+    }
+  }
+
+  @Override
+  public void writeLines(Stream<?> values, OutputStream outputStream) throws JsonException
+  {
+    try (JsonGenerator generator = mapper.createGenerator(outputStream))
+    {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      // every value is terminated by a new line instead of being separated by the default space.
+      generator.setRootValueSeparator(null);
+
+      for (Iterator<?> iterator = values.iterator(); iterator.hasNext();)
+      {
+        writer.writeValue(generator, iterator.next());
+        generator.writeRaw(LINE_SEPARATOR);
+      }
+    }
+    catch (IOException e)
+    {
+      throw new JsonException("Failed to write json", e);
+    }
+  }
+
+  @Override
+  public JsonCodec<T> withFormat(DataFormat dataFormat)
+  {
+    if (dataFormat == this.dataFormat) return this;
+
+    // the copies keep the mappers' modules and configuration, only the encoding changes.
+    DefaultJsonCodec<T> codec = formats.computeIfAbsent(
+      dataFormat,
+      format -> new DefaultJsonCodec<>(
+        mapper.copyWith(factory(format)),
+        projectionMapper.copyWith(factory(format)),
+        type,
+        format,
+        null,
+        formats
+      )
+    );
+
+    return fields != null ? codec.withFields(fields) : codec;
+  }
+
+  @Override
+  public JsonCodec<T> withFields(Collection<String> fields)
+  {
+    return new DefaultJsonCodec<>(mapper, projectionMapper, type, dataFormat, Set.copyOf(fields), formats);
+  }
+
+  private static ObjectMapper projectionMapper(ObjectMapper mapper, Class<?> type)
+  {
+    ObjectMapper projectionMapper = mapper.copy();
+    projectionMapper.setAnnotationIntrospector(
+      AnnotationIntrospector.pair(new ProjectionIntrospector(type), mapper.getSerializationConfig().getAnnotationIntrospector())
+    );
+
+    return projectionMapper;
+  }
+
+  private static FilterProvider projection(Set<String> fields)
+  {
+    return new SimpleFilterProvider()
+      .addFilter(PROJECTION_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields))
+      .setFailOnUnknownId(false);
+  }
+
+  private static JsonFactory factory(DataFormat dataFormat)
+  {
+    return switch (dataFormat)
+    {
+      case CBOR -> new CBORFactory();
+      case SMILE -> new SmileFactory();
+      case JSON -> new JsonFactory();
+    };
+  }
+
+  /**
+   * Applies the projection filter to values of the codec's type only, nested and other objects are written in full.
+   */
+  private static class ProjectionIntrospector extends NopAnnotationIntrospector
+  {
+    private final Class<?> type;
+
+    private ProjectionIntrospector(Class<?> type)
+    {
+      this.type = type;
+    }
+
+    @Override
+    public Object findFilterId(Annotated annotated)
+    {
+      return annotated instanceof AnnotatedClass && annotated.getRawType() == type ? PROJECTION_FILTER : null;
+    }
+  }
 }
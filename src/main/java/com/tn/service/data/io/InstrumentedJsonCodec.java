@@ -0,0 +1,239 @@
+package com.tn.service.data.io;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Records the size of the payloads read and written as streams, tagged by direction and format.  Trees are serialized by the web
+ * framework rather than the codec, so their size isn't recorded.
+ */
+public class InstrumentedJsonCodec<T> implements JsonCodec<T>
+{
+  public static final String METER_BYTES = "tn.service.data.codec.bytes";
+  public static final String TAG_DIRECTION = "direction";
+  public static final String TAG_FORMAT = "format";
+  private static final String DIRECTION_READ = "read";
+  private static final String DIRECTION_WRITE = "write";
+  private static final String FORMAT_LINES = "ndjson";
+  private static final String UNIT_BYTES = "bytes";
+
+  private final JsonCodec<T> delegate;
+  private final DataFormat dataFormat;
+  private final Map<DataFormat, DistributionSummary> readBytes;
+  private final Map<DataFormat, DistributionSummary> writeBytes;
+  private final DistributionSummary readLineBytes;
+  private final DistributionSummary writeLineBytes;
+
+  public InstrumentedJsonCodec(JsonCodec<T> delegate, MeterRegistry registry)
+  {
+    this(
+      delegate,
+      DataFormat.JSON,
+      summaries(registry, DIRECTION_READ),
+      summaries(registry, DIRECTION_WRITE),
+      summary(registry, DIRECTION_READ, FORMAT_LINES),
+      summary(registry, DIRECTION_WRITE, FORMAT_LINES)
+    );
+  }
+
+  private InstrumentedJsonCodec(
+    JsonCodec<T> delegate,
+    DataFormat dataFormat,
+    Map<DataFormat, DistributionSummary> readBytes,
+    Map<DataFormat, DistributionSummary> writeBytes,
+    DistributionSummary readLineBytes,
+    DistributionSummary writeLineBytes
+  )
+  {
+    this.delegate = delegate;
+    this.dataFormat = dataFormat;
+    this.readBytes = readBytes;
+    this.writeBytes = writeBytes;
+    this.readLineBytes = readLineBytes;
+    this.writeLineBytes = writeLineBytes;
+  }
+
+  @Override
+  public T readValue(JsonNode jsonNode) throws JsonException
+  {
+    return delegate.readValue(jsonNode);
+  }
+
+  @Override
+  public Collection<T> readValues(ArrayNode arrayNode) throws JsonException
+  {
+    return delegate.readValues(arrayNode);
+  }
+
+  @Override
+  public JsonValueReader<T> readValues(InputStream inputStream) throws JsonException
+  {
+    return delegate.readValues(new CountingInputStream(inputStream, readBytes.get(dataFormat)));
+  }
+
+  @Override
+  public JsonValueReader<T> readLines(InputStream inputStream) throws JsonException
+  {
+    return delegate.readLines(new CountingInputStream(inputStream, readLineBytes));
+  }
+
+  @Override
+  public JsonNode writeValue(Object value)
+  {
+    return delegate.writeValue(value);
+  }
+
+  @Override
+  public ArrayNode writeValues(Collection<?> values)
+  {
+    return delegate.writeValues(values);
+  }
+
+  @Override
+  public void writeValues(Stream<?> values, OutputStream outputStream, boolean flush) throws JsonException
+  {
+    CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+    try
+    {
+      delegate.writeValues(values, countingOutputStream, flush);
+    }
+    finally
+    {
+      writeBytes.get(dataFormat).record(countingOutputStream.count);
+    }
+  }
+
+  @Override
+  public void writeLines(Stream<?> values, OutputStream outputStream) throws JsonException
+  {
+    CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+    try
+    {
+      delegate.writeLines(values, countingOutputStream);
+    }
+    finally
+    {
+      writeLineBytes.record(countingOutputStream.count);
+    }
+  }
+
+  @Override
+  public JsonCodec<T> withFormat(DataFormat dataFormat) throws UnsupportedOperationException
+  {
+    if (dataFormat == this.dataFormat) return this;
+
+    return new InstrumentedJsonCodec<>(delegate.withFormat(dataFormat), dataFormat, readBytes, writeBytes, readLineBytes, writeLineBytes);
+  }
+
+  @Override
+  public JsonCodec<T> withFields(Collection<String> fields) throws UnsupportedOperationException
+  {
+    return new InstrumentedJsonCodec<>(delegate.withFields(fields), dataFormat, readBytes, writeBytes, readLineBytes, writeLineBytes);
+  }
+
+  private static Map<DataFormat, DistributionSummary> summaries(MeterRegistry registry, String direction)
+  {
+    Map<DataFormat, DistributionSummary> summaries = new EnumMap<>(DataFormat.class);
+    for (DataFormat dataFormat : DataFormat.values())
+    {
+      summaries.put(dataFormat, summary(registry, direction, dataFormat.name().toLowerCase(Locale.ROOT)));
+    }
+
+    return summaries;
+  }
+
+  private static DistributionSummary summary(MeterRegistry registry, String direction, String format)
+  {
+    return DistributionSummary.builder(METER_BYTES).baseUnit(UNIT_BYTES).tag(TAG_DIRECTION, direction).tag(TAG_FORMAT, format).register(registry);
+  }
+
+  private static class CountingInputStream extends FilterInputStream
+  {
+    private final DistributionSummary summary;
+    private long count;
+    private boolean closed;
+
+    CountingInputStream(InputStream inputStream, DistributionSummary summary)
+    {
+      super(inputStream);
+      this.summary = summary;
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+      int read = super.read();
+      if (read >= 0) count++;
+
+      return read;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException
+    {
+      int read = super.read(bytes, offset, length);
+      if (read > 0) count += read;
+
+      return read;
+    }
+
+    @Override
+    public long skip(long length) throws IOException
+    {
+      long skipped = super.skip(length);
+      count += skipped;
+
+      return skipped;
+    }
+
+    // the parser closes its source when the reader is closed, which is when the whole payload has been read.
+    @Override
+    public void close() throws IOException
+    {
+      if (!closed)
+      {
+        closed = true;
+        summary.record(count);
+      }
+
+      super.close();
+    }
+  }
+
+  private static class CountingOutputStream extends FilterOutputStream
+  {
+    private long count;
+
+    CountingOutputStream(OutputStream outputStream)
+    {
+      super(outputStream);
+    }
+
+    @Override
+    public void write(int b) throws IOException
+    {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException
+    {
+      out.write(bytes, offset, length);
+      count += length;
+    }
+  }
+}
@@ -1,6 +1,9 @@
 package com.tn.service.data.io;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Collection;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -15,7 +18,38 @@ public interface JsonCodec<T>
     return StreamSupport.stream(arrayNode.spliterator(), false).map(this::readValue).toList();
   }
 
+  JsonValueReader<T> readValues(InputStream inputStream) throws JsonException;
+
+  JsonValueReader<T> readLines(InputStream inputStream) throws JsonException;
+
   JsonNode writeValue(Object value);
 
   ArrayNode writeValues(Collection<?> values);
+
+  default void writeValues(Stream<?> values, OutputStream outputStream) throws JsonException
+  {
+    writeValues(values, outputStream, false);
+  }
+
+  void writeValues(Stream<?> values, OutputStream outputStream, boolean flush) throws JsonException;
+
+  void writeLines(Stream<?> values, OutputStream outputStream) throws JsonException;
+
+  /**
+   * Returns a codec that reads and writes streams in <code>dataFormat</code>, trees are the same whatever the format.
+   */
+  default JsonCodec<T> withFormat(DataFormat dataFormat) throws UnsupportedOperationException
+  {
+    if (dataFormat == DataFormat.JSON) return this;
+
+    throw new UnsupportedOperationException("Unsupported format: " + dataFormat.mediaType());
+  }
+
+  /**
+   * Returns a codec that only writes the <code>fields</code> of the values it is given, other objects are written in full.
+   */
+  default JsonCodec<T> withFields(Collection<String> fields) throws UnsupportedOperationException
+  {
+    throw new UnsupportedOperationException("Field projection is not supported");
+  }
 }
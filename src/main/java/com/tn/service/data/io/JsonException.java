@@ -2,6 +2,11 @@ package com.tn.service.data.io;
 
 public class JsonException extends RuntimeException
 {
+  public JsonException(String message)
+  {
+    super(message);
+  }
+
   public JsonException(String message, Throwable cause)
   {
     super(message, cause);
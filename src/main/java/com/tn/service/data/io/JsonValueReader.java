@@ -0,0 +1,112 @@
+package com.tn.service.data.io;
+
+import static com.fasterxml.jackson.core.JsonToken.END_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+public class JsonValueReader<T> implements Iterator<T>, AutoCloseable
+{
+  private final JsonParser parser;
+  private final ObjectReader reader;
+  private final boolean array;
+  private JsonToken next;
+
+  public JsonValueReader(JsonParser parser, ObjectReader reader) throws JsonException
+  {
+    this(parser, reader, false);
+  }
+
+  /**
+   * When <code>lines</code> is set the input is read as a sequence of root level objects, as in newline delimited json,
+   * and is always treated as a collection.
+   */
+  public JsonValueReader(JsonParser parser, ObjectReader reader, boolean lines) throws JsonException
+  {
+    this.parser = parser;
+    this.reader = reader;
+
+    JsonToken first = nextToken();
+    if (lines && (first == null || first == START_OBJECT))
+    {
+      this.array = true;
+      this.next = first;
+    }
+    else if (!lines && first == START_ARRAY)
+    {
+      this.array = true;
+      this.next = nextToken();
+    }
+    else if (first == START_OBJECT)
+    {
+      this.array = false;
+      this.next = first;
+    }
+    else
+    {
+      close();
+      throw new JsonException(lines ? "Expected json objects" : "Expected json object or array");
+    }
+  }
+
+  public boolean isArray()
+  {
+    return array;
+  }
+
+  @Override
+  public boolean hasNext()
+  {
+    return next != null && next != END_ARRAY;
+  }
+
+  @Override
+  public T next() throws JsonException
+  {
+    if (!hasNext()) throw new NoSuchElementException();
+
+    try
+    {
+      T value = reader.readValue(parser);
+      next = array ? nextToken() : null;
+
+      return value;
+    }
+    catch (IOException e)
+    {
+      throw new JsonException("Failed to read json", e);
+    }
+  }
+
+  @Override
+  public void close() throws JsonException
+  {
+    try
+    {
+      parser.close();
+    }
+    catch (IOException e)
+    {
+      throw new JsonException("Failed to close json", e);
+    }
+  }
+
+  private JsonToken nextToken() throws JsonException
+  {
+    try
+    {
+      return parser.nextToken();
+    }
+    catch (IOException e)
+    {
+      throw new JsonException("Failed to read json", e);
+    }
+  }
+}
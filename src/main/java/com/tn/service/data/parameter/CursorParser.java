@@ -0,0 +1,56 @@
+package com.tn.service.data.parameter;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import com.tn.service.IllegalParameterException;
+import com.tn.service.data.domain.Cursor;
+
+public class CursorParser
+{
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final TypeReference<LinkedHashMap<String, Object>> TYPE_REFERENCE_VALUES = new TypeReference<>() {};
+
+  public Cursor parse(String raw, Collection<String> keys) throws IllegalParameterException
+  {
+    if (raw == null || raw.isBlank()) return Cursor.START;
+
+    LinkedHashMap<String, Object> values;
+    try
+    {
+      values = OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(raw), TYPE_REFERENCE_VALUES);
+    }
+    catch (IllegalArgumentException | IOException e)
+    {
+      throw new IllegalParameterException("Invalid cursor: " + raw, e);
+    }
+
+    if (!new ArrayList<>(values.keySet()).equals(new ArrayList<>(keys)))
+    {
+      throw new IllegalParameterException("Cursor does not match sort: " + raw);
+    }
+
+    return new Cursor(values);
+  }
+
+  public String format(JsonNode value, Collection<String> keys)
+  {
+    ObjectNode cursor = OBJECT_MAPPER.createObjectNode();
+    for (String key : keys)
+    {
+      cursor.set(key, value.get(key));
+    }
+
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.toString().getBytes(UTF_8));
+  }
+}
@@ -6,6 +6,11 @@ public class IntegerIdentityParser implements IdentityParser<String, Integer>
 {
   @Override
   public Integer parse(String s) throws IllegalParameterException
+  {
+    return parseInt(s);
+  }
+
+  public int parseInt(String s) throws IllegalParameterException
   {
     try
     {
@@ -6,6 +6,11 @@ public class LongIdentityParser implements IdentityParser<String, Long>
 {
   @Override
   public Long parse(String s) throws IllegalParameterException
+  {
+    return parseLong(s);
+  }
+
+  public long parseLong(String s) throws IllegalParameterException
   {
     try
     {
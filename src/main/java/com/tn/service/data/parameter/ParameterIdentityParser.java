@@ -1,9 +1,13 @@
 package com.tn.service.data.parameter;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
-import static java.util.stream.Collectors.toSet;
+import static java.util.stream.Collectors.toCollection;
+
+import static com.tn.service.data.parameter.Parameters.FIELDS_PARAM;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import org.springframework.util.MultiValueMap;
@@ -24,17 +28,21 @@ public class ParameterIdentityParser<T> implements IdentityParser<MultiValueMap<
   @Override
   public Collection<T> parse(MultiValueMap<String, String> params) throws IllegalParameterException
   {
-    checkParams(params);
-    List<String> identityParams = params.get(paramName);
+    List<String> identityParams = identityParams(params, paramName);
 
-    return identityParams == null ? emptySet() : identityParams.stream().map(identityParser::parse).collect(toSet());
+    return identityParams.isEmpty() ? emptySet() : identityParams.stream().map(identityParser::parse).collect(toCollection(LinkedHashSet::new));
   }
 
-  private void checkParams(MultiValueMap<String, String> params)
+  static List<String> identityParams(MultiValueMap<String, String> params, String paramName) throws IllegalParameterException
   {
-    if (params.containsKey(paramName) && params.size() > 1)
+    // a projection only changes how the identified values are written, so it's the one parameter allowed alongside them.
+    if (params.containsKey(paramName) && params.size() > (params.containsKey(FIELDS_PARAM) ? 2 : 1))
     {
       throw new IllegalParameterException("Identity parameters can only be used in isolation from other parameters");
     }
+
+    List<String> identityParams = params.get(paramName);
+
+    return identityParams == null ? emptyList() : identityParams;
   }
 }
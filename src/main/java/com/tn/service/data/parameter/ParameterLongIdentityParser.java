@@ -0,0 +1,51 @@
+package com.tn.service.data.parameter;
+
+import static com.tn.service.data.parameter.ParameterIdentityParser.identityParams;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.util.MultiValueMap;
+
+import com.tn.service.IllegalParameterException;
+
+public class ParameterLongIdentityParser implements IdentityParser<MultiValueMap<String, String>, long[]>
+{
+  private final LongIdentityParser identityParser;
+  private final String paramName;
+
+  public ParameterLongIdentityParser(LongIdentityParser identityParser, String paramName)
+  {
+    this.identityParser = identityParser;
+    this.paramName = paramName;
+  }
+
+  @Override
+  public long[] parse(MultiValueMap<String, String> params) throws IllegalParameterException
+  {
+    List<String> identityParams = identityParams(params, paramName);
+
+    long[] identities = new long[identityParams.size()];
+    for (int i = 0; i < identities.length; i++)
+    {
+      identities[i] = identityParser.parseLong(identityParams.get(i));
+    }
+
+    return distinct(identities);
+  }
+
+  private static long[] distinct(long[] identities)
+  {
+    if (identities.length < 2) return identities;
+
+    Arrays.sort(identities);
+
+    int count = 1;
+    for (int i = 1; i < identities.length; i++)
+    {
+      if (identities[i] != identities[count - 1]) identities[count++] = identities[i];
+    }
+
+    return count == identities.length ? identities : Arrays.copyOf(identities, count);
+  }
+}
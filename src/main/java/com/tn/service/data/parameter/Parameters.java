@@ -5,7 +5,8 @@ import java.util.Set;
 
 public class Parameters
 {
-  public static final Collection<String> RESERVED_PARAMS = Set.of("$pageNumber", "$pageSize", "$sort", "$direction");
+  public static final String FIELDS_PARAM = "$fields";
+  public static final Collection<String> RESERVED_PARAMS = Set.of("$pageNumber", "$pageSize", "$after", "$sort", "$direction", FIELDS_PARAM, "$count");
   public static final Collection<String> SORT_PARAMS = Set.of("$sort", "$direction");
 
   private Parameters() {}
@@ -1,6 +1,5 @@
 package com.tn.service.data.parameter;
 
-import static java.lang.String.format;
 import static java.util.Collections.emptySet;
 import static java.util.function.Predicate.not;
 import static java.util.stream.Collectors.joining;
@@ -14,77 +13,198 @@ import static com.tn.query.Query.parse;
 import static com.tn.service.data.parameter.Parameters.isNotReserved;
 
 import java.lang.reflect.Field;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.springframework.util.MultiValueMap;
 
-import com.tn.query.node.And;
 import com.tn.query.node.Node;
-import com.tn.query.node.Or;
 import com.tn.service.IllegalParameterException;
+import com.tn.service.data.domain.Criteria;
 
 public class QueryBuilder
 {
+  public static final long DEFAULT_CACHE_SIZE = 1000;
+
   private static final String PARAM_QUERY = "q";
-  private static final String TEMPLATE_EQUAL = "%s=%s";
-  private static final String TEMPLATE_PARENTHESIS = "(%s)";
+  private static final String EQUAL = "=";
 
   private final Collection<String> fieldNames;
+  private final QueryLimits limits;
+  private final Cache<Map<String, List<String>>, Optional<Criteria>> cache;
 
   public QueryBuilder(Class<?> subject, String... excludedFields)
   {
-    this(fieldNames(subject, Set.of(excludedFields)));
+    this(subject, QueryLimits.DEFAULT, excludedFields);
+  }
+
+  public QueryBuilder(Class<?> subject, QueryLimits limits, String... excludedFields)
+  {
+    this(fieldNames(subject, Set.of(excludedFields)), DEFAULT_CACHE_SIZE, limits);
   }
 
   public QueryBuilder(Collection<String> fieldNames)
+  {
+    this(fieldNames, DEFAULT_CACHE_SIZE);
+  }
+
+  public QueryBuilder(Collection<String> fieldNames, long cacheSize)
+  {
+    this(fieldNames, cacheSize, QueryLimits.DEFAULT);
+  }
+
+  public QueryBuilder(Collection<String> fieldNames, long cacheSize, QueryLimits limits)
   {
     this.fieldNames = fieldNames;
+    this.limits = limits;
+    this.cache = Caffeine.newBuilder().maximumSize(cacheSize).recordStats().build();
   }
 
   public String build(MultiValueMap<String, String> params) throws IllegalParameterException
   {
-    checkParams(params);
+    return criteria(params).map(Criteria::query).orElse("");
+  }
+
+  public Optional<Criteria> criteria(MultiValueMap<String, String> params) throws IllegalParameterException
+  {
+    return cache.get(queryParams(params), this::buildCriteria);
+  }
+
+  public Set<String> fields(Collection<String> fields) throws IllegalParameterException
+  {
+    Set<String> checkedFields = new LinkedHashSet<>();
+    for (String field : fields)
+    {
+      String fieldName = field.trim();
+      if (!fieldNames.contains(fieldName)) throw new IllegalParameterException("Unknown field: " + fieldName);
+
+      checkedFields.add(fieldName);
+    }
 
-    return params.entrySet().stream()
-      .filter(param -> isNotReserved(param.getKey()))
+    return checkedFields;
+  }
+
+  public CacheStats cacheStats()
+  {
+    return cache.stats();
+  }
+
+  private Optional<Criteria> buildCriteria(Map<String, List<String>> queryParams) throws IllegalParameterException
+  {
+    checkParams(queryParams);
+
+    String query = queryParams.entrySet().stream()
       .map(this::or)
+      .filter(not(String::isEmpty))
       .collect(Collectors.joining(AND));
+
+    if (query.isEmpty()) return Optional.empty();
+
+    checkLength(query);
+
+    // the whole query is checked, so fields and limits hold however the parameters were combined.
+    Node node = parse(query);
+    checkQuery(node);
+
+    return Optional.of(new Criteria(query, node));
+  }
+
+  /**
+   * Returns the query params in canonical form, the fields sorted and each field's values trimmed, de-duplicated and sorted, so
+   * logically identical requests share a cache entry and build the same query.
+   */
+  private Map<String, List<String>> queryParams(MultiValueMap<String, String> params) throws IllegalParameterException
+  {
+    Map<String, List<String>> queryParams = new TreeMap<>();
+    for (Map.Entry<String, List<String>> param : params.entrySet())
+    {
+      if (isNotReserved(param.getKey())) queryParams.put(param.getKey(), values(param.getKey(), param.getValue()));
+    }
+
+    return queryParams;
+  }
+
+  private List<String> values(String name, List<String> values) throws IllegalParameterException
+  {
+    if (values.size() > limits.maxValuesPerField()) throw new IllegalParameterException("Too many values for " + name + ", the limit is " + limits.maxValuesPerField());
+
+    return values.stream()
+      .filter(Objects::nonNull)
+      .map(String::trim)
+      .filter(not(String::isEmpty))
+      .distinct()
+      .sorted()
+      .toList();
   }
 
-  private void checkParams(MultiValueMap<String, String> params) throws IllegalParameterException
+  private void checkParams(Map<String, List<String>> queryParams) throws IllegalParameterException
   {
-    for (String paramName : params.keySet())
+    for (String paramName : queryParams.keySet())
     {
-      if (!PARAM_QUERY.equals(paramName) && isNotReserved(paramName) && !fieldNames.contains(paramName))
+      if (!PARAM_QUERY.equals(paramName) && !fieldNames.contains(paramName))
       {
         throw new IllegalParameterException("Unknown param: " + paramName);
       }
     }
   }
 
-  private void checkQuery(Node query) throws IllegalParameterException
+  private void checkLength(String query) throws IllegalParameterException
   {
-    Object left = query.getLeft();
+    if (query.length() > limits.maxLength()) throw new IllegalParameterException("Query too long, the limit is " + limits.maxLength() + " characters");
+  }
 
-    if (left instanceof String)
+  private void checkQuery(Node query) throws IllegalParameterException
+  {
+    // the tree is walked with an explicit stack, so a deeply nested query is rejected rather than overflowing the thread's stack.
+    Deque<Node> pending = new ArrayDeque<>();
+    Deque<Integer> depths = new ArrayDeque<>();
+    pending.push(query);
+    depths.push(1);
+
+    int nodes = 0;
+    while (!pending.isEmpty())
     {
-      if (!fieldNames.contains(left))
+      Node node = pending.pop();
+      int depth = depths.pop();
+
+      if (++nodes > limits.maxNodes()) throw new IllegalParameterException("Query too large, the limit is " + limits.maxNodes() + " terms");
+      if (depth > limits.maxDepth()) throw new IllegalParameterException("Query too deep, the limit is " + limits.maxDepth() + " levels");
+
+      Object left = node.getLeft();
+
+      if (left instanceof String)
       {
-        throw new IllegalParameterException("Unknown param: " + left);
+        if (!fieldNames.contains(left))
+        {
+          throw new IllegalParameterException("Unknown param: " + left);
+        }
+      }
+      else if (left instanceof Node)
+      {
+        if (node.getRight() instanceof Node)
+        {
+          pending.push((Node)node.getRight());
+          depths.push(depth + 1);
+        }
+
+        pending.push((Node)left);
+        depths.push(depth + 1);
       }
-    }
-    else if (left instanceof Node)
-    {
-      checkQuery((Node)left);
-      if (query.getRight() instanceof Node) checkQuery((Node)query.getRight());
     }
   }
 
@@ -95,26 +215,22 @@ public class QueryBuilder
 
     Collector<CharSequence, ?, String> collector = values.size() == 1  ? joining(OR) : joining(OR, PARENTHESIS_OPEN, PARENTHESIS_CLOSE);
 
-    return values.stream()
-      .filter(Objects::nonNull)
-      .map(String::trim)
-      .filter(not(String::isEmpty))
-      .map(value -> query(name, value))
-      .collect(collector);
+    return values.stream().map(value -> query(name, value)).collect(collector);
   }
 
   private String query(String name, String value) throws IllegalParameterException
   {
     if (PARAM_QUERY.equals(name))
     {
-      Node query = parse(value);
-      checkQuery(query);
+      checkLength(value);
 
-      return query instanceof And || query instanceof Or ? format(TEMPLATE_PARENTHESIS, value) : value;
+      // the value is only parsed as part of the whole query, extra parentheses around a single term are harmless so any value that may
+      // combine terms is wrapped.
+      return value.contains(AND) || value.contains(OR) ? PARENTHESIS_OPEN + value + PARENTHESIS_CLOSE : value;
     }
     else
     {
-      return format(TEMPLATE_EQUAL, name, value);
+      return name + EQUAL + value;
     }
   }
 
@@ -0,0 +1,17 @@
+package com.tn.service.data.parameter;
+
+/**
+ * Bounds the queries a {@link QueryBuilder} will build, so a single request can't produce a predicate the repository can't handle.
+ */
+public record QueryLimits(int maxLength, int maxValuesPerField, int maxNodes, int maxDepth)
+{
+  public static final QueryLimits DEFAULT = new QueryLimits(8192, 100, 1000, 128);
+
+  public QueryLimits
+  {
+    if (maxLength < 1) throw new IllegalArgumentException("Invalid max length: " + maxLength);
+    if (maxValuesPerField < 1) throw new IllegalArgumentException("Invalid max values per field: " + maxValuesPerField);
+    if (maxNodes < 1) throw new IllegalArgumentException("Invalid max nodes: " + maxNodes);
+    if (maxDepth < 1) throw new IllegalArgumentException("Invalid max depth: " + maxDepth);
+  }
+}
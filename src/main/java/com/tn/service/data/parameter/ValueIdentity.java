@@ -0,0 +1,11 @@
+package com.tn.service.data.parameter;
+
+/**
+ * Returns the identity of a value.  Applications that define one let the caching and batching repositories find identities without
+ * serializing each value.
+ */
+@FunctionalInterface
+public interface ValueIdentity<V, ID>
+{
+  ID identity(V value);
+}
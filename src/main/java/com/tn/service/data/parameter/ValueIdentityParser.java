@@ -0,0 +1,36 @@
+package com.tn.service.data.parameter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import com.tn.service.IllegalParameterException;
+import com.tn.service.data.io.JsonCodec;
+
+/**
+ * Finds the identity of a value by serializing it and reading its identity field, used when the application doesn't define a
+ * {@link ValueIdentity}.
+ */
+public class ValueIdentityParser<V, ID> implements IdentityParser<V, ID>
+{
+  private final JsonCodec<V> jsonCodec;
+  private final IdentityParser<String, ID> identityParser;
+  private final String identityFieldName;
+
+  public ValueIdentityParser(JsonCodec<V> jsonCodec, IdentityParser<String, ID> identityParser, String identityFieldName)
+  {
+    this.jsonCodec = jsonCodec;
+    this.identityParser = identityParser;
+    this.identityFieldName = identityFieldName;
+  }
+
+  @Override
+  public ID parse(V value) throws IllegalParameterException
+  {
+    JsonNode identity = jsonCodec.writeValue(value).get(identityFieldName);
+    if (identity == null || identity.isNull())
+    {
+      throw new IllegalStateException("Missing identity field: " + identityFieldName + ", set tn.service.data.identity.field-name or define a ValueIdentity");
+    }
+
+    return identityParser.parse(identity.asText());
+  }
+}
@@ -0,0 +1,46 @@
+package com.tn.service.data.repository;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.tn.service.data.domain.Criteria;
+
+/**
+ * An asynchronous {@link DataRepository} for calls that return a bounded result, failures complete the future exceptionally with the same
+ * exceptions rather than being thrown.
+ */
+public interface AsyncDataRepository<V, ID>
+{
+  CompletableFuture<Optional<V>> find(ID identifier);
+
+  default CompletableFuture<Boolean> exists(ID identifier)
+  {
+    return find(identifier).thenApply(Optional::isPresent);
+  }
+
+  /**
+   * Returns the values for <code>identifiers</code>, implementations may read them in parallel, e.g. one call per partition.
+   */
+  CompletableFuture<Collection<V>> findAll(Iterable<ID> identifiers);
+
+  CompletableFuture<Collection<V>> findAll(long[] identifiers);
+
+  CompletableFuture<Collection<V>> findAll(int[] identifiers);
+
+  CompletableFuture<Long> count();
+
+  CompletableFuture<Long> countWhere(Criteria query);
+
+  CompletableFuture<V> insert(V value);
+
+  CompletableFuture<Collection<V>> insertAll(Iterable<V> values);
+
+  CompletableFuture<V> update(V value);
+
+  CompletableFuture<Collection<V>> updateAll(Iterable<V> values);
+
+  CompletableFuture<Optional<V>> delete(ID identifier);
+
+  CompletableFuture<Collection<V>> deleteAll(Iterable<ID> identifiers);
+}
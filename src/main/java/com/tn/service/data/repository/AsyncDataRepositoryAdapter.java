@@ -0,0 +1,249 @@
+package com.tn.service.data.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.tn.service.data.domain.Criteria;
+
+/**
+ * Exposes a blocking {@link DataRepository} as an {@link AsyncDataRepository} by running its calls on <code>executor</code>.  Finds and
+ * deletes of more than <code>chunkSize</code> identifiers are split into chunks which run concurrently on <code>chunkExecutor</code> and
+ * are joined in the order the identifiers were given, which for the numeric identity parsers is sorted rather than as requested.
+ */
+public class AsyncDataRepositoryAdapter<V, ID> implements AsyncDataRepository<V, ID>, AutoCloseable
+{
+  private static final int QUEUE_SIZE_PER_THREAD = 4;
+
+  private final DataRepository<V, ID> delegate;
+  private final Executor executor;
+  private final Executor chunkExecutor;
+  private final int chunkSize;
+  private final ExecutorService ownedExecutor;
+
+  public AsyncDataRepositoryAdapter(DataRepository<V, ID> delegate, Executor executor, Executor chunkExecutor, int chunkSize)
+  {
+    this(delegate, executor, chunkExecutor, chunkSize, null);
+  }
+
+  /**
+   * Runs chunks on a pool of <code>chunkThreads</code>, when the pool is busy the calling thread runs its own chunk rather than queuing
+   * without bound.
+   */
+  public AsyncDataRepositoryAdapter(DataRepository<V, ID> delegate, Executor executor, int chunkSize, int chunkThreads)
+  {
+    this(delegate, executor, null, chunkSize, boundedExecutor(chunkThreads));
+  }
+
+  private AsyncDataRepositoryAdapter(DataRepository<V, ID> delegate, Executor executor, Executor chunkExecutor, int chunkSize, ExecutorService ownedExecutor)
+  {
+    if (chunkSize < 1) throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+
+    this.delegate = delegate;
+    this.executor = executor;
+    this.chunkExecutor = ownedExecutor != null ? ownedExecutor : chunkExecutor;
+    this.chunkSize = chunkSize;
+    this.ownedExecutor = ownedExecutor;
+  }
+
+  @Override
+  public CompletableFuture<Optional<V>> find(ID identifier)
+  {
+    return call(() -> delegate.find(identifier));
+  }
+
+  @Override
+  public CompletableFuture<Boolean> exists(ID identifier)
+  {
+    return call(() -> delegate.exists(identifier));
+  }
+
+  @Override
+  public CompletableFuture<Collection<V>> findAll(Iterable<ID> identifiers)
+  {
+    return chunked(identifiers, delegate::findAll);
+  }
+
+  @Override
+  public CompletableFuture<Collection<V>> findAll(long[] identifiers)
+  {
+    if (identifiers.length <= chunkSize) return call(() -> delegate.findAll(identifiers));
+
+    return fanOut(
+      () ->
+      {
+        List<CompletableFuture<Collection<V>>> chunks = new ArrayList<>();
+        for (int from = 0; from < identifiers.length; from += chunkSize)
+        {
+          long[] chunk = Arrays.copyOfRange(identifiers, from, Math.min(from + chunkSize, identifiers.length));
+          chunks.add(CompletableFuture.supplyAsync(() -> delegate.findAll(chunk), chunkExecutor));
+        }
+
+        return chunks;
+      }
+    );
+  }
+
+  @Override
+  public CompletableFuture<Collection<V>> findAll(int[] identifiers)
+  {
+    if (identifiers.length <= chunkSize) return call(() -> delegate.findAll(identifiers));
+
+    return fanOut(
+      () ->
+      {
+        List<CompletableFuture<Collection<V>>> chunks = new ArrayList<>();
+        for (int from = 0; from < identifiers.length; from += chunkSize)
+        {
+          int[] chunk = Arrays.copyOfRange(identifiers, from, Math.min(from + chunkSize, identifiers.length));
+          chunks.add(CompletableFuture.supplyAsync(() -> delegate.findAll(chunk), chunkExecutor));
+        }
+
+        return chunks;
+      }
+    );
+  }
+
+  @Override
+  public CompletableFuture<Long> count()
+  {
+    return call(delegate::count);
+  }
+
+  @Override
+  public CompletableFuture<Long> countWhere(Criteria query)
+  {
+    return call(() -> delegate.countWhere(query));
+  }
+
+  @Override
+  public CompletableFuture<V> insert(V value)
+  {
+    return call(() -> delegate.insert(value));
+  }
+
+  @Override
+  public CompletableFuture<Collection<V>> insertAll(Iterable<V> values)
+  {
+    return call(() -> delegate.insertAll(values));
+  }
+
+  @Override
+  public CompletableFuture<V> update(V value)
+  {
+    return call(() -> delegate.update(value));
+  }
+
+  @Override
+  public CompletableFuture<Collection<V>> updateAll(Iterable<V> values)
+  {
+    return call(() -> delegate.updateAll(values));
+  }
+
+  @Override
+  public CompletableFuture<Optional<V>> delete(ID identifier)
+  {
+    return call(() -> delegate.delete(identifier));
+  }
+
+  @Override
+  public CompletableFuture<Collection<V>> deleteAll(Iterable<ID> identifiers)
+  {
+    return chunked(identifiers, delegate::deleteAll);
+  }
+
+  @Override
+  public void close()
+  {
+    if (ownedExecutor != null) ownedExecutor.shutdown();
+  }
+
+  private <T> CompletableFuture<T> call(Supplier<T> call)
+  {
+    return CompletableFuture.supplyAsync(call, executor);
+  }
+
+  private CompletableFuture<Collection<V>> chunked(Iterable<ID> identifiers, Function<Iterable<ID>, Collection<V>> call)
+  {
+    // small requests go through as they are, so the repository sees the caller's own collection.
+    if (identifiers instanceof Collection && ((Collection<?>)identifiers).size() <= chunkSize) return call(() -> call.apply(identifiers));
+
+    List<ID> all = new ArrayList<>();
+    identifiers.forEach(all::add);
+
+    if (all.size() <= chunkSize) return call(() -> call.apply(all));
+
+    return fanOut(
+      () ->
+      {
+        List<CompletableFuture<Collection<V>>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += chunkSize)
+        {
+          List<ID> chunk = all.subList(from, Math.min(from + chunkSize, all.size()));
+          chunks.add(CompletableFuture.supplyAsync(() -> call.apply(chunk), chunkExecutor));
+        }
+
+        return chunks;
+      }
+    );
+  }
+
+  private CompletableFuture<Collection<V>> fanOut(Supplier<List<CompletableFuture<Collection<V>>>> chunks)
+  {
+    // the chunks are submitted from the executor, so when the chunk pool is full it's the executor's thread that runs the overflow
+    // rather than the caller's.
+    return call(chunks).thenCompose(this::join);
+  }
+
+  private CompletableFuture<Collection<V>> join(List<CompletableFuture<Collection<V>>> chunks)
+  {
+    return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).thenApply(
+      ignored ->
+      {
+        List<V> values = new ArrayList<>();
+        for (CompletableFuture<Collection<V>> chunk : chunks) values.addAll(chunk.join());
+
+        return values;
+      }
+    );
+  }
+
+  private static ExecutorService boundedExecutor(int threads)
+  {
+    return new ThreadPoolExecutor(
+      threads,
+      threads,
+      0,
+      TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(threads * QUEUE_SIZE_PER_THREAD),
+      new ChunkThreadFactory(),
+      new ThreadPoolExecutor.CallerRunsPolicy()
+    );
+  }
+
+  private static class ChunkThreadFactory implements ThreadFactory
+  {
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable)
+    {
+      Thread thread = new Thread(runnable, "data-repository-chunk-" + COUNT.incrementAndGet());
+      thread.setDaemon(true);
+
+      return thread;
+    }
+  }
+}
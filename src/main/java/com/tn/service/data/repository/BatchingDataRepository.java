@@ -0,0 +1,166 @@
+package com.tn.service.data.repository;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.tn.service.data.parameter.IdentityParser;
+
+public class BatchingDataRepository<V, ID> extends DelegatingDataRepository<V, ID> implements AutoCloseable
+{
+  private final IdentityParser<V, ID> identityParser;
+  private final int maxBatchSize;
+  private final long windowNanos;
+  private final ScheduledExecutorService scheduler;
+  private final Object lock;
+  private final LongAdder batches;
+  private final LongAdder batchedIdentifiers;
+  private final LongAdder finds;
+  private final LongAdder findNanos;
+  private Map<ID, CompletableFuture<Optional<V>>> pending;
+
+  public BatchingDataRepository(DataRepository<V, ID> delegate, IdentityParser<V, ID> identityParser, int maxBatchSize, Duration window, int threads)
+  {
+    super(delegate);
+    this.identityParser = identityParser;
+    this.maxBatchSize = maxBatchSize;
+    this.windowNanos = window.toNanos();
+    this.scheduler = Executors.newScheduledThreadPool(threads, new BatchThreadFactory());
+    this.lock = new Object();
+    this.batches = new LongAdder();
+    this.batchedIdentifiers = new LongAdder();
+    this.finds = new LongAdder();
+    this.findNanos = new LongAdder();
+    this.pending = new LinkedHashMap<>();
+  }
+
+  public long batches()
+  {
+    return batches.sum();
+  }
+
+  public long batchedIdentifiers()
+  {
+    return batchedIdentifiers.sum();
+  }
+
+  public double averageBatchSize()
+  {
+    long batches = this.batches.sum();
+    return batches == 0 ? 0 : (double)batchedIdentifiers.sum() / batches;
+  }
+
+  public Duration averageLatency()
+  {
+    long finds = this.finds.sum();
+    return finds == 0 ? Duration.ZERO : Duration.ofNanos(findNanos.sum() / finds);
+  }
+
+  @Override
+  public Optional<V> find(ID identifier) throws FindException
+  {
+    long started = System.nanoTime();
+
+    CompletableFuture<Optional<V>> value;
+    Map<ID, CompletableFuture<Optional<V>>> full = null;
+
+    synchronized (lock)
+    {
+      Map<ID, CompletableFuture<Optional<V>>> batch = pending;
+      if (batch.isEmpty()) scheduler.schedule(() -> flush(batch), windowNanos, NANOSECONDS);
+
+      value = batch.computeIfAbsent(identifier, key -> new CompletableFuture<>());
+      if (batch.size() >= maxBatchSize)
+      {
+        pending = new LinkedHashMap<>();
+        full = batch;
+      }
+    }
+
+    // a full batch is loaded on the thread that filled it rather than waiting for the window to close.
+    if (full != null) load(full);
+
+    try
+    {
+      return value.join();
+    }
+    catch (CompletionException e)
+    {
+      if (e.getCause() instanceof RuntimeException) throw (RuntimeException)e.getCause();
+      if (e.getCause() instanceof Error) throw (Error)e.getCause();
+      throw e;
+    }
+    finally
+    {
+      finds.increment();
+      findNanos.add(System.nanoTime() - started);
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    scheduler.shutdown();
+  }
+
+  private void flush(Map<ID, CompletableFuture<Optional<V>>> batch)
+  {
+    synchronized (lock)
+    {
+      // the batch may already have been loaded when it filled up.
+      if (pending != batch) return;
+      pending = new LinkedHashMap<>();
+    }
+
+    load(batch);
+  }
+
+  private void load(Map<ID, CompletableFuture<Optional<V>>> batch)
+  {
+    batches.increment();
+    batchedIdentifiers.add(batch.size());
+
+    try
+    {
+      Map<ID, V> values = new HashMap<>();
+      for (V value : delegate.findAll(List.copyOf(batch.keySet())))
+      {
+        values.put(identityParser.parse(value), value);
+      }
+
+      batch.forEach((identifier, value) -> value.complete(Optional.ofNullable(values.get(identifier))));
+    }
+    catch (Throwable e)
+    {
+      // every waiter is completed whatever went wrong, otherwise they'd wait for ever; errors are still rethrown.
+      batch.values().forEach(value -> value.completeExceptionally(e));
+      if (e instanceof Error) throw (Error)e;
+    }
+  }
+
+  private static class BatchThreadFactory implements ThreadFactory
+  {
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable)
+    {
+      Thread thread = new Thread(runnable, "data-repository-batch-" + COUNT.incrementAndGet());
+      thread.setDaemon(true);
+
+      return thread;
+    }
+  }
+}
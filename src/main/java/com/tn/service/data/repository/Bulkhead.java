@@ -0,0 +1,93 @@
+package com.tn.service.data.repository;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Separate concurrency limits for each kind of repository call, so a flood of one kind can't take every connection from the others.
+ */
+public class Bulkhead
+{
+  private final Map<Operation, Integer> limits;
+  private final Map<Operation, Semaphore> permits;
+  private final Map<Operation, LongAdder> rejections;
+  private final long maxWaitNanos;
+
+  public Bulkhead(Map<Operation, Integer> limits, Duration maxWait)
+  {
+    this.limits = new EnumMap<>(Operation.class);
+    this.permits = new EnumMap<>(Operation.class);
+    this.rejections = new EnumMap<>(Operation.class);
+    this.maxWaitNanos = maxWait.toNanos();
+
+    for (Operation operation : Operation.values())
+    {
+      Integer limit = limits.get(operation);
+      if (limit == null || limit < 1) throw new IllegalArgumentException("Invalid " + operation.tag() + " limit: " + limit);
+
+      this.limits.put(operation, limit);
+      this.permits.put(operation, new Semaphore(limit));
+      this.rejections.put(operation, new LongAdder());
+    }
+  }
+
+  public void acquire(Operation operation) throws BulkheadFullException
+  {
+    try
+    {
+      if (permits.get(operation).tryAcquire(maxWaitNanos, NANOSECONDS)) return;
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+    }
+
+    rejections.get(operation).increment();
+    throw new BulkheadFullException(operation);
+  }
+
+  public void release(Operation operation)
+  {
+    permits.get(operation).release();
+  }
+
+  public int limit(Operation operation)
+  {
+    return limits.get(operation);
+  }
+
+  public int inUse(Operation operation)
+  {
+    return limits.get(operation) - permits.get(operation).availablePermits();
+  }
+
+  public long rejected(Operation operation)
+  {
+    return rejections.get(operation).sum();
+  }
+
+  public enum Operation
+  {
+    FIND("find"),
+    FIND_WHERE("find-where"),
+    WRITE("write"),
+    DELETE("delete");
+
+    private final String tag;
+
+    Operation(String tag)
+    {
+      this.tag = tag;
+    }
+
+    public String tag()
+    {
+      return tag;
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package com.tn.service.data.repository;
+
+import static com.tn.service.data.repository.Bulkhead.Operation.DELETE;
+import static com.tn.service.data.repository.Bulkhead.Operation.FIND;
+import static com.tn.service.data.repository.Bulkhead.Operation.FIND_WHERE;
+import static com.tn.service.data.repository.Bulkhead.Operation.WRITE;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.tn.lang.util.Page;
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.domain.Cursor;
+import com.tn.service.data.domain.Direction;
+
+public class BulkheadDataRepository<V, ID> extends DelegatingDataRepository<V, ID>
+{
+  private final Bulkhead bulkhead;
+
+  public BulkheadDataRepository(DataRepository<V, ID> delegate, Bulkhead bulkhead)
+  {
+    super(delegate);
+    this.bulkhead = bulkhead;
+  }
+
+  @Override
+  public Optional<V> find(ID identifier) throws FindException
+  {
+    return call(FIND, () -> delegate.find(identifier));
+  }
+
+  @Override
+  public boolean exists(ID identifier) throws FindException
+  {
+    return call(FIND, () -> delegate.exists(identifier));
+  }
+
+  @Override
+  public Collection<V> findAll(Iterable<String> sort, Direction direction) throws FindException
+  {
+    return call(FIND_WHERE, () -> delegate.findAll(sort, direction));
+  }
+
+  @Override
+  public Stream<V> streamAll(Iterable<String> sort, Direction direction) throws FindException
+  {
+    return stream(FIND_WHERE, () -> delegate.streamAll(sort, direction));
+  }
+
+  @Override
+  public Stream<V> streamAll(Collection<String> fields, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return stream(FIND_WHERE, () -> delegate.streamAll(fields, sort, direction));
+  }
+
+  @Override
+  public Page<V> findAll(int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return call(FIND_WHERE, () -> delegate.findAll(pageNumber, pageSize, sort, direction));
+  }
+
+  @Override
+  public Page<V> findAll(Collection<String> fields, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return call(FIND_WHERE, () -> delegate.findAll(fields, pageNumber, pageSize, sort, direction));
+  }
+
+  @Override
+  public Collection<V> findAll(Cursor after, int limit, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return call(FIND_WHERE, () -> delegate.findAll(after, limit, sort, direction));
+  }
+
+  @Override
+  public Collection<V> findAll(Iterable<ID> identifiers) throws FindException
+  {
+    return call(FIND, () -> delegate.findAll(identifiers));
+  }
+
+  @Override
+  public Collection<V> findAll(long[] identifiers) throws FindException
+  {
+    return call(FIND, () -> delegate.findAll(identifiers));
+  }
+
+  @Override
+  public Collection<V> findAll(int[] identifiers) throws FindException
+  {
+    return call(FIND, () -> delegate.findAll(identifiers));
+  }
+
+  @Override
+  public Collection<V> findWhere(String query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return call(FIND_WHERE, () -> delegate.findWhere(query, sort, direction));
+  }
+
+  @Override
+  public Collection<V> findWhere(Criteria query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return call(FIND_WHERE, () -> delegate.findWhere(query, sort, direction));
+  }
+
+  @Override
+  public Stream<V> streamWhere(String query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return stream(FIND_WHERE, () -> delegate.streamWhere(query, sort, direction));
+  }
+
+  @Override
+  public Stream<V> streamWhere(Criteria query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return stream(FIND_WHERE, () -> delegate.streamWhere(query, sort, direction));
+  }
+
+  @Override
+  public Stream<V> streamWhere(Criteria query, Collection<String> fields, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return stream(FIND_WHERE, () -> delegate.streamWhere(query, fields, sort, direction));
+  }
+
+  @Override
+  public Page<V> findWhere(String query, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return call(FIND_WHERE, () -> delegate.findWhere(query, pageNumber, pageSize, sort, direction));
+  }
+
+  @Override
+  public Page<V> findWhere(Criteria query, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return call(FIND_WHERE, () -> delegate.findWhere(query, pageNumber, pageSize, sort, direction));
+  }
+
+  @Override
+  public Page<V> findWhere(Criteria query, Collection<String> fields, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return call(FIND_WHERE, () -> delegate.findWhere(query, fields, pageNumber, pageSize, sort, direction));
+  }
+
+  @Override
+  public Collection<V> findWhere(String query, Cursor after, int limit, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return call(FIND_WHERE, () -> delegate.findWhere(query, after, limit, sort, direction));
+  }
+
+  @Override
+  public Collection<V> findWhere(Criteria query, Cursor after, int limit, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return call(FIND_WHERE, () -> delegate.findWhere(query, after, limit, sort, direction));
+  }
+
+  @Override
+  public long count() throws FindException
+  {
+    return call(FIND_WHERE, () -> delegate.count());
+  }
+
+  @Override
+  public long countWhere(Criteria query) throws FindException
+  {
+    return call(FIND_WHERE, () -> delegate.countWhere(query));
+  }
+
+  @Override
+  public Optional<Object> versionAll() throws FindException
+  {
+    return call(FIND_WHERE, () -> delegate.versionAll());
+  }
+
+  @Override
+  public Optional<Object> versionWhere(Criteria query) throws FindException
+  {
+    return call(FIND_WHERE, () -> delegate.versionWhere(query));
+  }
+
+  @Override
+  public V insert(V value) throws InsertException
+  {
+    return call(WRITE, () -> delegate.insert(value));
+  }
+
+  @Override
+  public Collection<V> insertAll(Iterable<V> values) throws InsertException
+  {
+    return call(WRITE, () -> delegate.insertAll(values));
+  }
+
+  @Override
+  public V update(V value) throws UpdateException
+  {
+    return call(WRITE, () -> delegate.update(value));
+  }
+
+  @Override
+  public Collection<V> updateAll(Iterable<V> values) throws UpdateException
+  {
+    return call(WRITE, () -> delegate.updateAll(values));
+  }
+
+  @Override
+  public Optional<V> delete(ID identifier) throws DeleteException
+  {
+    return call(DELETE, () -> delegate.delete(identifier));
+  }
+
+  @Override
+  public Collection<V> deleteAll(Iterable<ID> identifiers) throws DeleteException
+  {
+    return call(DELETE, () -> delegate.deleteAll(identifiers));
+  }
+
+  private <T> T call(Bulkhead.Operation operation, Supplier<T> call)
+  {
+    bulkhead.acquire(operation);
+    try
+    {
+      return call.get();
+    }
+    finally
+    {
+      bulkhead.release(operation);
+    }
+  }
+
+  private Stream<V> stream(Bulkhead.Operation operation, Supplier<Stream<V>> call)
+  {
+    bulkhead.acquire(operation);
+    try
+    {
+      // the permit is held until the stream is closed, because that's when the backing store's cursor is released.
+      return call.get().onClose(() -> bulkhead.release(operation));
+    }
+    catch (RuntimeException | Error e)
+    {
+      bulkhead.release(operation);
+      throw e;
+    }
+  }
+}
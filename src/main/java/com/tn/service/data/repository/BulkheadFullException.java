@@ -0,0 +1,19 @@
+package com.tn.service.data.repository;
+
+import java.util.concurrent.RejectedExecutionException;
+
+public class BulkheadFullException extends RejectedExecutionException
+{
+  private final Bulkhead.Operation operation;
+
+  public BulkheadFullException(Bulkhead.Operation operation)
+  {
+    super("Too many " + operation.tag() + " calls in progress");
+    this.operation = operation;
+  }
+
+  public Bulkhead.Operation getOperation()
+  {
+    return operation;
+  }
+}
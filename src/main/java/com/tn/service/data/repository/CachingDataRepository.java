@@ -0,0 +1,184 @@
+package com.tn.service.data.repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import com.tn.service.data.parameter.IdentityParser;
+
+public class CachingDataRepository<V, ID> extends DelegatingDataRepository<V, ID>
+{
+  private final Cache<ID, V> cache;
+  private final AtomicLong generation;
+  private final IdentityParser<V, ID> identityParser;
+
+  public CachingDataRepository(DataRepository<V, ID> delegate, IdentityParser<V, ID> identityParser, long size, Duration ttl)
+  {
+    super(delegate);
+    this.cache = Caffeine.newBuilder().maximumSize(size).expireAfterWrite(ttl).recordStats().build();
+    this.generation = new AtomicLong();
+    this.identityParser = identityParser;
+  }
+
+  public CacheStats cacheStats()
+  {
+    return cache.stats();
+  }
+
+  @Override
+  public Optional<V> find(ID identifier) throws FindException
+  {
+    return Optional.ofNullable(cache.get(identifier, key -> delegate.find(key).orElse(null)));
+  }
+
+  @Override
+  public boolean exists(ID identifier) throws FindException
+  {
+    // a miss is not cached, the delegate answers without the value being read into the cache.
+    return cache.getIfPresent(identifier) != null || delegate.exists(identifier);
+  }
+
+  @Override
+  public Collection<V> findAll(Iterable<ID> identifiers) throws FindException
+  {
+    Set<ID> requested = new LinkedHashSet<>();
+    identifiers.forEach(requested::add);
+
+    Map<ID, V> cached = cache.getAllPresent(requested);
+    Map<ID, V> loaded = new HashMap<>();
+
+    List<ID> missing = requested.stream().filter(identifier -> !cached.containsKey(identifier)).toList();
+    if (!missing.isEmpty())
+    {
+      long generation = this.generation.get();
+      for (V value : delegate.findAll(missing))
+      {
+        loaded.put(identityParser.parse(value), value);
+      }
+
+      // a write since the load started may have made the loaded values stale, so they're returned but not cached.  the generation is
+      // checked under each key's lock, a write that moves it on after the check invalidates the key after the value is put.
+      for (Map.Entry<ID, V> value : loaded.entrySet())
+      {
+        cache.asMap().compute(value.getKey(), (identifier, existing) -> generation == this.generation.get() ? value.getValue() : existing);
+      }
+    }
+
+    List<V> values = new ArrayList<>(requested.size());
+    for (ID identifier : requested)
+    {
+      V value = cached.containsKey(identifier) ? cached.get(identifier) : loaded.get(identifier);
+      if (value != null) values.add(value);
+    }
+
+    return values;
+  }
+
+  @Override
+  public Collection<V> findAll(long[] identifiers) throws FindException
+  {
+    return findAll(Identifiers.<ID>boxed(identifiers));
+  }
+
+  @Override
+  public Collection<V> findAll(int[] identifiers) throws FindException
+  {
+    return findAll(Identifiers.<ID>boxed(identifiers));
+  }
+
+  @Override
+  public V update(V value) throws UpdateException
+  {
+    ID identifier = identityParser.parse(value);
+    try
+    {
+      return delegate.update(value);
+    }
+    finally
+    {
+      invalidate(List.of(identifier));
+    }
+  }
+
+  @Override
+  public Collection<V> updateAll(Iterable<V> values) throws UpdateException
+  {
+    List<ID> identifiers = new ArrayList<>();
+    try
+    {
+      return delegate.updateAll(() -> identified(values.iterator(), identifiers));
+    }
+    finally
+    {
+      invalidate(identifiers);
+    }
+  }
+
+  @Override
+  public Optional<V> delete(ID identifier) throws DeleteException
+  {
+    try
+    {
+      return delegate.delete(identifier);
+    }
+    finally
+    {
+      invalidate(List.of(identifier));
+    }
+  }
+
+  @Override
+  public Collection<V> deleteAll(Iterable<ID> identifiers) throws DeleteException
+  {
+    List<ID> deleted = new ArrayList<>();
+    identifiers.forEach(deleted::add);
+
+    try
+    {
+      return delegate.deleteAll(deleted);
+    }
+    finally
+    {
+      invalidate(deleted);
+    }
+  }
+
+  private void invalidate(Collection<ID> identifiers)
+  {
+    generation.incrementAndGet();
+    cache.invalidateAll(identifiers);
+  }
+
+  private Iterator<V> identified(Iterator<V> values, Collection<ID> identifiers)
+  {
+    return new Iterator<>()
+    {
+      @Override
+      public boolean hasNext()
+      {
+        return values.hasNext();
+      }
+
+      @Override
+      public V next()
+      {
+        V value = values.next();
+        identifiers.add(identityParser.parse(value));
+
+        return value;
+      }
+    };
+  }
+}
@@ -0,0 +1,152 @@
+package com.tn.service.data.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.tn.lang.util.Page;
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.domain.Cursor;
+import com.tn.service.data.domain.Direction;
+
+public class CoalescingDataRepository<V, ID> extends DelegatingDataRepository<V, ID>
+{
+  private final ConcurrentMap<Object, CompletableFuture<?>> inFlight;
+  private final LongAdder calls;
+  private final LongAdder coalesced;
+
+  public CoalescingDataRepository(DataRepository<V, ID> delegate)
+  {
+    super(delegate);
+    this.inFlight = new ConcurrentHashMap<>();
+    this.calls = new LongAdder();
+    this.coalesced = new LongAdder();
+  }
+
+  public long calls()
+  {
+    return calls.sum();
+  }
+
+  public long coalesced()
+  {
+    return coalesced.sum();
+  }
+
+  @Override
+  public Optional<V> find(ID identifier) throws FindException
+  {
+    return coalesce(new FindKey(identifier), () -> delegate.find(identifier));
+  }
+
+  @Override
+  public Collection<V> findWhere(Criteria query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return coalesce(new FindWhereKey(query, list(sort), direction, null), () -> delegate.findWhere(query, sort, direction));
+  }
+
+  @Override
+  public Stream<V> streamWhere(Criteria query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    // a stream can't be shared, so a coalesced stream is read into a list that each caller streams, the same result as findWhere.
+    return this.<Collection<V>>coalesce(new FindWhereKey(query, list(sort), direction, null), () -> read(delegate.streamWhere(query, sort, direction))).stream();
+  }
+
+  @Override
+  public Stream<V> streamWhere(Criteria query, Collection<String> fields, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return this.<Collection<V>>coalesce(new FindWhereKey(query, list(sort), direction, Set.copyOf(fields)), () -> read(delegate.streamWhere(query, fields, sort, direction))).stream();
+  }
+
+  @Override
+  public Page<V> findWhere(Criteria query, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return coalesce(new FindWhereKey(query, list(sort), direction, List.of(pageNumber, pageSize)), () -> delegate.findWhere(query, pageNumber, pageSize, sort, direction));
+  }
+
+  @Override
+  public Page<V> findWhere(Criteria query, Collection<String> fields, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return coalesce(new FindWhereKey(query, list(sort), direction, List.of(Set.copyOf(fields), pageNumber, pageSize)), () -> delegate.findWhere(query, fields, pageNumber, pageSize, sort, direction));
+  }
+
+  @Override
+  public Collection<V> findWhere(Criteria query, Cursor after, int limit, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return coalesce(new FindWhereKey(query, list(sort), direction, List.of(after, limit)), () -> delegate.findWhere(query, after, limit, sort, direction));
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T coalesce(Object key, Supplier<T> call)
+  {
+    calls.increment();
+
+    CompletableFuture<T> future = new CompletableFuture<>();
+    CompletableFuture<T> existing = (CompletableFuture<T>)inFlight.putIfAbsent(key, future);
+
+    if (existing != null)
+    {
+      coalesced.increment();
+      return join(existing);
+    }
+
+    try
+    {
+      future.complete(call.get());
+    }
+    catch (RuntimeException | Error e)
+    {
+      future.completeExceptionally(e);
+    }
+    finally
+    {
+      inFlight.remove(key, future);
+    }
+
+    return join(future);
+  }
+
+  private <T> T join(CompletableFuture<T> future)
+  {
+    try
+    {
+      return future.join();
+    }
+    catch (CompletionException e)
+    {
+      // rethrow the repository's own exception so callers see the same error as an uncoalesced call.
+      if (e.getCause() instanceof RuntimeException) throw (RuntimeException)e.getCause();
+      if (e.getCause() instanceof Error) throw (Error)e.getCause();
+      throw e;
+    }
+  }
+
+  private static <T> List<T> read(Stream<T> stream)
+  {
+    try (stream)
+    {
+      return stream.toList();
+    }
+  }
+
+  private static List<String> list(Iterable<String> values)
+  {
+    List<String> list = new ArrayList<>();
+    values.forEach(list::add);
+
+    return list;
+  }
+
+  private record FindKey(Object identifier) {}
+
+  private record FindWhereKey(Criteria query, List<String> sort, Direction direction, Object page) {}
+}
@@ -2,24 +2,174 @@ package com.tn.service.data.repository;
 
 import java.util.Collection;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import com.tn.lang.util.Page;
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.domain.Cursor;
 import com.tn.service.data.domain.Direction;
 
 public interface DataRepository<V, ID>
 {
   Optional<V> find(ID identifier) throws FindException;
 
+  /**
+   * Returns whether a value exists for <code>identifier</code>. By default the value is read with {@link #find(Object)}, a single
+   * lookup rather than a scan, repositories should override this to check without reading the value.
+   */
+  default boolean exists(ID identifier) throws FindException
+  {
+    return find(identifier).isPresent();
+  }
+
   Collection<V> findAll(Iterable<String> sort, Direction direction) throws FindException;
 
+  default Stream<V> streamAll(Iterable<String> sort, Direction direction) throws FindException
+  {
+    return findAll(sort, direction).stream();
+  }
+
+  /**
+   * Returns the same values as {@link #streamAll(Iterable, Direction)}, a repository may populate only the <code>fields</code> it's
+   * asked for.
+   */
+  default Stream<V> streamAll(Collection<String> fields, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return streamAll(sort, direction);
+  }
+
   Page<V> findAll(int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException;
 
+  /**
+   * Returns the same page as {@link #findAll(int, int, Iterable, Direction)}, a repository may populate only the <code>fields</code>
+   * it's asked for.
+   */
+  default Page<V> findAll(Collection<String> fields, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return findAll(pageNumber, pageSize, sort, direction);
+  }
+
+  /**
+   * Returns up to <code>limit</code> values ordered by the cursor's keys (the sort fields followed by the identity field) that come
+   * strictly after <code>after</code>.
+   */
+  default Collection<V> findAll(Cursor after, int limit, Iterable<String> sort, Direction direction) throws FindException
+  {
+    throw new UnsupportedOperationException("Cursor pagination is not supported");
+  }
+
   Collection<V> findAll(Iterable<ID> identifiers) throws FindException;
 
+  default Collection<V> findAll(long[] identifiers) throws FindException
+  {
+    return findAll(Identifiers.<ID>boxed(identifiers));
+  }
+
+  default Collection<V> findAll(int[] identifiers) throws FindException
+  {
+    return findAll(Identifiers.<ID>boxed(identifiers));
+  }
+
   Collection<V> findWhere(String query, Iterable<String> sort, Direction direction) throws FindException;
 
+  default Collection<V> findWhere(Criteria query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return findWhere(query.query(), sort, direction);
+  }
+
+  default Stream<V> streamWhere(String query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return findWhere(query, sort, direction).stream();
+  }
+
+  default Stream<V> streamWhere(Criteria query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return streamWhere(query.query(), sort, direction);
+  }
+
+  /**
+   * Returns the same values as {@link #streamWhere(Criteria, Iterable, Direction)}, a repository may populate only the
+   * <code>fields</code> it's asked for.
+   */
+  default Stream<V> streamWhere(Criteria query, Collection<String> fields, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return streamWhere(query, sort, direction);
+  }
+
   Page<V> findWhere(String query, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException;
 
+  default Page<V> findWhere(Criteria query, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return findWhere(query.query(), pageNumber, pageSize, sort, direction);
+  }
+
+  /**
+   * Returns the same page as {@link #findWhere(Criteria, int, int, Iterable, Direction)}, a repository may populate only the
+   * <code>fields</code> it's asked for.
+   */
+  default Page<V> findWhere(Criteria query, Collection<String> fields, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return findWhere(query, pageNumber, pageSize, sort, direction);
+  }
+
+  /**
+   * Returns up to <code>limit</code> values matching <code>query</code>, ordered by the cursor's keys (the sort fields followed by the
+   * identity field), that come strictly after <code>after</code>.
+   */
+  default Collection<V> findWhere(String query, Cursor after, int limit, Iterable<String> sort, Direction direction) throws FindException
+  {
+    throw new UnsupportedOperationException("Cursor pagination is not supported");
+  }
+
+  default Collection<V> findWhere(Criteria query, Cursor after, int limit, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return findWhere(query.query(), after, limit, sort, direction);
+  }
+
+  /**
+   * Returns the number of values. Counting isn't supported unless a repository overrides this, as counting by reading every value
+   * costs as much as reading them all, and <code>$count</code> reads are answered with a 501 instead.
+   */
+  default long count() throws FindException
+  {
+    throw new UnsupportedOperationException("Counting is not supported");
+  }
+
+  /**
+   * Returns the number of values matching <code>query</code>. Counting isn't supported unless a repository overrides this, as
+   * counting by reading every matching value costs as much as reading them all, and <code>$count</code> reads are answered with a 501
+   * instead.
+   */
+  default long countWhere(Criteria query) throws FindException
+  {
+    throw new UnsupportedOperationException("Counting is not supported");
+  }
+
+  /**
+   * Returns the version of <code>value</code>, such as a version number or last modified time, when the repository keeps one.
+   */
+  default Optional<Object> version(V value)
+  {
+    return Optional.empty();
+  }
+
+  /**
+   * Returns a version that changes whenever any value changes, when one can be found without reading the values.
+   */
+  default Optional<Object> versionAll() throws FindException
+  {
+    return Optional.empty();
+  }
+
+  /**
+   * Returns a version that changes whenever a value matching <code>query</code> changes, when one can be found without reading the
+   * values.
+   */
+  default Optional<Object> versionWhere(Criteria query) throws FindException
+  {
+    return Optional.empty();
+  }
+
   V insert(V value) throws InsertException;
 
   Collection<V> insertAll(Iterable<V> values) throws InsertException;
@@ -0,0 +1,227 @@
+package com.tn.service.data.repository;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import com.tn.lang.util.Page;
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.domain.Cursor;
+import com.tn.service.data.domain.Direction;
+
+public abstract class DelegatingDataRepository<V, ID> implements DataRepository<V, ID>
+{
+  protected final DataRepository<V, ID> delegate;
+
+  protected DelegatingDataRepository(DataRepository<V, ID> delegate)
+  {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Returns the first repository of <code>type</code> in the chain of decorators starting at <code>dataRepository</code>.
+   */
+  public static <T> Optional<T> decorator(DataRepository<?, ?> dataRepository, Class<T> type)
+  {
+    DataRepository<?, ?> current = dataRepository;
+    while (current != null)
+    {
+      if (type.isInstance(current)) return Optional.of(type.cast(current));
+      current = current instanceof DelegatingDataRepository ? ((DelegatingDataRepository<?, ?>)current).delegate : null;
+    }
+
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<V> find(ID identifier) throws FindException
+  {
+    return delegate.find(identifier);
+  }
+
+  @Override
+  public boolean exists(ID identifier) throws FindException
+  {
+    return delegate.exists(identifier);
+  }
+
+  @Override
+  public Collection<V> findAll(Iterable<String> sort, Direction direction) throws FindException
+  {
+    return delegate.findAll(sort, direction);
+  }
+
+  @Override
+  public Stream<V> streamAll(Iterable<String> sort, Direction direction) throws FindException
+  {
+    return delegate.streamAll(sort, direction);
+  }
+
+  @Override
+  public Stream<V> streamAll(Collection<String> fields, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return delegate.streamAll(fields, sort, direction);
+  }
+
+  @Override
+  public Page<V> findAll(int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return delegate.findAll(pageNumber, pageSize, sort, direction);
+  }
+
+  @Override
+  public Page<V> findAll(Collection<String> fields, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return delegate.findAll(fields, pageNumber, pageSize, sort, direction);
+  }
+
+  @Override
+  public Collection<V> findAll(Cursor after, int limit, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return delegate.findAll(after, limit, sort, direction);
+  }
+
+  @Override
+  public Collection<V> findAll(Iterable<ID> identifiers) throws FindException
+  {
+    return delegate.findAll(identifiers);
+  }
+
+  @Override
+  public Collection<V> findAll(long[] identifiers) throws FindException
+  {
+    return delegate.findAll(identifiers);
+  }
+
+  @Override
+  public Collection<V> findAll(int[] identifiers) throws FindException
+  {
+    return delegate.findAll(identifiers);
+  }
+
+  @Override
+  public Collection<V> findWhere(String query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return delegate.findWhere(query, sort, direction);
+  }
+
+  @Override
+  public Collection<V> findWhere(Criteria query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return delegate.findWhere(query, sort, direction);
+  }
+
+  @Override
+  public Stream<V> streamWhere(String query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return delegate.streamWhere(query, sort, direction);
+  }
+
+  @Override
+  public Stream<V> streamWhere(Criteria query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return delegate.streamWhere(query, sort, direction);
+  }
+
+  @Override
+  public Stream<V> streamWhere(Criteria query, Collection<String> fields, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return delegate.streamWhere(query, fields, sort, direction);
+  }
+
+  @Override
+  public Page<V> findWhere(String query, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return delegate.findWhere(query, pageNumber, pageSize, sort, direction);
+  }
+
+  @Override
+  public Page<V> findWhere(Criteria query, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return delegate.findWhere(query, pageNumber, pageSize, sort, direction);
+  }
+
+  @Override
+  public Page<V> findWhere(Criteria query, Collection<String> fields, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return delegate.findWhere(query, fields, pageNumber, pageSize, sort, direction);
+  }
+
+  @Override
+  public Collection<V> findWhere(String query, Cursor after, int limit, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return delegate.findWhere(query, after, limit, sort, direction);
+  }
+
+  @Override
+  public Collection<V> findWhere(Criteria query, Cursor after, int limit, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return delegate.findWhere(query, after, limit, sort, direction);
+  }
+
+  @Override
+  public long count() throws FindException
+  {
+    return delegate.count();
+  }
+
+  @Override
+  public long countWhere(Criteria query) throws FindException
+  {
+    return delegate.countWhere(query);
+  }
+
+  @Override
+  public Optional<Object> version(V value)
+  {
+    return delegate.version(value);
+  }
+
+  @Override
+  public Optional<Object> versionAll() throws FindException
+  {
+    return delegate.versionAll();
+  }
+
+  @Override
+  public Optional<Object> versionWhere(Criteria query) throws FindException
+  {
+    return delegate.versionWhere(query);
+  }
+
+  @Override
+  public V insert(V value) throws InsertException
+  {
+    return delegate.insert(value);
+  }
+
+  @Override
+  public Collection<V> insertAll(Iterable<V> values) throws InsertException
+  {
+    return delegate.insertAll(values);
+  }
+
+  @Override
+  public V update(V value) throws UpdateException
+  {
+    return delegate.update(value);
+  }
+
+  @Override
+  public Collection<V> updateAll(Iterable<V> values) throws UpdateException
+  {
+    return delegate.updateAll(values);
+  }
+
+  @Override
+  public Optional<V> delete(ID identifier) throws DeleteException
+  {
+    return delegate.delete(identifier);
+  }
+
+  @Override
+  public Collection<V> deleteAll(Iterable<ID> identifiers) throws DeleteException
+  {
+    return delegate.deleteAll(identifiers);
+  }
+}
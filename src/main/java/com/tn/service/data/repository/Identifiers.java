@@ -0,0 +1,21 @@
+package com.tn.service.data.repository;
+
+import java.util.Arrays;
+import java.util.List;
+
+final class Identifiers
+{
+  private Identifiers() {}
+
+  @SuppressWarnings("unchecked")
+  static <ID> List<ID> boxed(long[] identifiers)
+  {
+    return (List<ID>)Arrays.stream(identifiers).boxed().toList();
+  }
+
+  @SuppressWarnings("unchecked")
+  static <ID> List<ID> boxed(int[] identifiers)
+  {
+    return (List<ID>)Arrays.stream(identifiers).boxed().toList();
+  }
+}
@@ -0,0 +1,512 @@
+package com.tn.service.data.repository;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.COUNT;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.COUNT_WHERE;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.DELETE;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.DELETE_ALL;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.EXISTS;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.FIND;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.FIND_ALL;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.FIND_ALL_CURSOR;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.FIND_ALL_IDS;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.FIND_ALL_PAGE;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.FIND_WHERE;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.FIND_WHERE_CURSOR;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.FIND_WHERE_PAGE;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.INSERT;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.INSERT_ALL;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.STREAM_ALL;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.STREAM_WHERE;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.UPDATE;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.UPDATE_ALL;
+import static com.tn.service.data.repository.InstrumentedDataRepository.Method.VERSION;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import com.tn.lang.util.Page;
+import com.tn.query.node.Node;
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.domain.Cursor;
+import com.tn.service.data.domain.Direction;
+
+/**
+ * Records the latency of each repository call, the number of values read or written and the size of the queries, tagged by method.
+ * Calls are also tagged by outcome and, for failures, the exception.  Streams are timed until they are closed, so their latency
+ * includes writing the response.
+ */
+public class InstrumentedDataRepository<V, ID> extends DelegatingDataRepository<V, ID>
+{
+  public static final String METER_CALLS = "tn.service.data.repository.calls";
+  public static final String METER_RESULTS = "tn.service.data.repository.results";
+  public static final String METER_BATCH = "tn.service.data.repository.batch";
+  public static final String METER_QUERY_NODES = "tn.service.data.repository.query.nodes";
+  public static final String TAG_METHOD = "method";
+  public static final String TAG_OUTCOME = "outcome";
+  public static final String TAG_EXCEPTION = "exception";
+  public static final String OUTCOME_SUCCESS = "success";
+  public static final String OUTCOME_ERROR = "error";
+  private static final String EXCEPTION_NONE = "none";
+
+  private final MeterRegistry registry;
+  private final Map<Method, Timer> calls;
+  private final Map<Method, DistributionSummary> results;
+  private final Map<Method, DistributionSummary> batches;
+  private final DistributionSummary queryNodes;
+
+  public InstrumentedDataRepository(DataRepository<V, ID> delegate, MeterRegistry registry)
+  {
+    super(delegate);
+
+    this.registry = registry;
+    this.calls = new EnumMap<>(Method.class);
+    this.results = new EnumMap<>(Method.class);
+    this.batches = new EnumMap<>(Method.class);
+
+    for (Method method : Method.values())
+    {
+      this.calls.put(method, timer(registry, method, OUTCOME_SUCCESS, EXCEPTION_NONE));
+      if (method.results) this.results.put(method, DistributionSummary.builder(METER_RESULTS).tag(TAG_METHOD, method.tag).register(registry));
+      if (method.batch) this.batches.put(method, DistributionSummary.builder(METER_BATCH).tag(TAG_METHOD, method.tag).register(registry));
+    }
+
+    this.queryNodes = DistributionSummary.builder(METER_QUERY_NODES).register(registry);
+  }
+
+  @Override
+  public Optional<V> find(ID identifier) throws FindException
+  {
+    return call(FIND, () -> delegate.find(identifier));
+  }
+
+  @Override
+  public boolean exists(ID identifier) throws FindException
+  {
+    return call(EXISTS, () -> delegate.exists(identifier));
+  }
+
+  @Override
+  public Collection<V> findAll(Iterable<String> sort, Direction direction) throws FindException
+  {
+    return results(FIND_ALL, call(FIND_ALL, () -> delegate.findAll(sort, direction)));
+  }
+
+  @Override
+  public Stream<V> streamAll(Iterable<String> sort, Direction direction) throws FindException
+  {
+    return stream(STREAM_ALL, () -> delegate.streamAll(sort, direction));
+  }
+
+  @Override
+  public Stream<V> streamAll(Collection<String> fields, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return stream(STREAM_ALL, () -> delegate.streamAll(fields, sort, direction));
+  }
+
+  @Override
+  public Page<V> findAll(int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return page(FIND_ALL_PAGE, call(FIND_ALL_PAGE, () -> delegate.findAll(pageNumber, pageSize, sort, direction)));
+  }
+
+  @Override
+  public Page<V> findAll(Collection<String> fields, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return page(FIND_ALL_PAGE, call(FIND_ALL_PAGE, () -> delegate.findAll(fields, pageNumber, pageSize, sort, direction)));
+  }
+
+  @Override
+  public Collection<V> findAll(Cursor after, int limit, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return results(FIND_ALL_CURSOR, call(FIND_ALL_CURSOR, () -> delegate.findAll(after, limit, sort, direction)));
+  }
+
+  @Override
+  public Collection<V> findAll(Iterable<ID> identifiers) throws FindException
+  {
+    batch(FIND_ALL_IDS, identifiers);
+    return results(FIND_ALL_IDS, call(FIND_ALL_IDS, () -> delegate.findAll(identifiers)));
+  }
+
+  @Override
+  public Collection<V> findAll(long[] identifiers) throws FindException
+  {
+    batch(FIND_ALL_IDS, identifiers);
+    return results(FIND_ALL_IDS, call(FIND_ALL_IDS, () -> delegate.findAll(identifiers)));
+  }
+
+  @Override
+  public Collection<V> findAll(int[] identifiers) throws FindException
+  {
+    batch(FIND_ALL_IDS, identifiers);
+    return results(FIND_ALL_IDS, call(FIND_ALL_IDS, () -> delegate.findAll(identifiers)));
+  }
+
+  @Override
+  public Collection<V> findWhere(String query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return results(FIND_WHERE, call(FIND_WHERE, () -> delegate.findWhere(query, sort, direction)));
+  }
+
+  @Override
+  public Collection<V> findWhere(Criteria query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    nodes(query);
+    return results(FIND_WHERE, call(FIND_WHERE, () -> delegate.findWhere(query, sort, direction)));
+  }
+
+  @Override
+  public Stream<V> streamWhere(String query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return stream(STREAM_WHERE, () -> delegate.streamWhere(query, sort, direction));
+  }
+
+  @Override
+  public Stream<V> streamWhere(Criteria query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    nodes(query);
+    return stream(STREAM_WHERE, () -> delegate.streamWhere(query, sort, direction));
+  }
+
+  @Override
+  public Stream<V> streamWhere(Criteria query, Collection<String> fields, Iterable<String> sort, Direction direction) throws FindException
+  {
+    nodes(query);
+    return stream(STREAM_WHERE, () -> delegate.streamWhere(query, fields, sort, direction));
+  }
+
+  @Override
+  public Page<V> findWhere(String query, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return page(FIND_WHERE_PAGE, call(FIND_WHERE_PAGE, () -> delegate.findWhere(query, pageNumber, pageSize, sort, direction)));
+  }
+
+  @Override
+  public Page<V> findWhere(Criteria query, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    nodes(query);
+    return page(FIND_WHERE_PAGE, call(FIND_WHERE_PAGE, () -> delegate.findWhere(query, pageNumber, pageSize, sort, direction)));
+  }
+
+  @Override
+  public Page<V> findWhere(Criteria query, Collection<String> fields, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    nodes(query);
+    return page(FIND_WHERE_PAGE, call(FIND_WHERE_PAGE, () -> delegate.findWhere(query, fields, pageNumber, pageSize, sort, direction)));
+  }
+
+  @Override
+  public Collection<V> findWhere(String query, Cursor after, int limit, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return results(FIND_WHERE_CURSOR, call(FIND_WHERE_CURSOR, () -> delegate.findWhere(query, after, limit, sort, direction)));
+  }
+
+  @Override
+  public Collection<V> findWhere(Criteria query, Cursor after, int limit, Iterable<String> sort, Direction direction) throws FindException
+  {
+    nodes(query);
+    return results(FIND_WHERE_CURSOR, call(FIND_WHERE_CURSOR, () -> delegate.findWhere(query, after, limit, sort, direction)));
+  }
+
+  @Override
+  public long count() throws FindException
+  {
+    return call(COUNT, () -> delegate.count());
+  }
+
+  @Override
+  public long countWhere(Criteria query) throws FindException
+  {
+    nodes(query);
+    return call(COUNT_WHERE, () -> delegate.countWhere(query));
+  }
+
+  @Override
+  public Optional<Object> versionAll() throws FindException
+  {
+    return call(VERSION, () -> delegate.versionAll());
+  }
+
+  @Override
+  public Optional<Object> versionWhere(Criteria query) throws FindException
+  {
+    return call(VERSION, () -> delegate.versionWhere(query));
+  }
+
+  @Override
+  public V insert(V value) throws InsertException
+  {
+    return call(INSERT, () -> delegate.insert(value));
+  }
+
+  @Override
+  public Collection<V> insertAll(Iterable<V> values) throws InsertException
+  {
+    batch(INSERT_ALL, values);
+    return results(INSERT_ALL, call(INSERT_ALL, () -> delegate.insertAll(values)));
+  }
+
+  @Override
+  public V update(V value) throws UpdateException
+  {
+    return call(UPDATE, () -> delegate.update(value));
+  }
+
+  @Override
+  public Collection<V> updateAll(Iterable<V> values) throws UpdateException
+  {
+    batch(UPDATE_ALL, values);
+    return results(UPDATE_ALL, call(UPDATE_ALL, () -> delegate.updateAll(values)));
+  }
+
+  @Override
+  public Optional<V> delete(ID identifier) throws DeleteException
+  {
+    return call(DELETE, () -> delegate.delete(identifier));
+  }
+
+  @Override
+  public Collection<V> deleteAll(Iterable<ID> identifiers) throws DeleteException
+  {
+    batch(DELETE_ALL, identifiers);
+    return results(DELETE_ALL, call(DELETE_ALL, () -> delegate.deleteAll(identifiers)));
+  }
+
+  private <T> T call(Method method, Supplier<T> call)
+  {
+    long start = System.nanoTime();
+
+    T result;
+    try
+    {
+      result = call.get();
+    }
+    catch (RuntimeException | Error e)
+    {
+      failed(method, start, e);
+      throw e;
+    }
+
+    calls.get(method).record(System.nanoTime() - start, NANOSECONDS);
+    return result;
+  }
+
+  private void failed(Method method, long start, Throwable e)
+  {
+    // failures are rare, so their timers are looked up as they happen rather than registered for every exception up front.
+    timer(registry, method, OUTCOME_ERROR, e.getClass().getSimpleName()).record(System.nanoTime() - start, NANOSECONDS);
+  }
+
+  private Stream<V> stream(Method method, Supplier<Stream<V>> call)
+  {
+    long start = System.nanoTime();
+
+    Stream<V> values;
+    try
+    {
+      values = call.get();
+    }
+    catch (RuntimeException | Error e)
+    {
+      failed(method, start, e);
+      throw e;
+    }
+
+    InstrumentedSpliterator<V> spliterator = new InstrumentedSpliterator<>(values.spliterator());
+
+    return StreamSupport.stream(spliterator, false).onClose(values::close).onClose(
+      () ->
+      {
+        // a stream that failed while it was read, or while its values were written, isn't a success with fewer results.
+        Throwable failure = spliterator.failure.get();
+        if (failure != null)
+        {
+          failed(method, start, failure);
+          return;
+        }
+
+        calls.get(method).record(System.nanoTime() - start, NANOSECONDS);
+        results.get(method).record(spliterator.count.get());
+      }
+    );
+  }
+
+  private Collection<V> results(Method method, Collection<V> values)
+  {
+    results.get(method).record(values.size());
+    return values;
+  }
+
+  private Page<V> page(Method method, Page<V> page)
+  {
+    results.get(method).record(page.getContent().size());
+    return page;
+  }
+
+  private void batch(Method method, Iterable<?> values)
+  {
+    // lazy iterables, like the validated values of a bulk write, are only counted by their results.
+    if (values instanceof Collection) batches.get(method).record(((Collection<?>)values).size());
+  }
+
+  private void batch(Method method, long[] identifiers)
+  {
+    batches.get(method).record(identifiers.length);
+  }
+
+  private void batch(Method method, int[] identifiers)
+  {
+    batches.get(method).record(identifiers.length);
+  }
+
+  private static Timer timer(MeterRegistry registry, Method method, String outcome, String exception)
+  {
+    return Timer.builder(METER_CALLS)
+      .tag(TAG_METHOD, method.tag)
+      .tag(TAG_OUTCOME, outcome)
+      .tag(TAG_EXCEPTION, exception)
+      .publishPercentileHistogram()
+      .register(registry);
+  }
+
+  private void nodes(Criteria query)
+  {
+    int nodes = 0;
+
+    Deque<Node> pending = new ArrayDeque<>();
+    pending.push(query.node());
+    while (!pending.isEmpty())
+    {
+      Node node = pending.pop();
+      nodes++;
+
+      if (node.getLeft() instanceof Node) pending.push((Node)node.getLeft());
+      if (node.getRight() instanceof Node) pending.push((Node)node.getRight());
+    }
+
+    queryNodes.record(nodes);
+  }
+
+  /**
+   * Counts the values of a stream as they're read, and keeps the first failure reading them or acting on them.
+   */
+  private static class InstrumentedSpliterator<V> implements Spliterator<V>
+  {
+    private final Spliterator<V> delegate;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private InstrumentedSpliterator(Spliterator<V> delegate)
+    {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super V> action)
+    {
+      try
+      {
+        return delegate.tryAdvance(counted(action));
+      }
+      catch (RuntimeException | Error e)
+      {
+        failure.compareAndSet(null, e);
+        throw e;
+      }
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super V> action)
+    {
+      try
+      {
+        delegate.forEachRemaining(counted(action));
+      }
+      catch (RuntimeException | Error e)
+      {
+        failure.compareAndSet(null, e);
+        throw e;
+      }
+    }
+
+    @Override
+    public Spliterator<V> trySplit()
+    {
+      // not split, so every value is counted and every failure seen.
+      return null;
+    }
+
+    @Override
+    public long estimateSize()
+    {
+      return delegate.estimateSize();
+    }
+
+    @Override
+    public int characteristics()
+    {
+      return delegate.characteristics();
+    }
+
+    private Consumer<V> counted(Consumer<? super V> action)
+    {
+      return value ->
+      {
+        count.incrementAndGet();
+        action.accept(value);
+      };
+    }
+  }
+
+  enum Method
+  {
+    FIND("find", false, false),
+    EXISTS("exists", false, false),
+    FIND_ALL("find-all", true, false),
+    FIND_ALL_PAGE("find-all-page", true, false),
+    FIND_ALL_CURSOR("find-all-cursor", true, false),
+    FIND_ALL_IDS("find-all-ids", true, true),
+    STREAM_ALL("stream-all", true, false),
+    FIND_WHERE("find-where", true, false),
+    FIND_WHERE_PAGE("find-where-page", true, false),
+    FIND_WHERE_CURSOR("find-where-cursor", true, false),
+    STREAM_WHERE("stream-where", true, false),
+    COUNT("count", false, false),
+    COUNT_WHERE("count-where", false, false),
+    VERSION("version", false, false),
+    INSERT("insert", false, false),
+    INSERT_ALL("insert-all", true, true),
+    UPDATE("update", false, false),
+    UPDATE_ALL("update-all", true, true),
+    DELETE("delete", false, false),
+    DELETE_ALL("delete-all", true, true);
+
+    private final String tag;
+    private final boolean results;
+    private final boolean batch;
+
+    Method(String tag, boolean results, boolean batch)
+    {
+      this.tag = tag;
+      this.results = results;
+      this.batch = batch;
+    }
+  }
+}
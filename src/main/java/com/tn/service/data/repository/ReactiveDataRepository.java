@@ -0,0 +1,64 @@
+package com.tn.service.data.repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import com.tn.lang.util.Page;
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.domain.Direction;
+
+/**
+ * A non-blocking {@link DataRepository}, failures are signalled with the same exceptions rather than thrown.
+ */
+public interface ReactiveDataRepository<V, ID>
+{
+  Mono<V> find(ID identifier);
+
+  /**
+   * Returns whether a value exists for <code>identifier</code>, by default by reading it with {@link #find(Object)}.
+   */
+  default Mono<Boolean> exists(ID identifier)
+  {
+    return find(identifier).hasElement();
+  }
+
+  Flux<V> findAll(Iterable<String> sort, Direction direction);
+
+  Mono<Page<V>> findAll(int pageNumber, int pageSize, Iterable<String> sort, Direction direction);
+
+  Flux<V> findAll(Iterable<ID> identifiers);
+
+  Flux<V> findWhere(Criteria query, Iterable<String> sort, Direction direction);
+
+  Mono<Page<V>> findWhere(Criteria query, int pageNumber, int pageSize, Iterable<String> sort, Direction direction);
+
+  /**
+   * Returns the number of values. As with {@link DataRepository#count()}, counting isn't supported unless a repository overrides this,
+   * rather than counting by reading every value.
+   */
+  default Mono<Long> count()
+  {
+    return Mono.error(new UnsupportedOperationException("Counting is not supported"));
+  }
+
+  /**
+   * Returns the number of values matching <code>query</code>. As with {@link DataRepository#countWhere(Criteria)}, counting isn't
+   * supported unless a repository overrides this, rather than counting by reading every matching value.
+   */
+  default Mono<Long> countWhere(Criteria query)
+  {
+    return Mono.error(new UnsupportedOperationException("Counting is not supported"));
+  }
+
+  Mono<V> insert(V value);
+
+  Flux<V> insertAll(Iterable<V> values);
+
+  Mono<V> update(V value);
+
+  Flux<V> updateAll(Iterable<V> values);
+
+  Mono<V> delete(ID identifier);
+
+  Flux<V> deleteAll(Iterable<ID> identifiers);
+}
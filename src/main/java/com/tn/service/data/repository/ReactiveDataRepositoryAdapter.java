@@ -0,0 +1,148 @@
+package com.tn.service.data.repository;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import com.tn.lang.util.Page;
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.domain.Direction;
+
+/**
+ * Exposes a blocking {@link DataRepository} as a {@link ReactiveDataRepository} by running its calls on <code>scheduler</code>, which
+ * keeps them off the event loop but still holds a scheduler thread for each call.  Finds and deletes of more than <code>chunkSize</code>
+ * identifiers are split into chunks, at most <code>chunkConcurrency</code> of which run at once, and emitted in the order the identifiers
+ * were given.
+ */
+public class ReactiveDataRepositoryAdapter<V, ID> implements ReactiveDataRepository<V, ID>
+{
+  private final DataRepository<V, ID> delegate;
+  private final Scheduler scheduler;
+  private final int chunkSize;
+  private final int chunkConcurrency;
+
+  public ReactiveDataRepositoryAdapter(DataRepository<V, ID> delegate, Scheduler scheduler)
+  {
+    this(delegate, scheduler, Integer.MAX_VALUE, 1);
+  }
+
+  public ReactiveDataRepositoryAdapter(DataRepository<V, ID> delegate, Scheduler scheduler, int chunkSize, int chunkConcurrency)
+  {
+    if (chunkSize < 1) throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+    if (chunkConcurrency < 1) throw new IllegalArgumentException("Invalid chunk concurrency: " + chunkConcurrency);
+
+    this.delegate = delegate;
+    this.scheduler = scheduler;
+    this.chunkSize = chunkSize;
+    this.chunkConcurrency = chunkConcurrency;
+  }
+
+  @Override
+  public Mono<V> find(ID identifier)
+  {
+    return Mono.defer(() -> Mono.justOrEmpty(delegate.find(identifier))).subscribeOn(scheduler);
+  }
+
+  @Override
+  public Mono<Boolean> exists(ID identifier)
+  {
+    return Mono.fromCallable(() -> delegate.exists(identifier)).subscribeOn(scheduler);
+  }
+
+  @Override
+  public Flux<V> findAll(Iterable<String> sort, Direction direction)
+  {
+    // the stream is read as the subscriber requests values and closed when it completes or cancels.
+    return Flux.fromStream(() -> delegate.streamAll(sort, direction)).subscribeOn(scheduler);
+  }
+
+  @Override
+  public Mono<Page<V>> findAll(int pageNumber, int pageSize, Iterable<String> sort, Direction direction)
+  {
+    return Mono.fromCallable(() -> delegate.findAll(pageNumber, pageSize, sort, direction)).subscribeOn(scheduler);
+  }
+
+  @Override
+  public Flux<V> findAll(Iterable<ID> identifiers)
+  {
+    return chunked(identifiers, delegate::findAll);
+  }
+
+  @Override
+  public Flux<V> findWhere(Criteria query, Iterable<String> sort, Direction direction)
+  {
+    return Flux.fromStream(() -> delegate.streamWhere(query, sort, direction)).subscribeOn(scheduler);
+  }
+
+  @Override
+  public Mono<Page<V>> findWhere(Criteria query, int pageNumber, int pageSize, Iterable<String> sort, Direction direction)
+  {
+    return Mono.fromCallable(() -> delegate.findWhere(query, pageNumber, pageSize, sort, direction)).subscribeOn(scheduler);
+  }
+
+  @Override
+  public Mono<Long> count()
+  {
+    return Mono.fromCallable(delegate::count).subscribeOn(scheduler);
+  }
+
+  @Override
+  public Mono<Long> countWhere(Criteria query)
+  {
+    return Mono.fromCallable(() -> delegate.countWhere(query)).subscribeOn(scheduler);
+  }
+
+  @Override
+  public Mono<V> insert(V value)
+  {
+    return Mono.fromCallable(() -> delegate.insert(value)).subscribeOn(scheduler);
+  }
+
+  @Override
+  public Flux<V> insertAll(Iterable<V> values)
+  {
+    return Flux.defer(() -> Flux.fromIterable(delegate.insertAll(values))).subscribeOn(scheduler);
+  }
+
+  @Override
+  public Mono<V> update(V value)
+  {
+    return Mono.fromCallable(() -> delegate.update(value)).subscribeOn(scheduler);
+  }
+
+  @Override
+  public Flux<V> updateAll(Iterable<V> values)
+  {
+    return Flux.defer(() -> Flux.fromIterable(delegate.updateAll(values))).subscribeOn(scheduler);
+  }
+
+  @Override
+  public Mono<V> delete(ID identifier)
+  {
+    return Mono.defer(() -> Mono.justOrEmpty(delegate.delete(identifier))).subscribeOn(scheduler);
+  }
+
+  @Override
+  public Flux<V> deleteAll(Iterable<ID> identifiers)
+  {
+    return chunked(identifiers, delegate::deleteAll);
+  }
+
+  private Flux<V> chunked(Iterable<ID> identifiers, Function<Iterable<ID>, Collection<V>> call)
+  {
+    // small requests go through as they are, so the repository sees the caller's own collection.
+    if (identifiers instanceof Collection && ((Collection<?>)identifiers).size() <= chunkSize) return call(identifiers, call);
+
+    return Flux.fromIterable(identifiers)
+      .buffer(chunkSize)
+      .flatMapSequential(chunk -> call(chunk, call), chunkConcurrency);
+  }
+
+  private Flux<V> call(Iterable<ID> identifiers, Function<Iterable<ID>, Collection<V>> call)
+  {
+    return Flux.defer(() -> Flux.fromIterable(call.apply(identifiers))).subscribeOn(scheduler);
+  }
+}
@@ -0,0 +1,341 @@
+package com.tn.service.data.repository;
+
+import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.joining;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import com.tn.lang.util.Page;
+import com.tn.query.node.Node;
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.domain.Direction;
+
+/**
+ * Caches the results of queries, keyed by the query, fields, sort, direction and page.  Every write moves the cache on a generation,
+ * an entry is only served from the generation it was loaded in, so a result loaded before a write is never returned after it.
+ * <p>
+ * Whether a query is cached depends on its shape, the names of the fields it filters on, sorted and joined with <code>+</code>, or
+ * {@link #SHAPE_ALL} for a query without a filter.
+ */
+public class ResultCachingDataRepository<V, ID> extends DelegatingDataRepository<V, ID>
+{
+  public static final String SHAPE_ALL = "*";
+
+  private static final String SHAPE_SEPARATOR = "+";
+  private static final int UNPAGED = -1;
+
+  private final Cache<Key, Entry> cache;
+  private final AtomicLong generation;
+  private final Predicate<String> cacheable;
+  private final int maxEntryValues;
+
+  /**
+   * Holds at most <code>maxValues</code> values in total and caches no result of more than <code>maxEntryValues</code> values.
+   */
+  public ResultCachingDataRepository(DataRepository<V, ID> delegate, Predicate<String> cacheable, long maxValues, int maxEntryValues, Duration ttl)
+  {
+    super(delegate);
+
+    if (maxEntryValues < 1) throw new IllegalArgumentException("Invalid max entry values: " + maxEntryValues);
+
+    this.cache = Caffeine.newBuilder().maximumWeight(maxValues).weigher((Key key, Entry entry) -> entry.weight).expireAfterWrite(ttl).recordStats().build();
+    this.generation = new AtomicLong();
+    this.cacheable = cacheable;
+    this.maxEntryValues = maxEntryValues;
+  }
+
+  public CacheStats cacheStats()
+  {
+    return cache.stats();
+  }
+
+  /**
+   * Returns the shape of <code>query</code>, as matched by the predicate given to the constructor.
+   */
+  public static String shape(Criteria query)
+  {
+    if (query == null) return SHAPE_ALL;
+
+    Set<String> fields = new TreeSet<>();
+
+    Deque<Node> pending = new ArrayDeque<>();
+    pending.push(query.node());
+
+    while (!pending.isEmpty())
+    {
+      Node node = pending.pop();
+
+      if (node.getLeft() instanceof String) fields.add((String)node.getLeft());
+      else if (node.getLeft() instanceof Node) pending.push((Node)node.getLeft());
+
+      if (node.getRight() instanceof Node) pending.push((Node)node.getRight());
+    }
+
+    return fields.stream().collect(joining(SHAPE_SEPARATOR));
+  }
+
+  @Override
+  public Collection<V> findAll(Iterable<String> sort, Direction direction) throws FindException
+  {
+    return values(key(null, emptySet(), sort, direction, UNPAGED, UNPAGED), () -> delegate.findAll(sort, direction));
+  }
+
+  @Override
+  public Stream<V> streamAll(Iterable<String> sort, Direction direction) throws FindException
+  {
+    return stream(key(null, emptySet(), sort, direction, UNPAGED, UNPAGED), () -> delegate.streamAll(sort, direction));
+  }
+
+  @Override
+  public Stream<V> streamAll(Collection<String> fields, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return stream(key(null, fields, sort, direction, UNPAGED, UNPAGED), () -> delegate.streamAll(fields, sort, direction));
+  }
+
+  @Override
+  public Page<V> findAll(int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return page(key(null, emptySet(), sort, direction, pageNumber, pageSize), () -> delegate.findAll(pageNumber, pageSize, sort, direction));
+  }
+
+  @Override
+  public Page<V> findAll(Collection<String> fields, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return page(key(null, fields, sort, direction, pageNumber, pageSize), () -> delegate.findAll(fields, pageNumber, pageSize, sort, direction));
+  }
+
+  @Override
+  public Collection<V> findWhere(Criteria query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return values(key(query, emptySet(), sort, direction, UNPAGED, UNPAGED), () -> delegate.findWhere(query, sort, direction));
+  }
+
+  @Override
+  public Stream<V> streamWhere(Criteria query, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return stream(key(query, emptySet(), sort, direction, UNPAGED, UNPAGED), () -> delegate.streamWhere(query, sort, direction));
+  }
+
+  @Override
+  public Stream<V> streamWhere(Criteria query, Collection<String> fields, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return stream(key(query, fields, sort, direction, UNPAGED, UNPAGED), () -> delegate.streamWhere(query, fields, sort, direction));
+  }
+
+  @Override
+  public Page<V> findWhere(Criteria query, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return page(key(query, emptySet(), sort, direction, pageNumber, pageSize), () -> delegate.findWhere(query, pageNumber, pageSize, sort, direction));
+  }
+
+  @Override
+  public Page<V> findWhere(Criteria query, Collection<String> fields, int pageNumber, int pageSize, Iterable<String> sort, Direction direction) throws FindException
+  {
+    return page(key(query, fields, sort, direction, pageNumber, pageSize), () -> delegate.findWhere(query, fields, pageNumber, pageSize, sort, direction));
+  }
+
+  @Override
+  public V insert(V value) throws InsertException
+  {
+    try
+    {
+      return delegate.insert(value);
+    }
+    finally
+    {
+      invalidate();
+    }
+  }
+
+  @Override
+  public Collection<V> insertAll(Iterable<V> values) throws InsertException
+  {
+    try
+    {
+      return delegate.insertAll(values);
+    }
+    finally
+    {
+      invalidate();
+    }
+  }
+
+  @Override
+  public V update(V value) throws UpdateException
+  {
+    try
+    {
+      return delegate.update(value);
+    }
+    finally
+    {
+      invalidate();
+    }
+  }
+
+  @Override
+  public Collection<V> updateAll(Iterable<V> values) throws UpdateException
+  {
+    try
+    {
+      return delegate.updateAll(values);
+    }
+    finally
+    {
+      invalidate();
+    }
+  }
+
+  @Override
+  public Optional<V> delete(ID identifier) throws DeleteException
+  {
+    try
+    {
+      return delegate.delete(identifier);
+    }
+    finally
+    {
+      invalidate();
+    }
+  }
+
+  @Override
+  public Collection<V> deleteAll(Iterable<ID> identifiers) throws DeleteException
+  {
+    try
+    {
+      return delegate.deleteAll(identifiers);
+    }
+    finally
+    {
+      invalidate();
+    }
+  }
+
+  private Key key(Criteria query, Collection<String> fields, Iterable<String> sort, Direction direction, int pageNumber, int pageSize)
+  {
+    if (!cacheable.test(shape(query))) return null;
+
+    List<String> sortFields = new ArrayList<>();
+    sort.forEach(sortFields::add);
+
+    return new Key(query != null ? query.query() : null, Set.copyOf(fields), sortFields, direction, pageNumber, pageSize);
+  }
+
+  private Collection<V> values(Key key, Supplier<Collection<V>> values)
+  {
+    if (key == null) return values.get();
+
+    Collection<V> cached = cached(key);
+    if (cached != null) return cached;
+
+    long generation = this.generation.get();
+    Collection<V> loaded = values.get();
+    if (loaded.size() > maxEntryValues) return loaded;
+
+    List<V> copy = List.copyOf(loaded);
+    put(key, generation, copy, copy.size());
+
+    return copy;
+  }
+
+  private Page<V> page(Key key, Supplier<Page<V>> page)
+  {
+    if (key == null) return page.get();
+
+    Page<V> cached = cached(key);
+    if (cached != null) return cached;
+
+    long generation = this.generation.get();
+    Page<V> loaded = page.get();
+
+    int size = loaded.getContent().size();
+    if (size <= maxEntryValues) put(key, generation, loaded, size);
+
+    return loaded;
+  }
+
+  private Stream<V> stream(Key key, Supplier<Stream<V>> stream)
+  {
+    if (key == null) return stream.get();
+
+    List<V> cached = cached(key);
+    if (cached != null) return cached.stream();
+
+    long generation = this.generation.get();
+    Stream<V> values = stream.get();
+    Iterator<V> iterator = values.iterator();
+
+    // the start of the stream is buffered, if it ends within the limit it's cached, otherwise the rest is streamed after the buffer.
+    List<V> buffered = new ArrayList<>();
+    boolean more;
+    try
+    {
+      while (buffered.size() < maxEntryValues && iterator.hasNext()) buffered.add(iterator.next());
+      more = iterator.hasNext();
+    }
+    catch (RuntimeException e)
+    {
+      values.close();
+      throw e;
+    }
+
+    if (!more)
+    {
+      values.close();
+
+      List<V> copy = List.copyOf(buffered);
+      put(key, generation, copy, copy.size());
+
+      return copy.stream();
+    }
+
+    Stream<V> remaining = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+
+    return Stream.concat(buffered.stream(), remaining).onClose(values::close);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T cached(Key key)
+  {
+    Entry entry = cache.getIfPresent(key);
+
+    return entry != null && entry.generation == generation.get() ? (T)entry.value : null;
+  }
+
+  private void put(Key key, long generation, Object value, int weight)
+  {
+    // a write since the load started may have made the result stale, so it's returned but not cached.
+    if (generation == this.generation.get()) cache.put(key, new Entry(generation, value, Math.max(weight, 1)));
+  }
+
+  private void invalidate()
+  {
+    generation.incrementAndGet();
+    cache.invalidateAll();
+  }
+
+  private record Key(String query, Set<String> fields, List<String> sort, Direction direction, int pageNumber, int pageSize) {}
+
+  private record Entry(long generation, Object value, int weight) {}
+}
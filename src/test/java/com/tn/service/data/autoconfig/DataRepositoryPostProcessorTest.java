@@ -0,0 +1,36 @@
+package com.tn.service.data.autoconfig;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.service.data.repository.DataRepository;
+
+class DataRepositoryPostProcessorTest
+{
+  @Test
+  void shouldCloseDecoratorWhenDestroyed() throws Exception
+  {
+    DataRepository<?, ?> dataRepository = mock(DataRepository.class);
+    DataRepository<?, ?> decorated = mock(DataRepository.class, withSettings().extraInterfaces(AutoCloseable.class));
+
+    DataRepositoryPostProcessor postProcessor = new DataRepositoryPostProcessor(0, delegate -> decorated);
+
+    assertSame(decorated, postProcessor.postProcessAfterInitialization(dataRepository, "dataRepository"));
+
+    postProcessor.destroy();
+
+    verify((AutoCloseable)decorated).close();
+  }
+
+  @Test
+  void shouldNotDecorateOtherBeans()
+  {
+    Object bean = new Object();
+
+    assertSame(bean, new DataRepositoryPostProcessor(0, delegate -> mock(DataRepository.class)).postProcessAfterInitialization(bean, "bean"));
+  }
+}
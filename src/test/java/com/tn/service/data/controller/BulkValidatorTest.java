@@ -0,0 +1,126 @@
+package com.tn.service.data.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Path;
+import jakarta.validation.Validator;
+
+import org.junit.jupiter.api.Test;
+
+class BulkValidatorTest
+{
+  @Test
+  void shouldValidateAll()
+  {
+    List<Integer> values = IntStream.range(0, 10).boxed().toList();
+
+    try (BulkValidator bulkValidator = new BulkValidator(validator(Set.of()), 2, 3, 10))
+    {
+      assertEquals(values, list(bulkValidator.validated(values.iterator())));
+    }
+  }
+
+  @Test
+  void shouldIndexConstraintViolations()
+  {
+    List<Integer> values = IntStream.range(0, 10).boxed().toList();
+    List<Integer> consumed = new ArrayList<>();
+
+    try (BulkValidator bulkValidator = new BulkValidator(validator(Set.of(4, 7)), 2, 3, 10))
+    {
+      BulkConstraintViolationException exception = assertThrows(
+        BulkConstraintViolationException.class,
+        () -> bulkValidator.validated(values.iterator()).forEach(consumed::add)
+      );
+
+      assertEquals(List.of(4, 7), indexes(exception));
+      assertEquals(List.of(0, 1, 2), consumed);
+    }
+  }
+
+  @Test
+  void shouldStopAfterMaxViolations()
+  {
+    List<Integer> values = IntStream.range(0, 10).boxed().toList();
+
+    try (BulkValidator bulkValidator = new BulkValidator(validator(Set.of(0, 1, 2, 3, 4, 5)), 1, 2, 3))
+    {
+      BulkConstraintViolationException exception = assertThrows(
+        BulkConstraintViolationException.class,
+        () -> list(bulkValidator.validated(values.iterator()))
+      );
+
+      assertEquals(List.of(0, 1, 2), indexes(exception));
+      assertEquals(3, exception.getConstraintViolations().size());
+    }
+  }
+
+  @Test
+  void shouldCollectAllViolationsWithoutMax()
+  {
+    List<Integer> values = IntStream.range(0, 10).boxed().toList();
+
+    try (BulkValidator bulkValidator = new BulkValidator(validator(Set.of(1, 5, 9)), 4, 2, 0))
+    {
+      BulkConstraintViolationException exception = assertThrows(
+        BulkConstraintViolationException.class,
+        () -> list(bulkValidator.validated(values.iterator()))
+      );
+
+      assertEquals(List.of(1, 5, 9), indexes(exception));
+    }
+  }
+
+  @Test
+  void shouldFormatIndexedConstraintViolation()
+  {
+    assertEquals("[3].name must not be null", new IndexedConstraintViolation(3, constraintViolation("name")).toString());
+    assertEquals("[3] must not be null", new IndexedConstraintViolation(3, constraintViolation("")).toString());
+  }
+
+  private Validator validator(Collection<Integer> invalid)
+  {
+    Validator validator = mock(Validator.class);
+    when(validator.validate(any())).thenAnswer(
+      invocation -> invalid.contains((Integer)invocation.getArgument(0)) ? Set.of(constraintViolation("value")) : Set.of()
+    );
+
+    return validator;
+  }
+
+  private ConstraintViolation<?> constraintViolation(String path)
+  {
+    Path propertyPath = mock(Path.class);
+    when(propertyPath.toString()).thenReturn(path);
+
+    ConstraintViolation<?> constraintViolation = mock(ConstraintViolation.class);
+    when(constraintViolation.getPropertyPath()).thenReturn(propertyPath);
+    when(constraintViolation.getMessage()).thenReturn("must not be null");
+
+    return constraintViolation;
+  }
+
+  private List<Integer> indexes(BulkConstraintViolationException exception)
+  {
+    return exception.getIndexedConstraintViolations().stream().map(IndexedConstraintViolation::index).toList();
+  }
+
+  private <T> List<T> list(Iterable<T> values)
+  {
+    List<T> list = new ArrayList<>();
+    values.forEach(list::add);
+
+    return list;
+  }
+}
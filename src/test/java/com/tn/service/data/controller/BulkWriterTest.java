@@ -0,0 +1,227 @@
+package com.tn.service.data.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Path;
+import jakarta.validation.Validator;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.service.data.domain.ChunkProgress;
+
+class BulkWriterTest
+{
+  @Test
+  void shouldWriteChunks()
+  {
+    List<Integer> values = IntStream.range(0, 5).boxed().toList();
+    List<List<Integer>> written = new ArrayList<>();
+
+    try (BulkWriter bulkWriter = new BulkWriter(bulkValidator(Set.of()), 1, 1))
+    {
+      try (Stream<ChunkProgress> progress = bulkWriter.write(values.iterator(), 2, chunk -> write(chunk, written)))
+      {
+        assertEquals(
+          List.of(ChunkProgress.written(0, 0, 2), ChunkProgress.written(1, 2, 2), ChunkProgress.written(2, 4, 1)),
+          progress.toList()
+        );
+      }
+    }
+
+    assertEquals(List.of(List.of(0, 1), List.of(2, 3), List.of(4)), written);
+  }
+
+  @Test
+  void shouldStopAtInvalidChunk()
+  {
+    List<Integer> values = IntStream.range(0, 5).boxed().toList();
+    List<List<Integer>> written = new ArrayList<>();
+
+    try (BulkWriter bulkWriter = new BulkWriter(bulkValidator(Set.of(3)), 1, 1))
+    {
+      try (Stream<ChunkProgress> progress = bulkWriter.write(values.iterator(), 2, chunk -> write(chunk, written)))
+      {
+        assertEquals(
+          List.of(ChunkProgress.written(0, 0, 2), ChunkProgress.failed(1, 2, "Invalid body", List.of("[3].value must not be null"))),
+          progress.toList()
+        );
+      }
+    }
+
+    assertEquals(List.of(List.of(0, 1)), written);
+  }
+
+  @Test
+  void shouldStopAtFailedWrite()
+  {
+    List<Integer> values = IntStream.range(0, 5).boxed().toList();
+
+    try (BulkWriter bulkWriter = new BulkWriter(bulkValidator(Set.of()), 1, 1))
+    {
+      try (
+        Stream<ChunkProgress> progress = bulkWriter.write(
+          values.iterator(),
+          2,
+          chunk ->
+          {
+            throw new IllegalStateException("TESTING");
+          }
+        )
+      )
+      {
+        assertEquals(List.of(ChunkProgress.failed(0, 0, "TESTING", null)), progress.toList());
+      }
+    }
+  }
+
+  @Test
+  void shouldRejectWritesOverLimit()
+  {
+    CountDownLatch release = new CountDownLatch(1);
+
+    try (BulkWriter bulkWriter = new BulkWriter(bulkValidator(Set.of()), 1, 1))
+    {
+      try (Stream<ChunkProgress> ignored = bulkWriter.write(blocked(release), 1, chunk -> List.of()))
+      {
+        assertThrows(RejectedExecutionException.class, () -> bulkWriter.write(List.of(1).iterator(), 1, chunk -> List.of()));
+      }
+      finally
+      {
+        release.countDown();
+      }
+    }
+  }
+
+  @Test
+  void shouldReleaseThreadsOfStalledWrite() throws Exception
+  {
+    List<Integer> values = IntStream.range(0, 10).boxed().toList();
+
+    try (BulkWriter bulkWriter = new BulkWriter(bulkValidator(Set.of()), 1, 1, Duration.ofMillis(50)))
+    {
+      // the progress is never consumed, as when a response body is never written.
+      bulkWriter.write(values.iterator(), 1, chunk -> List.of());
+
+      long deadline = System.currentTimeMillis() + 5000;
+      while (true)
+      {
+        try (Stream<ChunkProgress> progress = bulkWriter.write(List.of(1).iterator(), 1, chunk -> write(chunk, new ArrayList<>())))
+        {
+          assertEquals(List.of(ChunkProgress.written(0, 0, 1)), progress.toList());
+          return;
+        }
+        catch (RejectedExecutionException e)
+        {
+          if (System.currentTimeMillis() > deadline) throw e;
+          Thread.sleep(20);
+        }
+      }
+    }
+  }
+
+  @Test
+  void shouldFailWhenPipelineStalls()
+  {
+    List<Integer> values = IntStream.range(0, 10).boxed().toList();
+
+    try (BulkWriter bulkWriter = new BulkWriter(bulkValidator(Set.of()), 1, 1, Duration.ofMillis(50)))
+    {
+      try (
+        Stream<ChunkProgress> progress = bulkWriter.write(
+          values.iterator(),
+          1,
+          chunk ->
+          {
+            sleep(200);
+            return List.of(chunk.iterator().next());
+          }
+        )
+      )
+      {
+        List<ChunkProgress> chunks = progress.toList();
+
+        assertEquals(ChunkProgress.written(0, 0, 1), chunks.get(0));
+        assertEquals(ChunkProgress.failed(chunks.size() - 1, chunks.size() - 1, "Bulk write stalled", null), chunks.get(chunks.size() - 1));
+      }
+    }
+  }
+
+  private Collection<Integer> write(Iterable<Integer> chunk, List<List<Integer>> written)
+  {
+    List<Integer> values = new ArrayList<>();
+    chunk.forEach(values::add);
+    written.add(values);
+
+    return values;
+  }
+
+  private static void sleep(long millis)
+  {
+    try
+    {
+      Thread.sleep(millis);
+    }
+    catch (InterruptedException e)
+    {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private Iterator<Integer> blocked(CountDownLatch latch)
+  {
+    return new Iterator<>()
+    {
+      @Override
+      public boolean hasNext()
+      {
+        try
+        {
+          latch.await();
+          return false;
+        }
+        catch (InterruptedException e)
+        {
+          throw new IllegalStateException(e);
+        }
+      }
+
+      @Override
+      public Integer next()
+      {
+        throw new NoSuchElementException();
+      }
+    };
+  }
+
+  private BulkValidator bulkValidator(Collection<Integer> invalid)
+  {
+    Path propertyPath = mock(Path.class);
+    when(propertyPath.toString()).thenReturn("value");
+
+    ConstraintViolation<?> constraintViolation = mock(ConstraintViolation.class);
+    when(constraintViolation.getPropertyPath()).thenReturn(propertyPath);
+    when(constraintViolation.getMessage()).thenReturn("must not be null");
+
+    Validator validator = mock(Validator.class);
+    when(validator.validate(any())).thenAnswer(invocation -> invalid.contains((Integer)invocation.getArgument(0)) ? Set.of(constraintViolation) : Set.of());
+
+    return new BulkValidator(validator, 1, 10, 10);
+  }
+}
@@ -0,0 +1,367 @@
+package com.tn.service.data.controller;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptySet;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+import static com.tn.service.data.controller.DataController.FIELD_COUNT;
+import static com.tn.service.data.domain.Direction.ASCENDING;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.tn.service.IllegalParameterException;
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.domain.Direction;
+import com.tn.service.data.io.DefaultJsonCodec;
+import com.tn.service.data.parameter.IdentityParser;
+import com.tn.service.data.parameter.QueryBuilder;
+import com.tn.service.data.repository.AsyncDataRepository;
+import com.tn.service.data.repository.Bulkhead;
+import com.tn.service.data.repository.BulkheadFullException;
+import com.tn.service.data.repository.CoalescingDataRepository;
+import com.tn.service.data.repository.DataRepository;
+
+class DataControllerTest
+{
+  private static final String IDENTITY_PARAMETER_NAME = "id";
+  private static final int MAX_IDENTITIES = 2;
+  private static final Duration ABANDON_TIMEOUT = Duration.ofMinutes(1);
+
+  private DataRepository<Value, Integer> dataRepository;
+  private AsyncDataRepository<Value, Integer> asyncDataRepository;
+  private IdentityParser<String, Integer> identityParser;
+  private DataController<Value, Integer> dataController;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp()
+  {
+    dataRepository = mock(DataRepository.class);
+    asyncDataRepository = mock(AsyncDataRepository.class);
+    identityParser = mock(IdentityParser.class);
+
+    dataController = new DataController<>(
+      identityParser,
+      new DefaultJsonCodec<>(new ObjectMapper(), Value.class),
+      null,
+      null,
+      new QueryBuilder(Value.class),
+      dataRepository,
+      asyncDataRepository,
+      IDENTITY_PARAMETER_NAME,
+      MAX_IDENTITIES,
+      ABANDON_TIMEOUT
+    );
+  }
+
+  @Test
+  void shouldGetNotModified()
+  {
+    Value value = new Value(1, "ONE");
+
+    when(identityParser.parse("1")).thenReturn(value.id());
+    when(asyncDataRepository.find(value.id())).thenReturn(completedFuture(Optional.of(value)));
+
+    ResponseEntity<JsonNode> response = dataController.get("1", null, null, null).join();
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertNotNull(response.getHeaders().getETag());
+    assertEquals(List.of(ACCEPT), response.getHeaders().getVary());
+
+    ResponseEntity<JsonNode> conditionalResponse = dataController.get("1", null, null, response.getHeaders().getETag()).join();
+
+    assertEquals(HttpStatus.NOT_MODIFIED, conditionalResponse.getStatusCode());
+    assertEquals(response.getHeaders().getETag(), conditionalResponse.getHeaders().getETag());
+    assertEquals(List.of(ACCEPT), conditionalResponse.getHeaders().getVary());
+    assertNull(conditionalResponse.getBody());
+  }
+
+  @Test
+  void shouldTagEachRepresentation()
+  {
+    Value value = new Value(1, "ONE");
+
+    when(identityParser.parse("1")).thenReturn(value.id());
+    when(asyncDataRepository.find(value.id())).thenReturn(completedFuture(Optional.of(value)));
+
+    String json = dataController.get("1", null, null, null).join().getHeaders().getETag();
+    ResponseEntity<JsonNode> response = dataController.get("1", null, APPLICATION_CBOR_VALUE, json).join();
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertNotEquals(json, response.getHeaders().getETag());
+  }
+
+  @Test
+  void shouldStreamAll() throws Exception
+  {
+    when(dataRepository.streamAll(emptySet(), ASCENDING)).thenReturn(Stream.of(new Value(1, "ONE"), new Value(2, "TWO")));
+
+    ResponseEntity<StreamingResponseBody> response = dataController.stream(new LinkedMultiValueMap<>(), null, ASCENDING, null, null, null).join();
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(APPLICATION_JSON, response.getHeaders().getContentType());
+    assertEquals("[{\"id\":1,\"name\":\"ONE\"},{\"id\":2,\"name\":\"TWO\"}]", body(response));
+  }
+
+  @Test
+  void shouldCoalesceConcurrentStreamWhere() throws Exception
+  {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    when(dataRepository.streamWhere(any(Criteria.class), anyIterable(), any(Direction.class))).thenAnswer(
+      invocation ->
+      {
+        started.countDown();
+        release.await();
+        return Stream.of(new Value(1, "ONE"));
+      }
+    );
+
+    CoalescingDataRepository<Value, Integer> coalescing = new CoalescingDataRepository<>(dataRepository);
+    DataController<Value, Integer> dataController = new DataController<>(
+      identityParser,
+      new DefaultJsonCodec<>(new ObjectMapper(), Value.class),
+      null,
+      null,
+      new QueryBuilder(Value.class),
+      coalescing,
+      asyncDataRepository,
+      IDENTITY_PARAMETER_NAME,
+      MAX_IDENTITIES,
+      ABANDON_TIMEOUT
+    );
+
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("name", "ONE");
+
+    CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> uncheckedBody(dataController.stream(params, null, ASCENDING, null, null, null).join()));
+    started.await();
+    CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> uncheckedBody(dataController.stream(params, null, ASCENDING, null, null, null).join()));
+
+    while (coalescing.coalesced() == 0) Thread.onSpinWait();
+    release.countDown();
+
+    assertEquals("[{\"id\":1,\"name\":\"ONE\"}]", first.get());
+    assertEquals("[{\"id\":1,\"name\":\"ONE\"}]", second.get());
+
+    verify(dataRepository).streamWhere(any(Criteria.class), anyIterable(), any(Direction.class));
+  }
+
+  @Test
+  void shouldNotStreamWhenBulkheadFull()
+  {
+    when(dataRepository.streamAll(emptySet(), ASCENDING)).thenThrow(new BulkheadFullException(Bulkhead.Operation.FIND_WHERE));
+
+    // the stream is opened before the response, so the error can still be reported with its own status.
+    assertThrows(BulkheadFullException.class, () -> dataController.stream(new LinkedMultiValueMap<>(), null, ASCENDING, null, null, null));
+  }
+
+  @Test
+  void shouldCloseStreamWhenWritten() throws Exception
+  {
+    AtomicBoolean closed = new AtomicBoolean();
+    when(dataRepository.streamAll(emptySet(), ASCENDING)).thenReturn(Stream.of(new Value(1, "ONE")).onClose(() -> closed.set(true)));
+
+    ResponseEntity<StreamingResponseBody> response = dataController.stream(new LinkedMultiValueMap<>(), null, ASCENDING, null, null, null).join();
+
+    assertFalse(closed.get());
+    body(response);
+    assertTrue(closed.get());
+  }
+
+  @Test
+  void shouldStreamWithIdsNotModified() throws Exception
+  {
+    Value value1 = new Value(1, "ONE");
+    Value value2 = new Value(2, "TWO");
+
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.put(IDENTITY_PARAMETER_NAME, List.of("1", "2"));
+
+    when(identityParser.parse("1")).thenReturn(value1.id());
+    when(identityParser.parse("2")).thenReturn(value2.id());
+    when(asyncDataRepository.findAll(anyCollection())).thenReturn(completedFuture(List.of(value1, value2)));
+
+    ResponseEntity<StreamingResponseBody> response = dataController.stream(params, null, ASCENDING, null, null, null).join();
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertNotNull(response.getHeaders().getETag());
+    assertEquals("[{\"id\":1,\"name\":\"ONE\"},{\"id\":2,\"name\":\"TWO\"}]", body(response));
+
+    ResponseEntity<StreamingResponseBody> conditionalResponse = dataController.stream(params, null, ASCENDING, null, null, response.getHeaders().getETag()).join();
+
+    assertEquals(HttpStatus.NOT_MODIFIED, conditionalResponse.getStatusCode());
+    assertEquals(List.of(ACCEPT), conditionalResponse.getHeaders().getVary());
+    assertNull(conditionalResponse.getBody());
+  }
+
+  @Test
+  void shouldNotGetPageAsLines()
+  {
+    assertThrows(
+      IllegalParameterException.class,
+      () -> dataController.get(new LinkedMultiValueMap<>(), null, 10, null, null, ASCENDING, null, false, APPLICATION_NDJSON_VALUE, null)
+    );
+    verifyNoInteractions(dataRepository);
+  }
+
+  @Test
+  void shouldCount()
+  {
+    when(asyncDataRepository.count()).thenReturn(completedFuture(3L));
+
+    ResponseEntity<?> response = dataController.get(new LinkedMultiValueMap<>(), null, null, null, null, null, null, true, null, null).join();
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(3L, ((JsonNode)response.getBody()).get(FIELD_COUNT).asLong());
+  }
+
+  @Test
+  void shouldCountWhere()
+  {
+    when(asyncDataRepository.countWhere(any())).thenReturn(completedFuture(1L));
+
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("name", "ONE");
+
+    ResponseEntity<?> response = dataController.get(params, null, null, null, null, null, null, true, null, null).join();
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(1L, ((JsonNode)response.getBody()).get(FIELD_COUNT).asLong());
+  }
+
+  @Test
+  void shouldNotCountWithIdentities()
+  {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add(IDENTITY_PARAMETER_NAME, "1");
+
+    assertThrows(IllegalParameterException.class, () -> dataController.get(params, null, null, null, null, null, null, true, null, null));
+    verifyNoInteractions(asyncDataRepository);
+  }
+
+  @Test
+  void shouldExist()
+  {
+    when(identityParser.parse("1")).thenReturn(1);
+    when(asyncDataRepository.exists(1)).thenReturn(completedFuture(true));
+
+    assertEquals(HttpStatus.OK, dataController.exists("1").join().getStatusCode());
+  }
+
+  @Test
+  void shouldNotExist()
+  {
+    when(identityParser.parse("1")).thenReturn(1);
+    when(asyncDataRepository.exists(1)).thenReturn(completedFuture(false));
+
+    assertEquals(HttpStatus.NOT_FOUND, dataController.exists("1").join().getStatusCode());
+  }
+
+  @Test
+  void shouldNotGetWithTooManyIdentities()
+  {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.put(IDENTITY_PARAMETER_NAME, List.of("1", "2", "3"));
+
+    IllegalParameterException exception = assertThrows(
+      IllegalParameterException.class,
+      () -> dataController.get(params, null, null, null, null, null, null, false, null, null)
+    );
+
+    assertEquals("Too many identities, the limit is " + MAX_IDENTITIES, exception.getMessage());
+    verifyNoInteractions(identityParser, asyncDataRepository);
+  }
+
+  @Test
+  void shouldNotDeleteWithTooManyIdentities()
+  {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.put(IDENTITY_PARAMETER_NAME, List.of("1", "2", "3"));
+
+    assertThrows(IllegalParameterException.class, () -> dataController.delete(params));
+    verifyNoInteractions(identityParser, asyncDataRepository);
+  }
+
+  @Test
+  void shouldGetWithMaxIdentities()
+  {
+    Value value1 = new Value(1, "ONE");
+    Value value2 = new Value(2, "TWO");
+
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.put(IDENTITY_PARAMETER_NAME, List.of("1", "2"));
+
+    when(identityParser.parse("1")).thenReturn(value1.id());
+    when(identityParser.parse("2")).thenReturn(value2.id());
+    when(asyncDataRepository.findAll(anyCollection())).thenReturn(completedFuture(List.of(value1, value2)));
+
+    ResponseEntity<?> response = dataController.get(params, null, null, null, null, null, null, false, null, null).join();
+
+    assertTrue(response.getStatusCode().is2xxSuccessful());
+    assertEquals(2, ((JsonNode)response.getBody()).size());
+  }
+
+  private static String body(ResponseEntity<StreamingResponseBody> response) throws IOException
+  {
+    assertNotNull(response.getBody());
+
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    response.getBody().writeTo(body);
+
+    return body.toString(UTF_8);
+  }
+
+  private static String uncheckedBody(ResponseEntity<StreamingResponseBody> response)
+  {
+    try
+    {
+      return body(response);
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  record Value(Integer id, String name) {}
+}
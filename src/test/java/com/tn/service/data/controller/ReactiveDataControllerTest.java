@@ -0,0 +1,77 @@
+package com.tn.service.data.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import com.tn.service.IllegalParameterException;
+import com.tn.service.data.io.DefaultJsonCodec;
+import com.tn.service.data.parameter.IdentityParser;
+import com.tn.service.data.parameter.QueryBuilder;
+import com.tn.service.data.repository.ReactiveDataRepository;
+
+class ReactiveDataControllerTest
+{
+  private static final String IDENTITY_PARAMETER_NAME = "id";
+  private static final int MAX_IDENTITIES = 2;
+
+  private ReactiveDataRepository<Value, Integer> dataRepository;
+  private IdentityParser<String, Integer> identityParser;
+  private ReactiveDataController<Value, Integer> dataController;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp()
+  {
+    dataRepository = mock(ReactiveDataRepository.class);
+    identityParser = mock(IdentityParser.class);
+
+    dataController = new ReactiveDataController<>(
+      identityParser,
+      new DefaultJsonCodec<>(new ObjectMapper(), Value.class),
+      null,
+      new QueryBuilder(Value.class),
+      dataRepository,
+      IDENTITY_PARAMETER_NAME,
+      MAX_IDENTITIES
+    );
+  }
+
+  @Test
+  void shouldNotGetWithTooManyIdentities()
+  {
+    IllegalParameterException exception = assertThrows(
+      IllegalParameterException.class,
+      () -> dataController.get(tooManyIdentities(), null, null, null, null, null, null, false)
+    );
+
+    assertEquals("Too many identities, the limit is " + MAX_IDENTITIES, exception.getMessage());
+    verifyNoInteractions(identityParser, dataRepository);
+  }
+
+  @Test
+  void shouldNotDeleteWithTooManyIdentities()
+  {
+    assertThrows(IllegalParameterException.class, () -> dataController.delete(tooManyIdentities()));
+    verifyNoInteractions(identityParser, dataRepository);
+  }
+
+  private static MultiValueMap<String, String> tooManyIdentities()
+  {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.put(IDENTITY_PARAMETER_NAME, List.of("1", "2", "3"));
+
+    return params;
+  }
+
+  record Value(Integer id, String name) {}
+}
@@ -0,0 +1,101 @@
+package com.tn.service.data.controller;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class StreamedResponseBodyTest
+{
+  @Test
+  void shouldCloseWhenWritten()
+  {
+    AtomicBoolean closed = new AtomicBoolean();
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    new StreamedResponseBody<>(Stream.of("ONE", "TWO").onClose(() -> closed.set(true)), StreamedResponseBodyTest::write, Duration.ofMinutes(1)).writeTo(body);
+
+    assertEquals("ONETWO", body.toString(UTF_8));
+    assertTrue(closed.get());
+  }
+
+  @Test
+  void shouldCloseWhenWriteFails()
+  {
+    AtomicBoolean closed = new AtomicBoolean();
+
+    StreamedResponseBody<String> streamedResponseBody = new StreamedResponseBody<>(
+      Stream.of("ONE").onClose(() -> closed.set(true)),
+      (values, outputStream) -> { throw new UncheckedIOException(new IOException("TESTING")); },
+      Duration.ofMinutes(1)
+    );
+
+    assertThrows(UncheckedIOException.class, () -> streamedResponseBody.writeTo(OutputStream.nullOutputStream()));
+    assertTrue(closed.get());
+  }
+
+  @Test
+  void shouldCloseWhenAbandoned() throws Exception
+  {
+    CountDownLatch closed = new CountDownLatch(1);
+
+    StreamedResponseBody<String> streamedResponseBody = new StreamedResponseBody<>(
+      Stream.of("ONE").onClose(closed::countDown),
+      StreamedResponseBodyTest::write,
+      Duration.ofMillis(10)
+    );
+
+    assertTrue(closed.await(10, TimeUnit.SECONDS));
+    assertThrows(IllegalStateException.class, () -> streamedResponseBody.writeTo(OutputStream.nullOutputStream()));
+  }
+
+  @Test
+  void shouldNotCloseTwice()
+  {
+    AtomicBoolean closedTwice = new AtomicBoolean();
+    AtomicBoolean closed = new AtomicBoolean();
+
+    StreamedResponseBody<String> streamedResponseBody = new StreamedResponseBody<>(
+      Stream.of("ONE").onClose(() -> closedTwice.set(!closed.compareAndSet(false, true))),
+      StreamedResponseBodyTest::write,
+      Duration.ofMinutes(1)
+    );
+
+    streamedResponseBody.writeTo(OutputStream.nullOutputStream());
+    streamedResponseBody.abandon();
+
+    assertTrue(closed.get());
+    assertFalse(closedTwice.get());
+  }
+
+  private static void write(Stream<String> values, OutputStream outputStream)
+  {
+    values.forEach(
+      value ->
+      {
+        try
+        {
+          outputStream.write(value.getBytes(UTF_8));
+        }
+        catch (IOException e)
+        {
+          throw new UncheckedIOException(e);
+        }
+      }
+    );
+  }
+}
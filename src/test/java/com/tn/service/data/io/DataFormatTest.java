@@ -0,0 +1,31 @@
+package com.tn.service.data.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+class DataFormatTest
+{
+  @Test
+  void shouldFindForMediaType()
+  {
+    assertEquals(Optional.of(DataFormat.JSON), DataFormat.forMediaType("application/json"));
+    assertEquals(Optional.of(DataFormat.CBOR), DataFormat.forMediaType("application/cbor"));
+    assertEquals(Optional.of(DataFormat.SMILE), DataFormat.forMediaType("application/x-jackson-smile"));
+  }
+
+  @Test
+  void shouldFindForMediaTypeWithParameters()
+  {
+    assertEquals(Optional.of(DataFormat.JSON), DataFormat.forMediaType("Application/JSON; charset=UTF-8"));
+  }
+
+  @Test
+  void shouldNotFindForUnknownMediaType()
+  {
+    assertEquals(Optional.empty(), DataFormat.forMediaType("text/plain"));
+    assertEquals(Optional.empty(), DataFormat.forMediaType(null));
+  }
+}
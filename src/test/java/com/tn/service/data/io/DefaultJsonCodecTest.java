@@ -1,16 +1,30 @@
 package com.tn.service.data.io;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 class DefaultJsonCodecTest
 {
-  private static final JsonCodec<Subject> JSON_CODEC = new DefaultJsonCodec<>(new ObjectMapper(), Subject.class);
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final JsonCodec<Subject> JSON_CODEC = new DefaultJsonCodec<>(OBJECT_MAPPER, Subject.class);
 
   @Test
   void shouldHandleObject()
@@ -30,5 +44,162 @@ class DefaultJsonCodecTest
     assertEquals(expectSubjects, JSON_CODEC.readValues(JSON_CODEC.writeValues(expectSubjects)));
   }
 
+  @Test
+  void shouldHandleStream() throws Exception
+  {
+    List<Subject> expectSubjects = List.of(new Subject(1, "ONE"), new Subject(2, "TWO"), new Subject(3, "THREE"));
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    JSON_CODEC.writeValues(expectSubjects.stream(), outputStream);
+
+    assertEquals(expectSubjects, JSON_CODEC.readValues((ArrayNode)OBJECT_MAPPER.readTree(outputStream.toByteArray())));
+  }
+
+  @Test
+  void shouldReadArrayFromStream()
+  {
+    List<Subject> expectSubjects = List.of(new Subject(1, "ONE"), new Subject(2, "TWO"), new Subject(3, "THREE"));
+
+    try (JsonValueReader<Subject> values = JSON_CODEC.readValues(new ByteArrayInputStream(JSON_CODEC.writeValues(expectSubjects).toString().getBytes())))
+    {
+      List<Subject> subjects = new ArrayList<>();
+      values.forEachRemaining(subjects::add);
+
+      assertTrue(values.isArray());
+      assertEquals(expectSubjects, subjects);
+    }
+  }
+
+  @Test
+  void shouldReadObjectFromStream()
+  {
+    Subject expectSubject = new Subject(1, "ONE");
+
+    try (JsonValueReader<Subject> values = JSON_CODEC.readValues(new ByteArrayInputStream(JSON_CODEC.writeValue(expectSubject).toString().getBytes())))
+    {
+      assertFalse(values.isArray());
+      assertEquals(expectSubject, values.next());
+      assertFalse(values.hasNext());
+    }
+  }
+
+  @Test
+  void shouldWriteLines()
+  {
+    List<Subject> expectSubjects = List.of(new Subject(1, "ONE"), new Subject(2, "TWO"));
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    JSON_CODEC.writeLines(expectSubjects.stream(), outputStream);
+
+    assertEquals("{\"id\":1,\"name\":\"ONE\"}\n{\"id\":2,\"name\":\"TWO\"}\n", outputStream.toString());
+  }
+
+  @Test
+  void shouldReadLines()
+  {
+    List<Subject> expectSubjects = List.of(new Subject(1, "ONE"), new Subject(2, "TWO"), new Subject(3, "THREE"));
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    JSON_CODEC.writeLines(expectSubjects.stream(), outputStream);
+
+    try (JsonValueReader<Subject> values = JSON_CODEC.readLines(new ByteArrayInputStream(outputStream.toByteArray())))
+    {
+      List<Subject> subjects = new ArrayList<>();
+      values.forEachRemaining(subjects::add);
+
+      assertTrue(values.isArray());
+      assertEquals(expectSubjects, subjects);
+    }
+  }
+
+  @Test
+  void shouldReadEmptyLines()
+  {
+    try (JsonValueReader<Subject> values = JSON_CODEC.readLines(new ByteArrayInputStream(new byte[0])))
+    {
+      assertTrue(values.isArray());
+      assertFalse(values.hasNext());
+    }
+  }
+
+  @Test
+  void shouldNotReadArrayAsLines()
+  {
+    assertThrows(JsonException.class, () -> JSON_CODEC.readLines(new ByteArrayInputStream("[]".getBytes())));
+  }
+
+  @ParameterizedTest
+  @EnumSource(DataFormat.class)
+  void shouldHandleStreamWithFormat(DataFormat dataFormat)
+  {
+    List<Subject> expectSubjects = List.of(new Subject(1, "ONE"), new Subject(2, "TWO"), new Subject(3, "THREE"));
+    JsonCodec<Subject> jsonCodec = JSON_CODEC.withFormat(dataFormat);
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    jsonCodec.writeValues(expectSubjects.stream(), outputStream);
+
+    try (JsonValueReader<Subject> values = jsonCodec.readValues(new ByteArrayInputStream(outputStream.toByteArray())))
+    {
+      List<Subject> subjects = new ArrayList<>();
+      values.forEachRemaining(subjects::add);
+
+      assertTrue(values.isArray());
+      assertEquals(expectSubjects, subjects);
+    }
+  }
+
+  @Test
+  void shouldWriteSmallerBinaryFormats()
+  {
+    List<Subject> subjects = List.of(new Subject(1, "ONE"), new Subject(2, "TWO"), new Subject(3, "THREE"));
+
+    ByteArrayOutputStream json = new ByteArrayOutputStream();
+    JSON_CODEC.writeValues(subjects.stream(), json);
+
+    ByteArrayOutputStream cbor = new ByteArrayOutputStream();
+    JSON_CODEC.withFormat(DataFormat.CBOR).writeValues(subjects.stream(), cbor);
+
+    assertTrue(cbor.size() < json.size());
+  }
+
+  @Test
+  void shouldReuseFormatCodec()
+  {
+    assertSame(JSON_CODEC, JSON_CODEC.withFormat(DataFormat.JSON));
+    assertSame(JSON_CODEC.withFormat(DataFormat.SMILE), JSON_CODEC.withFormat(DataFormat.SMILE));
+  }
+
+  @Test
+  void shouldWriteFields()
+  {
+    JsonCodec<Subject> jsonCodec = JSON_CODEC.withFields(List.of("name"));
+    List<Subject> subjects = List.of(new Subject(1, "ONE"), new Subject(2, "TWO"));
+
+    assertEquals("{\"name\":\"ONE\"}", jsonCodec.writeValue(subjects.get(0)).toString());
+    assertEquals("[{\"name\":\"ONE\"},{\"name\":\"TWO\"}]", jsonCodec.writeValues(subjects).toString());
+    assertEquals("{\"content\":[{\"name\":\"ONE\"}]}", jsonCodec.writeValue(Map.of("content", subjects.subList(0, 1))).toString());
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    jsonCodec.writeLines(subjects.stream(), outputStream);
+
+    assertEquals("{\"name\":\"ONE\"}\n{\"name\":\"TWO\"}\n", outputStream.toString());
+    assertEquals("{\"id\":1,\"name\":\"ONE\"}", JSON_CODEC.writeValue(subjects.get(0)).toString());
+  }
+
+  @Test
+  void shouldWriteFieldsWithFormat() throws Exception
+  {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    JSON_CODEC.withFields(List.of("id")).withFormat(DataFormat.CBOR).writeValues(Stream.of(new Subject(1, "ONE")), outputStream);
+
+    assertEquals("[{\"id\":1}]", new CBORMapper().readTree(outputStream.toByteArray()).toString());
+  }
+
+  @Test
+  void shouldNotReadScalarFromStream()
+  {
+    assertThrows(JsonException.class, () -> JSON_CODEC.readValues(new ByteArrayInputStream("\"INVALID\"".getBytes())));
+  }
+
   record Subject(int id, String name) {}
 }
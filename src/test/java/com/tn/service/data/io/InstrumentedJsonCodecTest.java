@@ -0,0 +1,87 @@
+package com.tn.service.data.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static com.tn.service.data.io.InstrumentedJsonCodec.METER_BYTES;
+import static com.tn.service.data.io.InstrumentedJsonCodec.TAG_DIRECTION;
+import static com.tn.service.data.io.InstrumentedJsonCodec.TAG_FORMAT;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+class InstrumentedJsonCodecTest
+{
+  private static final List<Subject> SUBJECTS = List.of(new Subject(1, "ONE"), new Subject(2, "TWO"));
+
+  @Test
+  void shouldRecordWrittenBytes()
+  {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    JsonCodec<Subject> jsonCodec = new InstrumentedJsonCodec<>(new DefaultJsonCodec<>(new ObjectMapper(), Subject.class), registry);
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    jsonCodec.writeValues(SUBJECTS.stream(), outputStream);
+
+    DistributionSummary summary = summary(registry, "write", "json");
+    assertEquals(1, summary.count());
+    assertEquals(outputStream.size(), summary.totalAmount());
+  }
+
+  @Test
+  void shouldRecordWrittenLineBytes()
+  {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    JsonCodec<Subject> jsonCodec = new InstrumentedJsonCodec<>(new DefaultJsonCodec<>(new ObjectMapper(), Subject.class), registry);
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    jsonCodec.writeLines(SUBJECTS.stream(), outputStream);
+
+    assertEquals(outputStream.size(), summary(registry, "write", "ndjson").totalAmount());
+  }
+
+  @Test
+  void shouldRecordWrittenBytesWithFormat()
+  {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    JsonCodec<Subject> jsonCodec = new InstrumentedJsonCodec<>(new DefaultJsonCodec<>(new ObjectMapper(), Subject.class), registry);
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    jsonCodec.withFormat(DataFormat.CBOR).writeValues(SUBJECTS.stream(), outputStream);
+
+    assertEquals(outputStream.size(), summary(registry, "write", "cbor").totalAmount());
+    assertEquals(0, summary(registry, "write", "json").count());
+  }
+
+  @Test
+  void shouldRecordReadBytes()
+  {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    JsonCodec<Subject> jsonCodec = new InstrumentedJsonCodec<>(new DefaultJsonCodec<>(new ObjectMapper(), Subject.class), registry);
+
+    byte[] body = jsonCodec.writeValues(SUBJECTS).toString().getBytes();
+
+    List<Subject> subjects = new ArrayList<>();
+    try (JsonValueReader<Subject> values = jsonCodec.readValues(new ByteArrayInputStream(body)))
+    {
+      values.forEachRemaining(subjects::add);
+    }
+
+    assertEquals(SUBJECTS, subjects);
+    assertEquals(body.length, summary(registry, "read", "json").totalAmount());
+  }
+
+  private static DistributionSummary summary(MeterRegistry registry, String direction, String format)
+  {
+    return registry.get(METER_BYTES).tag(TAG_DIRECTION, direction).tag(TAG_FORMAT, format).summary();
+  }
+
+  record Subject(int id, String name) {}
+}
@@ -0,0 +1,57 @@
+package com.tn.service.data.parameter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.tn.service.IllegalParameterException;
+import com.tn.service.data.domain.Cursor;
+
+class CursorParserTest
+{
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  @Test
+  void shouldFormatAndParseCursor()
+  {
+    CursorParser cursorParser = new CursorParser();
+    List<String> keys = List.of("name", "id");
+
+    String cursor = cursorParser.format(OBJECT_MAPPER.valueToTree(new Subject(1, "ONE", "OTHER")), keys);
+
+    assertEquals(new Cursor(Map.of("name", "ONE", "id", 1)), cursorParser.parse(cursor, keys));
+  }
+
+  @ParameterizedTest
+  @NullSource
+  @ValueSource(strings = {"", " "})
+  void shouldParseStart(String raw)
+  {
+    assertEquals(Cursor.START, new CursorParser().parse(raw, List.of("id")));
+  }
+
+  @Test
+  void shouldRejectCursorForOtherSort()
+  {
+    CursorParser cursorParser = new CursorParser();
+    String cursor = cursorParser.format(OBJECT_MAPPER.valueToTree(new Subject(1, "ONE", "OTHER")), List.of("name", "id"));
+
+    assertThrows(IllegalParameterException.class, () -> cursorParser.parse(cursor, List.of("type", "id")));
+  }
+
+  @Test
+  void shouldRejectInvalidCursor()
+  {
+    assertThrows(IllegalParameterException.class, () -> new CursorParser().parse("!INVALID!", List.of("id")));
+  }
+
+  record Subject(int id, String name, String type) {}
+}
@@ -51,6 +51,23 @@ class ParameterIdentityParserTest
     assertTrue(new ParameterIdentityParser<>(identityParser, "id").parse(params).isEmpty());
   }
 
+  @Test
+  void shouldParseIdentityWithFields()
+  {
+    String name = "id";
+    String identity = "1";
+
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add(name, identity);
+    params.add("$fields", "name");
+
+    @SuppressWarnings("unchecked")
+    IdentityParser<String, String> identityParser = mock(IdentityParser.class);
+    when(identityParser.parse(identity)).thenReturn(identity);
+
+    assertEquals(Set.of(identity), new ParameterIdentityParser<>(identityParser, name).parse(params));
+  }
+
   @Test
   void shouldNotParseIdentityWithOtherFields()
   {
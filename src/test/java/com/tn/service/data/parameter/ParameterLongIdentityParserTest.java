@@ -0,0 +1,54 @@
+package com.tn.service.data.parameter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import com.tn.service.IllegalParameterException;
+
+class ParameterLongIdentityParserTest
+{
+  @Test
+  void shouldParseSortedDistinctIdentities()
+  {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("id", "3");
+    params.add("id", "1");
+    params.add("id", "3");
+    params.add("id", "2");
+
+    assertArrayEquals(new long[] {1, 2, 3}, new ParameterLongIdentityParser(new LongIdentityParser(), "id").parse(params));
+  }
+
+  @Test
+  void shouldReturnEmptyWhenIdentityFieldsMissing()
+  {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("$sort", "other");
+
+    assertEquals(0, new ParameterLongIdentityParser(new LongIdentityParser(), "id").parse(params).length);
+  }
+
+  @Test
+  void shouldNotParseInvalidIdentity()
+  {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("id", "X");
+
+    assertThrows(IllegalParameterException.class, () -> new ParameterLongIdentityParser(new LongIdentityParser(), "id").parse(params));
+  }
+
+  @Test
+  void shouldNotParseIdentityWithOtherFields()
+  {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("id", "1");
+    params.add("other", "Random other field");
+
+    assertThrows(IllegalParameterException.class, () -> new ParameterLongIdentityParser(new LongIdentityParser(), "id").parse(params));
+  }
+}
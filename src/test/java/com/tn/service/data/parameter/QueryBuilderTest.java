@@ -1,13 +1,21 @@
 package com.tn.service.data.parameter;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
+import com.tn.query.node.And;
 import com.tn.service.IllegalParameterException;
+import com.tn.service.data.domain.Criteria;
 
 class QueryBuilderTest
 {
@@ -48,6 +56,30 @@ class QueryBuilderTest
     assertEquals("(name=X||name=Y)&&type=Z", queryBuilder.build(params));
   }
 
+  @Test
+  void shouldBuildCriteria()
+  {
+    QueryBuilder queryBuilder = new QueryBuilder(Subject.class);
+
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("q", "name=X||name=Y");
+    params.add("type", "Z");
+
+    Criteria criteria = queryBuilder.criteria(params).orElseThrow();
+
+    assertEquals("(name=X||name=Y)&&type=Z", criteria.query());
+    assertInstanceOf(And.class, criteria.node());
+  }
+
+  @Test
+  void shouldBuildEmptyCriteria()
+  {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("$sort", "name");
+
+    assertTrue(new QueryBuilder(Subject.class).criteria(params).isEmpty());
+  }
+
   @Test
   void shouldRejectUnknownParam()
   {
@@ -114,6 +146,153 @@ class QueryBuilderTest
     assertThrows(IllegalParameterException.class, () -> queryBuilder.build(params));
   }
 
+  @Test
+  void shouldCacheQuery()
+  {
+    QueryBuilder queryBuilder = new QueryBuilder(Subject.class);
+
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("q", "name=X||name=Y");
+    params.add("$sort", "name");
+
+    assertEquals("(name=X||name=Y)", queryBuilder.build(params));
+
+    params.set("$sort", "type");
+
+    assertEquals("(name=X||name=Y)", queryBuilder.build(params));
+    assertEquals(1, queryBuilder.cacheStats().hitCount());
+    assertEquals(1, queryBuilder.cacheStats().missCount());
+  }
+
+  @Test
+  void shouldNotCacheRejectedQuery()
+  {
+    QueryBuilder queryBuilder = new QueryBuilder(Subject.class);
+
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("q", "unknown=!");
+
+    assertThrows(IllegalParameterException.class, () -> queryBuilder.build(params));
+    assertThrows(IllegalParameterException.class, () -> queryBuilder.build(params));
+    assertEquals(0, queryBuilder.cacheStats().hitCount());
+  }
+
+  @Test
+  void shouldCheckFields()
+  {
+    QueryBuilder queryBuilder = new QueryBuilder(Subject.class);
+
+    assertEquals(Set.of("name", "type"), queryBuilder.fields(List.of("name", " type", "name")));
+  }
+
+  @Test
+  void shouldNotCheckUnknownFields()
+  {
+    QueryBuilder queryBuilder = new QueryBuilder(Subject.class, "id");
+
+    assertThrows(IllegalParameterException.class, () -> queryBuilder.fields(List.of("name", "id")));
+  }
+
+  @Test
+  void shouldRejectTooManyValues()
+  {
+    QueryBuilder queryBuilder = new QueryBuilder(Subject.class, new QueryLimits(100, 2, 100, 100));
+
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.addAll("name", List.of("X", "Y", "Z"));
+
+    IllegalParameterException e = assertThrows(IllegalParameterException.class, () -> queryBuilder.build(params));
+    assertEquals("Too many values for name, the limit is 2", e.getMessage());
+  }
+
+  @Test
+  void shouldRejectLongQuery()
+  {
+    QueryBuilder queryBuilder = new QueryBuilder(Subject.class, new QueryLimits(10, 100, 100, 100));
+
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("q", "name=X||name=Y");
+
+    assertThrows(IllegalParameterException.class, () -> queryBuilder.build(params));
+  }
+
+  @Test
+  void shouldRejectLongCombinedQuery()
+  {
+    QueryBuilder queryBuilder = new QueryBuilder(Subject.class, new QueryLimits(10, 100, 100, 100));
+
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("name", "X");
+    params.add("type", "Y");
+
+    assertThrows(IllegalParameterException.class, () -> queryBuilder.build(params));
+  }
+
+  @Test
+  void shouldRejectLargeQuery()
+  {
+    QueryBuilder queryBuilder = new QueryBuilder(Subject.class, new QueryLimits(100, 100, 5, 100));
+
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("q", "name=W||name=X||name=Y||name=Z");
+
+    IllegalParameterException e = assertThrows(IllegalParameterException.class, () -> queryBuilder.build(params));
+    assertEquals("Query too large, the limit is 5 terms", e.getMessage());
+  }
+
+  @Test
+  void shouldRejectDeepQuery()
+  {
+    QueryBuilder queryBuilder = new QueryBuilder(Subject.class, new QueryLimits(10000, 100, 10000, 5));
+
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("q", String.join("||", Collections.nCopies(40, "name=X")));
+
+    IllegalParameterException e = assertThrows(IllegalParameterException.class, () -> queryBuilder.build(params));
+    assertEquals("Query too deep, the limit is 5 levels", e.getMessage());
+  }
+
+  @Test
+  void shouldBuildQueryWithinLimits()
+  {
+    QueryBuilder queryBuilder = new QueryBuilder(Subject.class, new QueryLimits(100, 2, 7, 100));
+
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.addAll("name", List.of("X", "Y"));
+    params.add("type", "Z");
+
+    assertEquals("(name=X||name=Y)&&type=Z", queryBuilder.build(params));
+  }
+
+  @Test
+  void shouldBuildCanonicalQuery()
+  {
+    QueryBuilder queryBuilder = new QueryBuilder(Subject.class);
+
+    MultiValueMap<String, String> params1 = new LinkedMultiValueMap<>();
+    params1.add("type", "Z");
+    params1.addAll("name", List.of("Y", "X", " Y"));
+
+    MultiValueMap<String, String> params2 = new LinkedMultiValueMap<>();
+    params2.addAll("name", List.of("X", "Y"));
+    params2.add("type", "Z");
+
+    assertEquals("(name=X||name=Y)&&type=Z", queryBuilder.build(params1));
+    assertEquals("(name=X||name=Y)&&type=Z", queryBuilder.build(params2));
+    assertEquals(1, queryBuilder.cacheStats().hitCount());
+  }
+
+  @Test
+  void shouldBuildQueryWithoutDuplicateValues()
+  {
+    QueryBuilder queryBuilder = new QueryBuilder(Subject.class);
+
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.addAll("name", List.of("X", "X"));
+
+    assertEquals("name=X", queryBuilder.build(params));
+  }
+
   @SuppressWarnings("unused")
   private static class Parent
   {
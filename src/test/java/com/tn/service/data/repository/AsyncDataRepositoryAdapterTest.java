@@ -0,0 +1,175 @@
+package com.tn.service.data.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static com.tn.service.data.repository.DataRepositoryFixtures.dataRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.tn.service.data.repository.DataRepositoryFixtures.LongValue;
+
+class AsyncDataRepositoryAdapterTest
+{
+  private ExecutorService executor;
+
+  @BeforeEach
+  void createExecutor()
+  {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterEach
+  void shutdownExecutor()
+  {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldFind() throws Exception
+  {
+    LongValue value = new LongValue(1L, "ONE");
+    AtomicReference<Thread> thread = new AtomicReference<>();
+
+    DataRepository<LongValue, Long> delegate = dataRepository();
+    when(delegate.find(value.id())).thenAnswer(
+      invocation ->
+      {
+        thread.set(Thread.currentThread());
+        return Optional.of(value);
+      }
+    );
+
+    assertEquals(Optional.of(value), new AsyncDataRepositoryAdapter<>(delegate, executor, executor, 10).find(value.id()).get());
+    assertNotSame(Thread.currentThread(), thread.get());
+  }
+
+  @Test
+  void shouldFindAllWithoutChunks() throws Exception
+  {
+    LongValue value1 = new LongValue(1L, "ONE");
+    LongValue value2 = new LongValue(2L, "TWO");
+
+    DataRepository<LongValue, Long> delegate = dataRepository();
+    when(delegate.findAll(Set.of(value1.id(), value2.id()))).thenReturn(List.of(value1, value2));
+
+    AsyncDataRepository<LongValue, Long> dataRepository = new AsyncDataRepositoryAdapter<>(delegate, executor, executor, 10);
+
+    assertEquals(List.of(value1, value2), dataRepository.findAll(Set.of(value1.id(), value2.id())).get());
+  }
+
+  @Test
+  void shouldFindAllInChunks() throws Exception
+  {
+    DataRepository<LongValue, Long> delegate = dataRepository();
+    when(delegate.findAll(any(long[].class))).thenAnswer(
+      invocation -> LongStream.of(invocation.<long[]>getArgument(0)).mapToObj(id -> new LongValue(id, "VALUE")).toList()
+    );
+
+    AsyncDataRepository<LongValue, Long> dataRepository = new AsyncDataRepositoryAdapter<>(delegate, executor, executor, 3);
+
+    Collection<LongValue> values = dataRepository.findAll(LongStream.range(0, 10).toArray()).get();
+
+    assertEquals(LongStream.range(0, 10).mapToObj(id -> new LongValue(id, "VALUE")).toList(), values);
+    verify(delegate, times(4)).findAll(any(long[].class));
+  }
+
+  @Test
+  void shouldRunOverflowChunksOnExecutor() throws Exception
+  {
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+    DataRepository<LongValue, Long> delegate = dataRepository();
+    when(delegate.findAll(any(long[].class))).thenAnswer(
+      invocation ->
+      {
+        threads.add(Thread.currentThread());
+        return List.of();
+      }
+    );
+
+    // a chunk executor that runs each chunk on the submitting thread, as a full pool does.
+    AsyncDataRepository<LongValue, Long> dataRepository = new AsyncDataRepositoryAdapter<>(delegate, executor, Runnable::run, 3);
+    dataRepository.findAll(LongStream.range(0, 10).toArray()).get();
+
+    assertFalse(threads.isEmpty());
+    assertFalse(threads.contains(Thread.currentThread()));
+  }
+
+  @Test
+  void shouldDeleteAllInChunksInRequestOrder() throws Exception
+  {
+    List<Long> identities = List.of(5L, 3L, 9L, 1L, 7L);
+
+    DataRepository<LongValue, Long> delegate = dataRepository();
+    when(delegate.deleteAll(any())).thenAnswer(
+      invocation ->
+      {
+        List<LongValue> values = new ArrayList<>();
+        invocation.<Iterable<Long>>getArgument(0).forEach(id -> values.add(new LongValue(id, "VALUE")));
+
+        return values;
+      }
+    );
+
+    try (AsyncDataRepositoryAdapter<LongValue, Long> dataRepository = new AsyncDataRepositoryAdapter<>(delegate, Runnable::run, 2, 2))
+    {
+      assertEquals(identities.stream().map(id -> new LongValue(id, "VALUE")).toList(), dataRepository.deleteAll(identities).get());
+    }
+
+    verify(delegate, times(3)).deleteAll(any());
+  }
+
+  @Test
+  void shouldCompleteExceptionally()
+  {
+    LongValue value = new LongValue(1L, "ONE");
+
+    DataRepository<LongValue, Long> delegate = dataRepository();
+    when(delegate.insert(value)).thenThrow(new InsertException("TESTING"));
+
+    CompletableFuture<LongValue> inserted = new AsyncDataRepositoryAdapter<>(delegate, executor, executor, 10).insert(value);
+
+    ExecutionException e = assertThrows(ExecutionException.class, inserted::get);
+    assertInstanceOf(InsertException.class, e.getCause());
+  }
+
+  @Test
+  void shouldCompleteOnCallingThread()
+  {
+    DataRepository<LongValue, Long> delegate = dataRepository();
+    when(delegate.exists(1L)).thenReturn(false);
+
+    CompletableFuture<Boolean> exists = new AsyncDataRepositoryAdapter<>(delegate, Runnable::run, Runnable::run, 10).exists(1L);
+
+    assertFalse(exists.getNow(true));
+  }
+
+  @Test
+  void shouldNotCreateWithInvalidChunkSize()
+  {
+    assertThrows(IllegalArgumentException.class, () -> new AsyncDataRepositoryAdapter<>(dataRepository(), executor, executor, 0));
+  }
+}
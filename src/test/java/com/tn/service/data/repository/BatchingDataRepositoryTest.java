@@ -0,0 +1,97 @@
+package com.tn.service.data.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static com.tn.service.data.repository.DataRepositoryFixtures.dataRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.service.data.repository.DataRepositoryFixtures.Value;
+
+class BatchingDataRepositoryTest
+{
+  @Test
+  void shouldBatchFindWhenFull() throws Exception
+  {
+    Value value1 = new Value(1, "ONE");
+    Value value2 = new Value(2, "TWO");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.findAll(any())).thenReturn(List.of(value2, value1));
+
+    try (BatchingDataRepository<Value, Integer> dataRepository = new BatchingDataRepository<>(delegate, Value::id, 2, Duration.ofMinutes(1), 1))
+    {
+      CompletableFuture<Optional<Value>> first = CompletableFuture.supplyAsync(() -> dataRepository.find(value1.id()));
+
+      assertEquals(Optional.of(value2), dataRepository.find(value2.id()));
+      assertEquals(Optional.of(value1), first.get());
+      assertEquals(1, dataRepository.batches());
+      assertEquals(2, dataRepository.averageBatchSize());
+    }
+
+    verify(delegate).findAll(any());
+  }
+
+  @Test
+  void shouldBatchFindWhenWindowCloses()
+  {
+    Value value = new Value(1, "ONE");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.findAll(List.of(value.id()))).thenReturn(List.of(value));
+
+    try (BatchingDataRepository<Value, Integer> dataRepository = new BatchingDataRepository<>(delegate, Value::id, 200, Duration.ofMillis(2), 1))
+    {
+      assertEquals(Optional.of(value), dataRepository.find(value.id()));
+      assertEquals(1, dataRepository.batches());
+    }
+  }
+
+  @Test
+  void shouldFindMissing()
+  {
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.findAll(List.of(1))).thenReturn(List.of());
+
+    try (BatchingDataRepository<Value, Integer> dataRepository = new BatchingDataRepository<>(delegate, Value::id, 1, Duration.ofMinutes(1), 1))
+    {
+      assertTrue(dataRepository.find(1).isEmpty());
+    }
+  }
+
+  @Test
+  void shouldRethrowRepositoryException()
+  {
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.findAll(List.of(1))).thenThrow(new FindException(new IllegalStateException("TESTING")));
+
+    try (BatchingDataRepository<Value, Integer> dataRepository = new BatchingDataRepository<>(delegate, Value::id, 1, Duration.ofMinutes(1), 1))
+    {
+      assertThrows(FindException.class, () -> dataRepository.find(1));
+    }
+  }
+
+  @Test
+  void shouldCompleteWaitersOnError()
+  {
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.findAll(any())).thenThrow(new AssertionError("TESTING"));
+
+    // the batch is loaded on the scheduler's thread, so the waiter only returns if the error completes its future.
+    try (BatchingDataRepository<Value, Integer> dataRepository = new BatchingDataRepository<>(delegate, Value::id, 200, Duration.ofMillis(2), 1))
+    {
+      assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(AssertionError.class, () -> dataRepository.find(1)));
+    }
+  }
+}
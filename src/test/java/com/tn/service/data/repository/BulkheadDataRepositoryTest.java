@@ -0,0 +1,128 @@
+package com.tn.service.data.repository;
+
+import static java.util.Collections.emptySet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import static com.tn.service.data.domain.Direction.ASCENDING;
+import static com.tn.service.data.repository.Bulkhead.Operation.DELETE;
+import static com.tn.service.data.repository.Bulkhead.Operation.FIND;
+import static com.tn.service.data.repository.Bulkhead.Operation.FIND_WHERE;
+import static com.tn.service.data.repository.Bulkhead.Operation.WRITE;
+import static com.tn.service.data.repository.DataRepositoryFixtures.dataRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.service.data.repository.DataRepositoryFixtures.Value;
+
+class BulkheadDataRepositoryTest
+{
+  @Test
+  void shouldFind()
+  {
+    Value value = new Value(1, "ONE");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.find(value.id())).thenReturn(Optional.of(value));
+
+    Bulkhead bulkhead = bulkhead(1);
+
+    assertEquals(Optional.of(value), new BulkheadDataRepository<>(delegate, bulkhead).find(value.id()));
+    assertEquals(0, bulkhead.inUse(FIND));
+  }
+
+  @Test
+  void shouldReleaseOnException()
+  {
+    Value value = new Value(1, "ONE");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.insert(value)).thenThrow(new InsertException("TESTING"));
+
+    Bulkhead bulkhead = bulkhead(1);
+
+    assertThrows(InsertException.class, () -> new BulkheadDataRepository<>(delegate, bulkhead).insert(value));
+    assertEquals(0, bulkhead.inUse(WRITE));
+  }
+
+  @Test
+  void shouldRejectWhenFull() throws Exception
+  {
+    Value value = new Value(1, "ONE");
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.find(value.id())).thenAnswer(
+      invocation ->
+      {
+        started.countDown();
+        release.await();
+        return Optional.of(value);
+      }
+    );
+    when(delegate.delete(value.id())).thenReturn(Optional.of(value));
+
+    Bulkhead bulkhead = bulkhead(1);
+    BulkheadDataRepository<Value, Integer> dataRepository = new BulkheadDataRepository<>(delegate, bulkhead);
+
+    CompletableFuture<Optional<Value>> first = CompletableFuture.supplyAsync(() -> dataRepository.find(value.id()));
+    started.await();
+
+    BulkheadFullException e = assertThrows(BulkheadFullException.class, () -> dataRepository.find(value.id()));
+    assertEquals(FIND, e.getOperation());
+    assertEquals(1, bulkhead.rejected(FIND));
+
+    // other operations have their own permits.
+    assertEquals(Optional.of(value), dataRepository.delete(value.id()));
+
+    release.countDown();
+
+    assertEquals(Optional.of(value), first.get());
+    assertEquals(0, bulkhead.inUse(FIND));
+    assertEquals(0, bulkhead.rejected(DELETE));
+  }
+
+  @Test
+  void shouldHoldStreamPermitUntilClosed()
+  {
+    Value value = new Value(1, "ONE");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.streamAll(emptySet(), ASCENDING)).thenReturn(Stream.of(value));
+
+    Bulkhead bulkhead = bulkhead(1);
+    BulkheadDataRepository<Value, Integer> dataRepository = new BulkheadDataRepository<>(delegate, bulkhead);
+
+    try (Stream<Value> values = dataRepository.streamAll(emptySet(), ASCENDING))
+    {
+      assertEquals(1, bulkhead.inUse(FIND_WHERE));
+      assertThrows(BulkheadFullException.class, () -> dataRepository.count());
+      assertEquals(List.of(value), values.toList());
+    }
+
+    assertEquals(0, bulkhead.inUse(FIND_WHERE));
+  }
+
+  @Test
+  void shouldNotCreateWithInvalidLimit()
+  {
+    assertThrows(IllegalArgumentException.class, () -> new Bulkhead(Map.of(FIND, 1, FIND_WHERE, 1, WRITE, 1, DELETE, 0), Duration.ZERO));
+    assertThrows(IllegalArgumentException.class, () -> new Bulkhead(Map.of(FIND, 1), Duration.ZERO));
+  }
+
+  private static Bulkhead bulkhead(int limit)
+  {
+    return new Bulkhead(Map.of(FIND, limit, FIND_WHERE, limit, WRITE, limit, DELETE, limit), Duration.ZERO);
+  }
+}
@@ -0,0 +1,202 @@
+package com.tn.service.data.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static com.tn.service.data.repository.DataRepositoryFixtures.dataRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.service.data.repository.DataRepositoryFixtures.Value;
+
+class CachingDataRepositoryTest
+{
+  private static final Duration TTL = Duration.ofMinutes(1);
+
+  @Test
+  void shouldCacheFind()
+  {
+    Value value = new Value(1, "ONE");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.find(value.id())).thenReturn(Optional.of(value));
+
+    DataRepository<Value, Integer> dataRepository = new CachingDataRepository<>(delegate, Value::id, 10, TTL);
+
+    assertEquals(Optional.of(value), dataRepository.find(value.id()));
+    assertEquals(Optional.of(value), dataRepository.find(value.id()));
+
+    verify(delegate).find(value.id());
+  }
+
+  @Test
+  void shouldNotCacheMissingFind()
+  {
+    int id = 1;
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.find(id)).thenReturn(Optional.empty());
+
+    DataRepository<Value, Integer> dataRepository = new CachingDataRepository<>(delegate, Value::id, 10, TTL);
+
+    assertTrue(dataRepository.find(id).isEmpty());
+    assertTrue(dataRepository.find(id).isEmpty());
+
+    verify(delegate, times(2)).find(id);
+  }
+
+  @Test
+  void shouldExistFromCache()
+  {
+    Value value = new Value(1, "ONE");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.find(value.id())).thenReturn(Optional.of(value));
+
+    DataRepository<Value, Integer> dataRepository = new CachingDataRepository<>(delegate, Value::id, 10, TTL);
+    dataRepository.find(value.id());
+
+    assertTrue(dataRepository.exists(value.id()));
+
+    verify(delegate, never()).exists(value.id());
+  }
+
+  @Test
+  void shouldExistFromDelegate()
+  {
+    int id = 1;
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.exists(id)).thenReturn(false);
+
+    DataRepository<Value, Integer> dataRepository = new CachingDataRepository<>(delegate, Value::id, 10, TTL);
+
+    assertFalse(dataRepository.exists(id));
+
+    verify(delegate, never()).find(id);
+  }
+
+  @Test
+  void shouldFindAllMissing()
+  {
+    Value value1 = new Value(1, "ONE");
+    Value value2 = new Value(2, "TWO");
+    Value value3 = new Value(3, "THREE");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.find(value2.id())).thenReturn(Optional.of(value2));
+    when(delegate.findAll(List.of(value1.id(), value3.id()))).thenReturn(List.of(value3, value1));
+
+    DataRepository<Value, Integer> dataRepository = new CachingDataRepository<>(delegate, Value::id, 10, TTL);
+    dataRepository.find(value2.id());
+
+    assertEquals(List.of(value1, value2, value3), dataRepository.findAll(List.of(value1.id(), value2.id(), value3.id())));
+    assertEquals(List.of(value3, value1), dataRepository.findAll(List.of(value3.id(), value1.id())));
+
+    verify(delegate).findAll(any());
+  }
+
+  @Test
+  void shouldNotCacheFindAllLoadedDuringWrite()
+  {
+    Value value = new Value(1, "ONE");
+    Value updated = new Value(1, "UPDATED");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    DataRepository<Value, Integer> dataRepository = new CachingDataRepository<>(delegate, Value::id, 10, TTL);
+
+    // the write completes while the stale value is being loaded.
+    when(delegate.findAll(List.of(value.id()))).thenAnswer(
+      invocation ->
+      {
+        dataRepository.update(updated);
+        return List.of(value);
+      }
+    ).thenReturn(List.of(updated));
+
+    assertEquals(List.of(value), dataRepository.findAll(List.of(value.id())));
+    assertEquals(List.of(updated), dataRepository.findAll(List.of(value.id())));
+  }
+
+  @Test
+  void shouldInvalidateOnUpdate()
+  {
+    Value value = new Value(1, "ONE");
+    Value updated = new Value(1, "UPDATED");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.find(value.id())).thenReturn(Optional.of(value), Optional.of(updated));
+    when(delegate.update(updated)).thenReturn(updated);
+
+    DataRepository<Value, Integer> dataRepository = new CachingDataRepository<>(delegate, Value::id, 10, TTL);
+
+    assertEquals(Optional.of(value), dataRepository.find(value.id()));
+    dataRepository.update(updated);
+    assertEquals(Optional.of(updated), dataRepository.find(value.id()));
+  }
+
+  @Test
+  void shouldInvalidateOnUpdateAll()
+  {
+    Value value = new Value(1, "ONE");
+    Value updated = new Value(1, "UPDATED");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.find(value.id())).thenReturn(Optional.of(value), Optional.of(updated));
+    when(delegate.updateAll(any())).thenAnswer(invocation -> list(invocation.getArgument(0)));
+
+    DataRepository<Value, Integer> dataRepository = new CachingDataRepository<>(delegate, Value::id, 10, TTL);
+
+    assertEquals(Optional.of(value), dataRepository.find(value.id()));
+    assertEquals(List.of(updated), dataRepository.updateAll(List.of(updated)));
+    assertEquals(Optional.of(updated), dataRepository.find(value.id()));
+  }
+
+  @Test
+  void shouldInvalidateOnDelete()
+  {
+    Value value = new Value(1, "ONE");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.find(value.id())).thenReturn(Optional.of(value), Optional.empty());
+    when(delegate.delete(value.id())).thenReturn(Optional.of(value));
+
+    DataRepository<Value, Integer> dataRepository = new CachingDataRepository<>(delegate, Value::id, 10, TTL);
+
+    assertEquals(Optional.of(value), dataRepository.find(value.id()));
+    dataRepository.delete(value.id());
+    assertTrue(dataRepository.find(value.id()).isEmpty());
+  }
+
+  @Test
+  void shouldInvalidateOnDeleteAll()
+  {
+    Value value = new Value(1, "ONE");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.find(value.id())).thenReturn(Optional.of(value), Optional.empty());
+    when(delegate.deleteAll(List.of(value.id()))).thenReturn(List.of(value));
+
+    DataRepository<Value, Integer> dataRepository = new CachingDataRepository<>(delegate, Value::id, 10, TTL);
+
+    assertEquals(Optional.of(value), dataRepository.find(value.id()));
+    dataRepository.deleteAll(List.of(value.id()));
+    assertTrue(dataRepository.find(value.id()).isEmpty());
+  }
+
+  private static List<Value> list(Iterable<Value> values)
+  {
+    return StreamSupport.stream(values.spliterator(), false).toList();
+  }
+}
@@ -0,0 +1,139 @@
+package com.tn.service.data.repository;
+
+import static java.util.Collections.emptySet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static com.tn.query.Query.parse;
+import static com.tn.service.data.domain.Direction.ASCENDING;
+import static com.tn.service.data.repository.DataRepositoryFixtures.dataRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.repository.DataRepositoryFixtures.Value;
+
+class CoalescingDataRepositoryTest
+{
+  private static final Criteria QUERY = new Criteria("name=ONE", parse("name=ONE"));
+
+  @Test
+  void shouldCoalesceConcurrentFind() throws Exception
+  {
+    Value value = new Value(1, "ONE");
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.find(value.id())).thenAnswer(
+      invocation ->
+      {
+        started.countDown();
+        release.await();
+        return Optional.of(value);
+      }
+    );
+
+    CoalescingDataRepository<Value, Integer> dataRepository = new CoalescingDataRepository<>(delegate);
+
+    CompletableFuture<Optional<Value>> first = CompletableFuture.supplyAsync(() -> dataRepository.find(value.id()));
+    started.await();
+    CompletableFuture<Optional<Value>> second = CompletableFuture.supplyAsync(() -> dataRepository.find(value.id()));
+
+    while (dataRepository.coalesced() == 0) Thread.onSpinWait();
+    release.countDown();
+
+    assertEquals(Optional.of(value), first.get());
+    assertEquals(Optional.of(value), second.get());
+    assertEquals(2, dataRepository.calls());
+    assertEquals(1, dataRepository.coalesced());
+
+    verify(delegate).find(value.id());
+  }
+
+  @Test
+  void shouldCoalesceConcurrentStreamWhere() throws Exception
+  {
+    List<Value> values = List.of(new Value(1, "ONE"), new Value(2, "TWO"));
+    AtomicInteger closed = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.streamWhere(QUERY, emptySet(), ASCENDING)).thenAnswer(
+      invocation ->
+      {
+        started.countDown();
+        release.await();
+        return values.stream().onClose(closed::incrementAndGet);
+      }
+    );
+
+    CoalescingDataRepository<Value, Integer> dataRepository = new CoalescingDataRepository<>(delegate);
+
+    CompletableFuture<List<Value>> first = CompletableFuture.supplyAsync(() -> dataRepository.streamWhere(QUERY, emptySet(), ASCENDING).toList());
+    started.await();
+    CompletableFuture<List<Value>> second = CompletableFuture.supplyAsync(() -> dataRepository.findWhere(QUERY, emptySet(), ASCENDING).stream().toList());
+
+    while (dataRepository.coalesced() == 0) Thread.onSpinWait();
+    release.countDown();
+
+    assertEquals(values, first.get());
+    assertEquals(values, second.get());
+    assertEquals(1, closed.get());
+
+    verify(delegate).streamWhere(QUERY, emptySet(), ASCENDING);
+  }
+
+  @Test
+  void shouldNotCoalesceSequentialFind()
+  {
+    Value value = new Value(1, "ONE");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.find(value.id())).thenReturn(Optional.of(value));
+
+    CoalescingDataRepository<Value, Integer> dataRepository = new CoalescingDataRepository<>(delegate);
+
+    assertEquals(Optional.of(value), dataRepository.find(value.id()));
+    assertEquals(Optional.of(value), dataRepository.find(value.id()));
+    assertEquals(0, dataRepository.coalesced());
+
+    verify(delegate, times(2)).find(value.id());
+  }
+
+  @Test
+  void shouldBeFoundAsDecorator()
+  {
+    DataRepository<Value, Integer> delegate = dataRepository();
+    CoalescingDataRepository<Value, Integer> coalescing = new CoalescingDataRepository<>(delegate);
+    DataRepository<Value, Integer> dataRepository = new CachingDataRepository<>(coalescing, Value::id, 10, Duration.ofMinutes(1));
+
+    assertEquals(Optional.of(coalescing), DelegatingDataRepository.decorator(dataRepository, CoalescingDataRepository.class));
+    assertEquals(Optional.empty(), DelegatingDataRepository.decorator(delegate, CoalescingDataRepository.class));
+  }
+
+  @Test
+  void shouldRethrowRepositoryException()
+  {
+    int id = 1;
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.find(id)).thenThrow(new FindException(new IllegalStateException("TESTING")));
+
+    CoalescingDataRepository<Value, Integer> dataRepository = new CoalescingDataRepository<>(delegate);
+
+    assertThrows(FindException.class, () -> dataRepository.find(id));
+  }
+}
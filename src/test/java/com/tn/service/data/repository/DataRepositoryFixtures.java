@@ -0,0 +1,21 @@
+package com.tn.service.data.repository;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * The mock repository and values shared by the repository decorator tests.
+ */
+final class DataRepositoryFixtures
+{
+  private DataRepositoryFixtures() {}
+
+  @SuppressWarnings("unchecked")
+  static <V, ID> DataRepository<V, ID> dataRepository()
+  {
+    return mock(DataRepository.class);
+  }
+
+  record Value(Integer id, String name) {}
+
+  record LongValue(Long id, String name) {}
+}
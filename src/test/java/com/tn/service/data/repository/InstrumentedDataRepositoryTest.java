@@ -0,0 +1,143 @@
+package com.tn.service.data.repository;
+
+import static java.util.Collections.emptySet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import static com.tn.query.Query.parse;
+import static com.tn.service.data.domain.Direction.ASCENDING;
+import static com.tn.service.data.repository.DataRepositoryFixtures.dataRepository;
+import static com.tn.service.data.repository.InstrumentedDataRepository.METER_BATCH;
+import static com.tn.service.data.repository.InstrumentedDataRepository.METER_CALLS;
+import static com.tn.service.data.repository.InstrumentedDataRepository.METER_QUERY_NODES;
+import static com.tn.service.data.repository.InstrumentedDataRepository.METER_RESULTS;
+import static com.tn.service.data.repository.InstrumentedDataRepository.OUTCOME_ERROR;
+import static com.tn.service.data.repository.InstrumentedDataRepository.OUTCOME_SUCCESS;
+import static com.tn.service.data.repository.InstrumentedDataRepository.TAG_EXCEPTION;
+import static com.tn.service.data.repository.InstrumentedDataRepository.TAG_METHOD;
+import static com.tn.service.data.repository.InstrumentedDataRepository.TAG_OUTCOME;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import com.tn.lang.util.Page;
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.repository.DataRepositoryFixtures.Value;
+
+class InstrumentedDataRepositoryTest
+{
+  @Test
+  void shouldRecordFind()
+  {
+    Value value = new Value(1, "ONE");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.find(value.id())).thenReturn(Optional.of(value));
+
+    MeterRegistry registry = new SimpleMeterRegistry();
+
+    assertEquals(Optional.of(value), new InstrumentedDataRepository<>(delegate, registry).find(value.id()));
+    assertEquals(1, registry.get(METER_CALLS).tag(TAG_METHOD, "find").tag(TAG_OUTCOME, OUTCOME_SUCCESS).timer().count());
+  }
+
+  @Test
+  void shouldRecordFailedCall()
+  {
+    Value value = new Value(1, "ONE");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.insert(value)).thenThrow(new InsertException("TESTING"));
+
+    MeterRegistry registry = new SimpleMeterRegistry();
+
+    assertThrows(InsertException.class, () -> new InstrumentedDataRepository<>(delegate, registry).insert(value));
+    assertEquals(1, registry.get(METER_CALLS).tag(TAG_METHOD, "insert").tag(TAG_OUTCOME, OUTCOME_ERROR).tag(TAG_EXCEPTION, "InsertException").timer().count());
+    assertEquals(0, registry.get(METER_CALLS).tag(TAG_METHOD, "insert").tag(TAG_OUTCOME, OUTCOME_SUCCESS).timer().count());
+  }
+
+  @Test
+  void shouldRecordBatchAndResults()
+  {
+    Value value1 = new Value(1, "ONE");
+    Value value2 = new Value(2, "TWO");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.findAll(Set.of(value1.id(), value2.id(), 3))).thenReturn(List.of(value1, value2));
+
+    MeterRegistry registry = new SimpleMeterRegistry();
+
+    new InstrumentedDataRepository<>(delegate, registry).findAll(Set.of(value1.id(), value2.id(), 3));
+
+    assertEquals(3, registry.get(METER_BATCH).tag(TAG_METHOD, "find-all-ids").summary().totalAmount());
+    assertEquals(2, registry.get(METER_RESULTS).tag(TAG_METHOD, "find-all-ids").summary().totalAmount());
+  }
+
+  @Test
+  void shouldRecordPageResults()
+  {
+    Page<Value> page = new Page<>(List.of(new Value(1, "ONE"), new Value(2, "TWO")), 0, 10, 2, 1);
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.findAll(0, 10, emptySet(), ASCENDING)).thenReturn(page);
+
+    MeterRegistry registry = new SimpleMeterRegistry();
+
+    assertEquals(page, new InstrumentedDataRepository<>(delegate, registry).findAll(0, 10, emptySet(), ASCENDING));
+    assertEquals(2, registry.get(METER_RESULTS).tag(TAG_METHOD, "find-all-page").summary().totalAmount());
+  }
+
+  @Test
+  void shouldRecordStreamWhenClosed()
+  {
+    Criteria criteria = new Criteria("name=ONE||name=TWO", parse("name=ONE||name=TWO"));
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.streamWhere(criteria, emptySet(), ASCENDING)).thenReturn(Stream.of(new Value(1, "ONE"), new Value(2, "TWO")));
+
+    MeterRegistry registry = new SimpleMeterRegistry();
+
+    try (Stream<Value> values = new InstrumentedDataRepository<>(delegate, registry).streamWhere(criteria, emptySet(), ASCENDING))
+    {
+      assertEquals(2, values.toList().size());
+      assertEquals(0, registry.get(METER_CALLS).tag(TAG_METHOD, "stream-where").timer().count());
+    }
+
+    assertEquals(1, registry.get(METER_CALLS).tag(TAG_METHOD, "stream-where").timer().count());
+    assertEquals(2, registry.get(METER_RESULTS).tag(TAG_METHOD, "stream-where").summary().totalAmount());
+    assertEquals(3, registry.get(METER_QUERY_NODES).summary().totalAmount());
+  }
+
+  @Test
+  void shouldRecordStreamFailingWhileReadAsError()
+  {
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.streamAll(emptySet(), ASCENDING)).thenReturn(
+      Stream.of(new Value(1, "ONE"), new Value(2, "TWO")).map(
+        value ->
+        {
+          if (value.id() == 2) throw new IllegalStateException("TESTING");
+          return value;
+        }
+      )
+    );
+
+    MeterRegistry registry = new SimpleMeterRegistry();
+
+    try (Stream<Value> values = new InstrumentedDataRepository<>(delegate, registry).streamAll(emptySet(), ASCENDING))
+    {
+      assertThrows(IllegalStateException.class, values::toList);
+    }
+
+    assertEquals(0, registry.get(METER_CALLS).tag(TAG_METHOD, "stream-all").tag(TAG_OUTCOME, OUTCOME_SUCCESS).timer().count());
+    assertEquals(1, registry.get(METER_CALLS).tag(TAG_METHOD, "stream-all").tag(TAG_OUTCOME, OUTCOME_ERROR).tag(TAG_EXCEPTION, "IllegalStateException").timer().count());
+    assertEquals(0, registry.get(METER_RESULTS).tag(TAG_METHOD, "stream-all").summary().count());
+  }
+}
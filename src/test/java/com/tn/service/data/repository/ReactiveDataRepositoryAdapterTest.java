@@ -0,0 +1,146 @@
+package com.tn.service.data.repository;
+
+import static java.util.Collections.emptySet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import static com.tn.service.data.domain.Direction.ASCENDING;
+import static com.tn.service.data.repository.DataRepositoryFixtures.dataRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import com.tn.service.data.repository.DataRepositoryFixtures.Value;
+
+class ReactiveDataRepositoryAdapterTest
+{
+  @Test
+  void shouldFind()
+  {
+    Value value = new Value(1, "ONE");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.find(value.id())).thenReturn(Optional.of(value));
+    when(delegate.find(2)).thenReturn(Optional.empty());
+
+    ReactiveDataRepository<Value, Integer> dataRepository = new ReactiveDataRepositoryAdapter<>(delegate, Schedulers.boundedElastic());
+
+    assertEquals(value, dataRepository.find(value.id()).block());
+    assertNull(dataRepository.find(2).block());
+  }
+
+  @Test
+  void shouldNotCallUntilSubscribed()
+  {
+    DataRepository<Value, Integer> delegate = dataRepository();
+
+    ReactiveDataRepository<Value, Integer> dataRepository = new ReactiveDataRepositoryAdapter<>(delegate, Schedulers.boundedElastic());
+    dataRepository.find(1);
+    dataRepository.findAll(emptySet(), ASCENDING);
+    dataRepository.insertAll(List.of(new Value(1, "ONE")));
+
+    verifyNoInteractions(delegate);
+  }
+
+  @Test
+  void shouldCallOffSubscriberThread()
+  {
+    Value value = new Value(1, "ONE");
+    AtomicReference<Thread> thread = new AtomicReference<>();
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.find(value.id())).thenAnswer(
+      invocation ->
+      {
+        thread.set(Thread.currentThread());
+        return Optional.of(value);
+      }
+    );
+
+    new ReactiveDataRepositoryAdapter<>(delegate, Schedulers.boundedElastic()).find(value.id()).block();
+
+    assertNotSame(Thread.currentThread(), thread.get());
+  }
+
+  @Test
+  void shouldCloseStreamOnCancel()
+  {
+    AtomicBoolean closed = new AtomicBoolean();
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.streamAll(emptySet(), ASCENDING)).thenReturn(
+      Stream.iterate(1, id -> id + 1).map(id -> new Value(id, "VALUE")).onClose(() -> closed.set(true))
+    );
+
+    Flux<Value> values = new ReactiveDataRepositoryAdapter<>(delegate, Schedulers.boundedElastic()).findAll(emptySet(), ASCENDING);
+
+    assertEquals(List.of(new Value(1, "VALUE"), new Value(2, "VALUE")), values.take(2).collectList().block());
+    assertTrue(closed.get());
+  }
+
+  @Test
+  void shouldCount()
+  {
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.count()).thenReturn(3L);
+
+    assertEquals(3L, new ReactiveDataRepositoryAdapter<>(delegate, Schedulers.boundedElastic()).count().block());
+    verify(delegate).count();
+  }
+
+  @Test
+  void shouldFindAllInChunksInRequestOrder()
+  {
+    List<Integer> identities = List.of(5, 3, 9, 1, 7);
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.findAll(anyIterable())).thenAnswer(
+      invocation ->
+      {
+        List<Value> values = new ArrayList<>();
+        invocation.<Iterable<Integer>>getArgument(0).forEach(id -> values.add(new Value(id, "VALUE")));
+
+        return values;
+      }
+    );
+
+    ReactiveDataRepository<Value, Integer> dataRepository = new ReactiveDataRepositoryAdapter<>(delegate, Schedulers.boundedElastic(), 2, 2);
+
+    assertEquals(identities.stream().map(id -> new Value(id, "VALUE")).toList(), dataRepository.findAll(identities).collectList().block());
+    verify(delegate, times(3)).findAll(anyIterable());
+  }
+
+  @Test
+  void shouldNotCreateWithInvalidChunkSize()
+  {
+    assertThrows(IllegalArgumentException.class, () -> new ReactiveDataRepositoryAdapter<>(dataRepository(), Schedulers.boundedElastic(), 0, 1));
+  }
+
+  @Test
+  void shouldSignalRepositoryException()
+  {
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.insert(new Value(1, "ONE"))).thenThrow(new InsertException("TESTING"));
+
+    ReactiveDataRepository<Value, Integer> dataRepository = new ReactiveDataRepositoryAdapter<>(delegate, Schedulers.boundedElastic());
+
+    assertThrows(InsertException.class, () -> dataRepository.insert(new Value(1, "ONE")).block());
+  }
+}
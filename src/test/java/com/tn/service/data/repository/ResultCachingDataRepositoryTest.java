@@ -0,0 +1,228 @@
+package com.tn.service.data.repository;
+
+import static java.util.Collections.emptySet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static com.tn.query.Query.parse;
+import static com.tn.service.data.domain.Direction.ASCENDING;
+import static com.tn.service.data.domain.Direction.DESCENDING;
+import static com.tn.service.data.repository.DataRepositoryFixtures.dataRepository;
+import static com.tn.service.data.repository.ResultCachingDataRepository.SHAPE_ALL;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.tn.lang.util.Page;
+import com.tn.service.data.domain.Criteria;
+import com.tn.service.data.repository.DataRepositoryFixtures.Value;
+
+class ResultCachingDataRepositoryTest
+{
+  private static final Duration TTL = Duration.ofMinutes(1);
+  private static final Criteria QUERY = new Criteria("name=ONE||name=TWO", parse("name=ONE||name=TWO"));
+
+  @Test
+  void shouldCacheFindWhere()
+  {
+    Value value = new Value(1, "ONE");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.findWhere(QUERY, List.of("name"), ASCENDING)).thenReturn(List.of(value));
+
+    DataRepository<Value, Integer> dataRepository = new ResultCachingDataRepository<>(delegate, shape -> true, 100, 10, TTL);
+
+    assertEquals(List.of(value), dataRepository.findWhere(QUERY, List.of("name"), ASCENDING));
+    assertEquals(List.of(value), dataRepository.findWhere(QUERY, List.of("name"), ASCENDING));
+
+    verify(delegate).findWhere(QUERY, List.of("name"), ASCENDING);
+  }
+
+  @Test
+  void shouldCacheByDirection()
+  {
+    Value value = new Value(1, "ONE");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.findAll(emptySet(), ASCENDING)).thenReturn(List.of(value));
+    when(delegate.findAll(emptySet(), DESCENDING)).thenReturn(List.of(value));
+
+    DataRepository<Value, Integer> dataRepository = new ResultCachingDataRepository<>(delegate, shape -> true, 100, 10, TTL);
+
+    dataRepository.findAll(emptySet(), ASCENDING);
+    dataRepository.findAll(emptySet(), DESCENDING);
+    dataRepository.findAll(emptySet(), ASCENDING);
+
+    verify(delegate).findAll(emptySet(), ASCENDING);
+    verify(delegate).findAll(emptySet(), DESCENDING);
+  }
+
+  @Test
+  void shouldCacheStreamWhere()
+  {
+    Value value1 = new Value(1, "ONE");
+    Value value2 = new Value(2, "TWO");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.streamWhere(QUERY, emptySet(), ASCENDING)).thenAnswer(invocation -> Stream.of(value1, value2));
+
+    DataRepository<Value, Integer> dataRepository = new ResultCachingDataRepository<>(delegate, shape -> true, 100, 10, TTL);
+
+    try (Stream<Value> values = dataRepository.streamWhere(QUERY, emptySet(), ASCENDING))
+    {
+      assertEquals(List.of(value1, value2), values.toList());
+    }
+
+    try (Stream<Value> values = dataRepository.streamWhere(QUERY, emptySet(), ASCENDING))
+    {
+      assertEquals(List.of(value1, value2), values.toList());
+    }
+
+    verify(delegate).streamWhere(QUERY, emptySet(), ASCENDING);
+  }
+
+  @Test
+  void shouldNotCacheLargeStream()
+  {
+    List<Value> all = List.of(new Value(1, "ONE"), new Value(2, "TWO"), new Value(3, "THREE"));
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.streamAll(emptySet(), ASCENDING)).thenAnswer(invocation -> all.stream());
+
+    DataRepository<Value, Integer> dataRepository = new ResultCachingDataRepository<>(delegate, shape -> true, 100, 2, TTL);
+
+    try (Stream<Value> values = dataRepository.streamAll(emptySet(), ASCENDING))
+    {
+      assertEquals(all, values.toList());
+    }
+
+    try (Stream<Value> values = dataRepository.streamAll(emptySet(), ASCENDING))
+    {
+      assertEquals(all, values.toList());
+    }
+
+    verify(delegate, times(2)).streamAll(emptySet(), ASCENDING);
+  }
+
+  @Test
+  void shouldCacheStreamOfMaxEntryValues()
+  {
+    List<Value> all = List.of(new Value(1, "ONE"), new Value(2, "TWO"));
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.streamAll(emptySet(), ASCENDING)).thenAnswer(invocation -> all.stream());
+
+    DataRepository<Value, Integer> dataRepository = new ResultCachingDataRepository<>(delegate, shape -> true, 100, 2, TTL);
+
+    try (Stream<Value> values = dataRepository.streamAll(emptySet(), ASCENDING))
+    {
+      assertEquals(all, values.toList());
+    }
+
+    try (Stream<Value> values = dataRepository.streamAll(emptySet(), ASCENDING))
+    {
+      assertEquals(all, values.toList());
+    }
+
+    verify(delegate).streamAll(emptySet(), ASCENDING);
+  }
+
+  @Test
+  void shouldCachePageByContentSize()
+  {
+    Page<Value> small = new Page<>(List.of(new Value(1, "ONE")), 0, 100, 1, 1);
+    Page<Value> large = new Page<>(List.of(new Value(1, "ONE"), new Value(2, "TWO"), new Value(3, "THREE")), 1, 100, 3, 1);
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.findWhere(QUERY, 0, 100, emptySet(), ASCENDING)).thenReturn(small);
+    when(delegate.findWhere(QUERY, 1, 100, emptySet(), ASCENDING)).thenReturn(large);
+
+    DataRepository<Value, Integer> dataRepository = new ResultCachingDataRepository<>(delegate, shape -> true, 100, 2, TTL);
+
+    for (int i = 0; i < 2; i++)
+    {
+      assertEquals(small, dataRepository.findWhere(QUERY, 0, 100, emptySet(), ASCENDING));
+      assertEquals(large, dataRepository.findWhere(QUERY, 1, 100, emptySet(), ASCENDING));
+    }
+
+    verify(delegate).findWhere(QUERY, 0, 100, emptySet(), ASCENDING);
+    verify(delegate, times(2)).findWhere(QUERY, 1, 100, emptySet(), ASCENDING);
+  }
+
+  @Test
+  void shouldInvalidateOnWrite()
+  {
+    Value value = new Value(1, "ONE");
+    Value updated = new Value(1, "UPDATED");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.findWhere(QUERY, emptySet(), ASCENDING)).thenReturn(List.of(value), List.of(updated));
+    when(delegate.update(updated)).thenReturn(updated);
+
+    DataRepository<Value, Integer> dataRepository = new ResultCachingDataRepository<>(delegate, shape -> true, 100, 10, TTL);
+
+    assertEquals(List.of(value), dataRepository.findWhere(QUERY, emptySet(), ASCENDING));
+
+    dataRepository.update(updated);
+
+    assertEquals(List.of(updated), dataRepository.findWhere(QUERY, emptySet(), ASCENDING));
+
+    verify(delegate, times(2)).findWhere(QUERY, emptySet(), ASCENDING);
+  }
+
+  @Test
+  void shouldNotCacheResultLoadedDuringWrite()
+  {
+    Value value = new Value(1, "ONE");
+    Value updated = new Value(1, "UPDATED");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    ResultCachingDataRepository<Value, Integer> dataRepository = new ResultCachingDataRepository<>(delegate, shape -> true, 100, 10, TTL);
+
+    // the write completes while the stale result is being loaded.
+    when(delegate.findWhere(QUERY, emptySet(), ASCENDING)).thenAnswer(
+      invocation ->
+      {
+        dataRepository.update(updated);
+        return List.of(value);
+      }
+    ).thenReturn(List.of(updated));
+
+    assertEquals(List.of(value), dataRepository.findWhere(QUERY, emptySet(), ASCENDING));
+    assertEquals(List.of(updated), dataRepository.findWhere(QUERY, emptySet(), ASCENDING));
+  }
+
+  @Test
+  void shouldNotCacheExcludedShape()
+  {
+    Value value = new Value(1, "ONE");
+
+    DataRepository<Value, Integer> delegate = dataRepository();
+    when(delegate.findWhere(QUERY, emptySet(), ASCENDING)).thenReturn(List.of(value));
+    when(delegate.findAll(emptySet(), ASCENDING)).thenReturn(List.of(value));
+
+    DataRepository<Value, Integer> dataRepository = new ResultCachingDataRepository<>(delegate, SHAPE_ALL::equals, 100, 10, TTL);
+
+    dataRepository.findWhere(QUERY, emptySet(), ASCENDING);
+    dataRepository.findWhere(QUERY, emptySet(), ASCENDING);
+    dataRepository.findAll(emptySet(), ASCENDING);
+    dataRepository.findAll(emptySet(), ASCENDING);
+
+    verify(delegate, times(2)).findWhere(QUERY, emptySet(), ASCENDING);
+    verify(delegate).findAll(emptySet(), ASCENDING);
+  }
+
+  @Test
+  void shouldFindShape()
+  {
+    assertEquals(SHAPE_ALL, ResultCachingDataRepository.shape(null));
+    assertEquals("name", ResultCachingDataRepository.shape(QUERY));
+    assertEquals("id+name", ResultCachingDataRepository.shape(new Criteria("name=ONE&&(id=1||id=2)", parse("name=ONE&&(id=1||id=2)"))));
+  }
+}